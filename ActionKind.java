@@ -0,0 +1,7 @@
+/** The kinds of actions a player can take in a GameEngine. A guess names a value of the kind: an atomic number, a
+ * period, or the ordinal of a column, family, or metallic state. MODULUS_3 is the built-in hint, and HINT an extra hint
+ * offered by the game's GameRules. The ordinals are stored in GameLog and SessionJournal records, so new kinds are only
+ * ever added at the end. */
+enum ActionKind {
+    ELEMENT, ROW, COLUMN, FAMILY, METALLIC_STATE, MODULUS_3, HINT
+}
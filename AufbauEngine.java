@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/** Table-driven electron configuration engine. Ground state configurations are built incrementally: each element's
+ * configuration is the previous element's idealized configuration plus one electron in the next subshell, corrected
+ * by a table of the known exceptions to the Aufbau principle (chromium, copper, palladium, gadolinium, ...).
+ * Ions are derived from the ground state: cations lose electrons from the highest principal quantum number first
+ * (the highest subshell within it first), and anions gain them in Aufbau order.
+ * Every result is memoized, so looking up any element with any common charge is an array read after the first time. */
+final class AufbauEngine {
+    /** Most negative charge that is memoized. */
+    static final int MIN_CACHED_CHARGE = -8;
+    /** Most positive charge that is memoized. */
+    static final int MAX_CACHED_CHARGE = 8;
+
+    /** Known ground states that differ from strict Aufbau filling: atomic number, subshell losing electrons,
+     * subshell gaining them, and the number of electrons moved. */
+    private static final String[][] EXCEPTIONS = {
+            {"24", "4s", "3d", "1"}, // chromium: [Ar] 4s1 3d5
+            {"29", "4s", "3d", "1"}, // copper: [Ar] 4s1 3d10
+            {"41", "5s", "4d", "1"}, // niobium: [Kr] 5s1 4d4
+            {"42", "5s", "4d", "1"}, // molybdenum: [Kr] 5s1 4d5
+            {"44", "5s", "4d", "1"}, // ruthenium: [Kr] 5s1 4d7
+            {"45", "5s", "4d", "1"}, // rhodium: [Kr] 5s1 4d8
+            {"46", "5s", "4d", "2"}, // palladium: [Kr] 4d10
+            {"47", "5s", "4d", "1"}, // silver: [Kr] 5s1 4d10
+            {"57", "4f", "5d", "1"}, // lanthanum: [Xe] 6s2 5d1
+            {"58", "4f", "5d", "1"}, // cerium: [Xe] 6s2 4f1 5d1
+            {"64", "4f", "5d", "1"}, // gadolinium: [Xe] 6s2 4f7 5d1
+            {"78", "6s", "5d", "1"}, // platinum: [Xe] 6s1 4f14 5d9
+            {"79", "6s", "5d", "1"}, // gold: [Xe] 6s1 4f14 5d10
+            {"89", "5f", "6d", "1"}, // actinium: [Rn] 7s2 6d1
+            {"90", "5f", "6d", "2"}, // thorium: [Rn] 7s2 6d2
+            {"91", "5f", "6d", "1"}, // protactinium: [Rn] 7s2 5f2 6d1
+            {"92", "5f", "6d", "1"}, // uranium: [Rn] 7s2 5f3 6d1
+            {"93", "5f", "6d", "1"}, // neptunium: [Rn] 7s2 5f4 6d1
+            {"96", "5f", "6d", "1"}, // curium: [Rn] 7s2 5f7 6d1
+            {"103", "6d", "7p", "1"} // lawrencium: [Rn] 7s2 5f14 7p1
+    };
+
+    /** Ground state configurations, indexed by atomic number (index 0 is unused). */
+    private static final ElectronConfiguration[] GROUND_STATES = new ElectronConfiguration[Element.TOTAL_ELEMENT_COUNT + 1];
+    /** Whether each element's ground state is one of the EXCEPTIONS, indexed by atomic number. */
+    private static final boolean[] IS_EXCEPTION = new boolean[Element.TOTAL_ELEMENT_COUNT + 1];
+    /** Subshell indexes in the order cations lose electrons: highest principal quantum number first, and within it the
+     * highest angular momentum first (so 4p, then 4s, then 3d). */
+    private static final int[] REMOVAL_ORDER = new int[ElectronConfiguration.SUBSHELL_COUNT];
+    /** Memoized ions, indexed by atomic number and then by charge - MIN_CACHED_CHARGE. */
+    private static final ElectronConfiguration[][] IONS =
+            new ElectronConfiguration[Element.TOTAL_ELEMENT_COUNT + 1][MAX_CACHED_CHARGE - MIN_CACHED_CHARGE + 1];
+
+    static {
+        int[][] moves = new int[Element.TOTAL_ELEMENT_COUNT + 1][];
+        for (String[] exception : EXCEPTIONS) {
+            moves[Integer.parseInt(exception[0])] = new int[]{subshellIndex(exception[1]), subshellIndex(exception[2]),
+                    Integer.parseInt(exception[3])};
+        }
+        // the idealized configuration grows by one electron per element
+        byte[] idealized = new byte[ElectronConfiguration.SUBSHELL_COUNT];
+        int subshell = 0;
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            if (idealized[subshell] == ElectronConfiguration.CAPACITIES[subshell]) subshell++;
+            idealized[subshell]++;
+            byte[] groundState = idealized.clone();
+            int[] move = moves[atomicNumber];
+            if (move != null) {
+                groundState[move[0]] -= move[2];
+                groundState[move[1]] += move[2];
+                IS_EXCEPTION[atomicNumber] = true;
+            }
+            GROUND_STATES[atomicNumber] = ElectronConfiguration.of(groundState);
+        }
+
+        Integer[] order = new Integer[ElectronConfiguration.SUBSHELL_COUNT];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> (principalNumber(a) != principalNumber(b))
+                ? principalNumber(b) - principalNumber(a) : angularMomentum(b) - angularMomentum(a));
+        for (int i = 0; i < order.length; i++) REMOVAL_ORDER[i] = order[i];
+    }
+
+    private AufbauEngine() {}
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return the ground state configuration of the neutral element, including known exceptions to Aufbau filling
+     * @throws IllegalArgumentException thrown if the atomic number is invalid */
+    static ElectronConfiguration groundState(int atomicNumber) throws IllegalArgumentException {
+        checkAtomicNumber(atomicNumber);
+        return GROUND_STATES[atomicNumber];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return true if the element's ground state differs from strict Aufbau filling */
+    static boolean isException(int atomicNumber) {
+        checkAtomicNumber(atomicNumber);
+        return IS_EXCEPTION[atomicNumber];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @param charge charge of the ion: positive for cations, negative for anions, 0 for the neutral atom
+     * @return the configuration of the ion
+     * @throws IllegalArgumentException thrown if the atomic number is invalid, the cation would have fewer than 0
+     * electrons, or the anion would have more electrons than the subshells can hold */
+    static ElectronConfiguration ion(int atomicNumber, int charge) throws IllegalArgumentException {
+        checkAtomicNumber(atomicNumber);
+        if (charge == 0) return GROUND_STATES[atomicNumber];
+        boolean cached = charge >= MIN_CACHED_CHARGE && charge <= MAX_CACHED_CHARGE;
+        if (cached && IONS[atomicNumber][charge - MIN_CACHED_CHARGE] != null) {
+            return IONS[atomicNumber][charge - MIN_CACHED_CHARGE];
+        }
+        int electrons = atomicNumber - charge;
+        if (electrons < 0) {
+            throw new IllegalArgumentException("An element cannot lose more electrons than it has.");
+        }
+        if (electrons > Element.TOTAL_ELEMENT_COUNT) {
+            throw new IllegalArgumentException("The subshells cannot hold that many electrons.");
+        }
+        byte[] occupancy = GROUND_STATES[atomicNumber].toByteArray();
+        if (charge > 0) {
+            int toRemove = charge;
+            for (int i = 0; i < REMOVAL_ORDER.length && toRemove > 0; i++) {
+                int subshell = REMOVAL_ORDER[i];
+                int removed = Math.min(toRemove, occupancy[subshell]);
+                occupancy[subshell] -= removed;
+                toRemove -= removed;
+            }
+        } else {
+            int toAdd = -charge;
+            for (int subshell = 0; subshell < occupancy.length && toAdd > 0; subshell++) {
+                int added = Math.min(toAdd, ElectronConfiguration.CAPACITIES[subshell] - occupancy[subshell]);
+                occupancy[subshell] += added;
+                toAdd -= added;
+            }
+        }
+        ElectronConfiguration configuration = ElectronConfiguration.of(occupancy);
+        if (cached) IONS[atomicNumber][charge - MIN_CACHED_CHARGE] = configuration;
+        return configuration;
+    }
+
+    /** @param abbreviation abbreviation of the element
+     * @param charge charge of the ion
+     * @return the ion's symbol (e.g. "Fe3+", "O2-", "Na+"), or the abbreviation alone for charge 0 */
+    static String ionSymbol(String abbreviation, int charge) {
+        if (charge == 0) return abbreviation;
+        String sign = (charge > 0) ? "+" : "-";
+        return (Math.abs(charge) == 1) ? abbreviation + sign : abbreviation + Math.abs(charge) + sign;
+    }
+
+    /** @throws IllegalArgumentException thrown if the atomic number is invalid */
+    private static void checkAtomicNumber(int atomicNumber) throws IllegalArgumentException {
+        if (atomicNumber > Element.TOTAL_ELEMENT_COUNT || atomicNumber < 1) {
+            throw new IllegalArgumentException("Invalid atomic number entered.");
+        }
+    }
+
+    /** @param label a subshell label such as "3d"
+     * @return its index in ElectronConfiguration.SUBSHELLS */
+    private static int subshellIndex(String label) {
+        for (int i = 0; i < ElectronConfiguration.SUBSHELL_COUNT; i++) {
+            if (ElectronConfiguration.SUBSHELLS[i].equals(label)) return i;
+        }
+        throw new IllegalStateException("Unknown subshell " + label);
+    }
+
+    /** @return the principal quantum number of the subshell (the 3 of 3d) */
+    private static int principalNumber(int subshell) {
+        return ElectronConfiguration.SUBSHELLS[subshell].charAt(0) - '0';
+    }
+
+    /** @return the angular momentum quantum number of the subshell (s=0, p=1, d=2, f=3) */
+    private static int angularMomentum(int subshell) {
+        return "spdf".indexOf(ElectronConfiguration.SUBSHELLS[subshell].charAt(1));
+    }
+}
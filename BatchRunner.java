@@ -0,0 +1,161 @@
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Runs a script of commands without any prompts ("java Main --batch script.txt", or "--batch -" for stdin).
+ * The script is read with a LineTokenizer, and every result goes into one large output buffer that is written only
+ * when it fills and at the end, so a script of thousands of lookups or games runs as fast as the lookups and games
+ * themselves. One command per line; blank lines and lines starting with '#' are skipped:
+ * <ul>
+ * <li>element NAME|SYMBOL|NUMBER: one line of facts about the element;</li>
+ * <li>info NAME|SYMBOL|NUMBER: COMMANDS: the answers to information getter commands (e.g. "info fe: AM EC ION+2");</li>
+ * <li>query QUERY: the elements matching an ElementQuery, as a table;</li>
+ * <li>play STRATEGY LEVEL SEED|random [ELEMENT SET]: plays one game with a built-in Strategy and prints its
+ *     result;</li>
+ * <li>games COUNT STRATEGY LEVEL SEED [ELEMENT SET]: plays COUNT games, seeded from SEED, and prints a summary;</li>
+ * <li>export csv|jsonl|binary FILE: writes every element's properties to a file (see ElementExport);</li>
+ * <li>rules FILE|standard: plays the games of later commands by the GameRules in a rules file, or by the standard
+ *     rules again.</li>
+ * </ul>
+ * LEVEL is a level of the rules, by name or first letter (by the standard rules h, i, g, or u); ELEMENT SET is y, n
+ * (the default), or an ElementSet spec. A command that fails prints "line N: error" and the script goes on. */
+final class BatchRunner {
+    /** Bytes of output buffered before they are written. */
+    static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final LineTokenizer script;
+    private final PrintStream out;
+    private GameRules rules = GameRules.STANDARD;
+    private int commands;
+    private int errors;
+
+    private BatchRunner(LineTokenizer script, PrintStream out) {
+        this.script = script;
+        this.out = out;
+    }
+
+    /** Runs a script, printing the results to stdout and a summary to stderr.
+     * @param file the script's path, or "-" for stdin
+     * @return the number of commands that failed
+     * @throws IOException thrown if the script cannot be read */
+    static int run(String file) throws IOException {
+        InputStream in = file.equals("-") ? new FileInputStream(FileDescriptor.in) : new FileInputStream(file);
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out),
+                OUTPUT_BUFFER_SIZE), false, StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        BatchRunner runner;
+        try (LineTokenizer script = new LineTokenizer(in)) {
+            runner = new BatchRunner(script, out);
+            runner.runAll();
+        } finally {
+            out.flush();
+        }
+        System.err.printf("%d commands (%d failed) in %.1f ms%n", runner.commands, runner.errors,
+                (System.nanoTime() - start) / 1e6);
+        return runner.errors;
+    }
+
+    private void runAll() throws IOException {
+        while (script.next()) {
+            if (script.tokenCount() == 0 || script.token(0).startsWith("#")) continue;
+            commands++;
+            try {
+                runCommand();
+            } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException ex) {
+                errors++;
+                out.printf("line %d: %s%n", script.getLineNumber(), ex.getMessage());
+            }
+        }
+    }
+
+    private void runCommand() throws IllegalArgumentException, IllegalStateException {
+        if (script.tokenIs(0, "element")) {
+            printElement(parseElement(script.rest(1)));
+        } else if (script.tokenIs(0, "info")) {
+            String line = script.rest(1);
+            int colon = line.indexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("Expected ELEMENT: COMMANDS");
+            Main.displayInfo(line.substring(colon + 1), parseElement(line.substring(0, colon).trim()), out);
+        } else if (script.tokenIs(0, "query")) {
+            ElementQuery.compile(script.rest(1)).printTable(out);
+        } else if (script.tokenIs(0, "play")) {
+            Strategy strategy = parseStrategy(script.token(1));
+            long seed = script.tokenIs(3, "random") ? ThreadLocalRandom.current().nextLong() : script.longToken(3);
+            GameEngine game = Tournament.play(strategy, new GameEngine(parseConfig(2, 4), seed));
+            out.printf("%s seed=%d L=%s %s fetches=%d/%d actions=%d%n", script.token(1), seed,
+                    game.getElementL().getAbbreviation(), game.getStatus(),
+                    game.getConfig().startingFetches() - Math.max(game.getFetches(), 0),
+                    game.getConfig().startingFetches(), game.getHistory().size());
+        } else if (script.tokenIs(0, "games")) {
+            long count = script.longToken(1);
+            if (count < 1) throw new IllegalArgumentException("The game count must be positive");
+            Strategy strategy = parseStrategy(script.token(2));
+            GameEngine.Config config = parseConfig(3, 5);
+            SplittableRandom seeds = new SplittableRandom(script.longToken(4));
+            Tournament.Report report = new Tournament.Report(script.token(2));
+            for (long i = 0; i < count; i++) {
+                report.add(Tournament.play(strategy, new GameEngine(config, seeds.nextLong())));
+            }
+            out.printf("%s %d games: %.2f%% won, %.2f fetches used, most lost: %s%n", script.token(2), count,
+                    100 * report.getWinRate(), report.getMeanFetchesUsed(), report.getWorstElements(5));
+        } else if (script.tokenIs(0, "export")) {
+            try {
+                ElementExport.export(ElementExport.parseFormat(script.token(1)), script.rest(2));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not export to " + script.rest(2) + ": " + ex.getMessage());
+            }
+            out.printf("Exported %d elements to %s%n", Element.TOTAL_ELEMENT_COUNT, script.rest(2));
+        } else if (script.tokenIs(0, "rules")) {
+            if (script.tokenIs(1, "standard")) {
+                rules = GameRules.STANDARD;
+            } else {
+                try {
+                    rules = GameRules.load(script.rest(1));
+                } catch (IOException ex) {
+                    throw new IllegalStateException("Could not read " + script.rest(1) + ": " + ex.getMessage());
+                }
+            }
+            out.printf("Rules: %s (%d extra hints)%n", rules.getName(), rules.hintCount());
+        } else {
+            throw new IllegalArgumentException("Unknown command: " + script.token(0));
+        }
+    }
+
+    /** @return the element with the name, symbol, or atomic number */
+    private static Element parseElement(String text) throws IllegalArgumentException {
+        if (!text.isEmpty() && Character.isDigit(text.charAt(0))) return Element.of(Integer.parseInt(text));
+        Element element = ElementNameIndex.resolve(text);
+        if (element == null) {
+            throw new IllegalArgumentException("Unknown element: " + text + ElementNameIndex.didYouMean(text));
+        }
+        return element;
+    }
+
+    private static Strategy parseStrategy(String name) throws IllegalArgumentException {
+        Strategy strategy = Strategy.builtIns().get(name.toLowerCase());
+        if (strategy == null) throw new IllegalArgumentException("Unknown strategy: " + name);
+        return strategy;
+    }
+
+    /** @param levelToken the index of the LEVEL token
+     * @param setToken the index of the first token of the optional ELEMENT SET */
+    private GameEngine.Config parseConfig(int levelToken, int setToken) throws IllegalArgumentException {
+        int difficulty = rules.parseLevel(script.token(levelToken));
+        if (difficulty == 0) throw new IllegalArgumentException("Unknown difficulty: " + script.token(levelToken));
+        String set = script.rest(setToken);
+        return new GameEngine.Config(ElementLGame.parsePlayableElements(set.isEmpty() ? "n" : set), difficulty, rules);
+    }
+
+    private void printElement(Element element) {
+        out.printf("%d %s %s: mass %s, period %d, column %s, %s, %s%n", element.getAtomicNumber(),
+                element.getAbbreviation(), element, element.getAtomicMass(), element.getPeriod(), element.getColumn(),
+                element.getElementFamily(), element.getMetallicState().getLabel());
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/** Tracks which elements element L can still be, given every hint the player has received. The tracker starts from
+ * the playable elements and intersects them with a precomputed ElementSet for each outcome (or with its complement,
+ * for a wrong guess), so every update is a few bitwise operations however many elements are in play.
+ * The tracker does no console I/O, so bots and analysis tools can use it as well as ElementLGame. */
+final class CandidateTracker {
+    /** Elements of each period, indexed by period (index 0 is empty). */
+    private static final ElementSet[] BY_PERIOD = new ElementSet[8];
+    /** Elements of each column, family, and metallic state, indexed by ordinal. */
+    private static final ElementSet[] BY_COLUMN = new ElementSet[Column.values().length];
+    private static final ElementSet[] BY_FAMILY = new ElementSet[Family.values().length];
+    private static final ElementSet[] BY_METALLIC_STATE = new ElementSet[MetallicState.values().length];
+    /** Elements with each remainder of atomic number % 3, indexed by remainder. */
+    private static final ElementSet[] BY_MODULUS_3 = new ElementSet[3];
+
+    static {
+        Arrays.fill(BY_PERIOD, ElementSet.EMPTY);
+        Arrays.fill(BY_COLUMN, ElementSet.EMPTY);
+        Arrays.fill(BY_MODULUS_3, ElementSet.EMPTY);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            Element element = Element.of(z);
+            BY_PERIOD[element.getPeriod()] = BY_PERIOD[element.getPeriod()].with(z);
+            int column = element.getPeriodicColumn().ordinal();
+            BY_COLUMN[column] = BY_COLUMN[column].with(z);
+            BY_MODULUS_3[z % 3] = BY_MODULUS_3[z % 3].with(z);
+        }
+        for (Family family : Family.values()) {
+            BY_FAMILY[family.ordinal()] = ElementSet.withFlags(1L << family.ordinal());
+        }
+        for (MetallicState state : MetallicState.values()) {
+            BY_METALLIC_STATE[state.ordinal()] = ElementSet.withFlags(state.getFlag());
+        }
+    }
+
+    private final ElementSet playable;
+    private ElementSet candidates;
+
+    /** @param playable the elements element L was chosen from */
+    CandidateTracker(ElementSet playable) {
+        this.playable = playable;
+        this.candidates = playable;
+    }
+
+    /** @param period a period, 1-7
+     * @return every element in the period */
+    static ElementSet periodSet(int period) {
+        return BY_PERIOD[period];
+    }
+
+    /** @return every element in the column */
+    static ElementSet columnSet(Column column) {
+        return BY_COLUMN[column.ordinal()];
+    }
+
+    /** @return every element in the family */
+    static ElementSet familySet(Family family) {
+        return BY_FAMILY[family.ordinal()];
+    }
+
+    /** @return every element with the metallic state */
+    static ElementSet metallicStateSet(MetallicState state) {
+        return BY_METALLIC_STATE[state.ordinal()];
+    }
+
+    /** @param remainder a remainder of atomic number % 3, 0-2
+     * @return every element whose atomic number has the remainder */
+    static ElementSet modulus3Set(int remainder) {
+        return BY_MODULUS_3[remainder];
+    }
+
+    /** @param kind any kind but MODULUS_3 and HINT
+     * @param value the element's atomic number, the period, or the ordinal of the column, family, or metallic state
+     * @return the elements for which a guess of the kind and value is correct */
+    static ElementSet groupSet(ActionKind kind, int value) {
+        return switch (kind) {
+            case ELEMENT -> ElementSet.of(Element.of(value));
+            case ROW -> BY_PERIOD[value];
+            case COLUMN -> BY_COLUMN[value];
+            case FAMILY -> BY_FAMILY[value];
+            case METALLIC_STATE -> BY_METALLIC_STATE[value];
+            case MODULUS_3 -> throw new IllegalArgumentException("The modulus 3 hint is not a guess");
+            case HINT -> throw new IllegalArgumentException("An extra hint is not a guess");
+        };
+    }
+
+    /** Narrows the candidates to the elements in a group, or to those outside it.
+     * @param group the group the guess was about
+     * @param isInGroup whether element L turned out to be in the group */
+    void apply(ElementSet group, boolean isInGroup) {
+        candidates = isInGroup ? candidates.intersect(group) : candidates.minus(group);
+    }
+
+    /** @param period the guessed period
+     * @param isCorrect whether element L is in the period */
+    void applyPeriod(int period, boolean isCorrect) {
+        apply(BY_PERIOD[period], isCorrect);
+    }
+
+    /** @param column the guessed column
+     * @param isCorrect whether element L is in the column */
+    void applyColumn(Column column, boolean isCorrect) {
+        apply(BY_COLUMN[column.ordinal()], isCorrect);
+    }
+
+    /** @param family the guessed family
+     * @param isCorrect whether element L is in the family */
+    void applyFamily(Family family, boolean isCorrect) {
+        apply(BY_FAMILY[family.ordinal()], isCorrect);
+    }
+
+    /** @param state the guessed metallic state
+     * @param isCorrect whether element L has the state */
+    void applyMetallicState(MetallicState state, boolean isCorrect) {
+        apply(BY_METALLIC_STATE[state.ordinal()], isCorrect);
+    }
+
+    /** @param remainder element L's atomic number % 3 */
+    void applyModulus3(int remainder) {
+        apply(BY_MODULUS_3[remainder], true);
+    }
+
+    /** @param element an element the player guessed wrongly */
+    void applyWrongElement(Element element) {
+        candidates = candidates.minus(ElementSet.of(element));
+    }
+
+    /** Forgets every hint, so the candidates are the playable elements again. */
+    void reset() {
+        candidates = playable;
+    }
+
+    /** @return the elements element L can still be */
+    ElementSet getCandidates() {
+        return candidates;
+    }
+
+    /** @return the number of elements element L can still be */
+    int count() {
+        return candidates.size();
+    }
+
+    /** @return the elements element L was chosen from */
+    ElementSet getPlayable() {
+        return playable;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.HashMap;
+
+/** The columns of the periodic table used in the game, in the order of Element.COLUMNS: the old A/B notation with 8B
+ * split into 8B, 9B, and 0B, plus custom 1LA-14LA columns for most lanthanides and actinides. Each column carries its
+ * label and its numeric enumeration, so comparing columns never touches their Strings. */
+enum Column {
+    COLUMN_1A("1A"),
+    COLUMN_2A("2A"),
+    COLUMN_1LA("1LA"),
+    COLUMN_2LA("2LA"),
+    COLUMN_3LA("3LA"),
+    COLUMN_4LA("4LA"),
+    COLUMN_5LA("5LA"),
+    COLUMN_6LA("6LA"),
+    COLUMN_7LA("7LA"),
+    COLUMN_8LA("8LA"),
+    COLUMN_9LA("9LA"),
+    COLUMN_10LA("10LA"),
+    COLUMN_11LA("11LA"),
+    COLUMN_12LA("12LA"),
+    COLUMN_13LA("13LA"),
+    COLUMN_14LA("14LA"),
+    COLUMN_3B("3B"),
+    COLUMN_4B("4B"),
+    COLUMN_5B("5B"),
+    COLUMN_6B("6B"),
+    COLUMN_7B("7B"),
+    COLUMN_8B("8B"),
+    COLUMN_9B("9B"),
+    COLUMN_0B("0B"),
+    COLUMN_1B("1B"),
+    COLUMN_2B("2B"),
+    COLUMN_3A("3A"),
+    COLUMN_4A("4A"),
+    COLUMN_5A("5A"),
+    COLUMN_6A("6A"),
+    COLUMN_7A("7A"),
+    COLUMN_8A("8A");
+
+    /** Every column, indexed by ordinal. Cached because values() copies its array on every call. */
+    private static final Column[] VALUES = values();
+    /** Every column keyed by the uppercase tokens a user may type for it. */
+    private static final HashMap<String, Column> BY_TOKEN = new HashMap<>();
+
+    static {
+        for (Column column : VALUES) {
+            BY_TOKEN.put(column.label, column);
+            // the modern IUPAC group number (1-18) also names the column, except for the LA columns
+            if (!column.isLanthanideActinide()) BY_TOKEN.put(Integer.toString((int) column.enumeration), column);
+        }
+    }
+
+    private final String label;
+    private final double enumeration;
+
+    Column(String label) {
+        this.label = label;
+        this.enumeration = Element.columnToDouble(label);
+    }
+
+    /** @return the column as it is displayed to players (e.g. "3B") */
+    String getLabel() {
+        return label;
+    }
+
+    /** @return the modern IUPAC group number (1-18), or 2.01-2.14 for the LA columns */
+    double getEnumeration() {
+        return enumeration;
+    }
+
+    /** @return true for the custom 1LA-14LA columns */
+    boolean isLanthanideActinide() {
+        return enumeration > 2 && enumeration < 3;
+    }
+
+    /** @param ordinal the column's ordinal (its index in Element.COLUMNS)
+     * @return the column with the ordinal
+     * @throws IllegalArgumentException thrown if no column has the ordinal */
+    static Column fromOrdinal(int ordinal) throws IllegalArgumentException {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("No column has ordinal " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /** @param token a column's label (e.g. "3B") or modern group number (e.g. "13"), in any case
+     * @return the column, or null if the token names none */
+    static Column parse(String token) {
+        if (token == null) return null;
+        return BY_TOKEN.get(token.trim().toUpperCase());
+    }
+
+    /** @return the label */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/** Maps command words, and every alias of them, to handlers through one hash table built once, so a command is found
+ * with a single lookup instead of a chain of equalsIgnoreCase() calls. Words are matched ignoring case.
+ * <p>A line may hold several commands, separated by spaces or commas ("AM P N EC"), and parse() turns it into every
+ * invocation at once. A command registered with an argument takes it either attached to its word ("ION+2") or as the
+ * next word, unless that word is itself a command ("ION 2 P" is ION with "2", then P; "ION P" is ION alone, then P).
+ * <p>Registries are filled when their class is loaded and only read afterwards, so one can be shared by every thread.
+ * @param <H> the type of the handlers */
+final class CommandRegistry<H> {
+    /** One command found on a line.
+     * @param handler the command's handler, or null if the word is not a command
+     * @param word the word as it was written
+     * @param argument the command's argument, or an empty String if it has none */
+    record Invocation<H>(H handler, String word, String argument) {
+        boolean isRecognized() {
+            return handler != null;
+        }
+    }
+
+    private record Entry<H>(H handler, boolean takesArgument) {}
+
+    private final HashMap<String, Entry<H>> commands = new HashMap<>();
+    /** Words of the commands that take an argument, which may be attached to them. */
+    private final List<String> argumentWords = new ArrayList<>();
+
+    /** Registers a command.
+     * @param handler what the command does
+     * @param words the command's word and its aliases
+     * @return this registry
+     * @throws IllegalArgumentException thrown if a word is already registered */
+    CommandRegistry<H> add(H handler, String... words) throws IllegalArgumentException {
+        for (String word : words) put(word, new Entry<>(handler, false));
+        return this;
+    }
+
+    /** Registers a command that takes an argument (see the class documentation).
+     * @param handler what the command does
+     * @param words the command's word and its aliases
+     * @return this registry
+     * @throws IllegalArgumentException thrown if a word is already registered */
+    CommandRegistry<H> addWithArgument(H handler, String... words) throws IllegalArgumentException {
+        for (String word : words) {
+            put(word, new Entry<>(handler, true));
+            argumentWords.add(normalize(word));
+        }
+        // longest first, so "IONS" would win over "ION"
+        argumentWords.sort((a, b) -> b.length() - a.length());
+        return this;
+    }
+
+    private void put(String word, Entry<H> entry) {
+        if (commands.putIfAbsent(normalize(word), entry) != null) {
+            throw new IllegalArgumentException("Command " + word + " is already registered");
+        }
+    }
+
+    private static String normalize(String word) {
+        return word.toUpperCase(Locale.ROOT);
+    }
+
+    /** @param word a command word or alias, in any case
+     * @return its handler, or null if it is not a command */
+    H get(String word) {
+        Entry<H> entry = commands.get(normalize(word));
+        return (entry == null) ? null : entry.handler();
+    }
+
+    /** Splits a line into commands.
+     * @param line commands separated by spaces or commas
+     * @return every command on the line, in order, including words that are not commands (see
+     * Invocation.isRecognized()) */
+    List<Invocation<H>> parse(String line) {
+        String[] words = split(line);
+        List<Invocation<H>> invocations = new ArrayList<>(words.length);
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            String normalized = normalize(word);
+            Entry<H> entry = commands.get(normalized);
+            String argument = "";
+            if (entry == null) {
+                for (String prefix : argumentWords) {
+                    if (normalized.startsWith(prefix)) {
+                        entry = commands.get(prefix);
+                        argument = word.substring(prefix.length());
+                        break;
+                    }
+                }
+            } else if (entry.takesArgument() && i + 1 < words.length && !isCommand(words[i + 1])) {
+                argument = words[++i];
+            }
+            invocations.add(new Invocation<>((entry == null) ? null : entry.handler(), word, argument));
+        }
+        return invocations;
+    }
+
+    /** @return true if the word is a command, or a command with an attached argument */
+    private boolean isCommand(String word) {
+        String normalized = normalize(word);
+        if (commands.containsKey(normalized)) return true;
+        for (String prefix : argumentWords) {
+            if (normalized.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /** @return the words of a line, separated by spaces, tabs, or commas */
+    static String[] split(String line) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean separator = i == line.length() || line.charAt(i) == ',' || Character.isWhitespace(line.charAt(i));
+            if (separator && start >= 0) {
+                words.add(line.substring(start, i));
+                start = -1;
+            } else if (!separator && start < 0) {
+                start = i;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.Arrays;
+
+/** An electron configuration stored as an occupancy vector: one byte per subshell, in Aufbau (filling) order.
+ * The full form, the short noble gas form, and the highest occupied orbital are rendered the first time they are asked
+ * for and cached afterwards, so repeated lookups do no formatting work. ElectronConfiguration objects are immutable. */
+final class ElectronConfiguration {
+    /** Every subshell an element can occupy, in the order electrons fill them. */
+    static final String[] SUBSHELLS = {"1s", "2s", "2p", "3s", "3p", "4s", "3d", "4p", "5s", "4d", "5p", "6s", "4f", "5d",
+            "6p", "7s", "5f", "6d", "7p"};
+    static final int SUBSHELL_COUNT = SUBSHELLS.length;
+    /** Maximum number of electrons in each subshell of SUBSHELLS. */
+    static final byte[] CAPACITIES = {2, 2, 6, 2, 6, 2, 10, 6, 2, 10, 6, 2, 14, 10, 6, 2, 14, 10, 6};
+    /** Index in SUBSHELLS of the last subshell of each noble gas (1s for helium, 2p for neon, ...). */
+    private static final int[] NOBLE_GAS_SUBSHELLS = {0, 2, 4, 7, 10, 14, 18};
+    /** Atomic number of each noble gas, matching NOBLE_GAS_SUBSHELLS. */
+    private static final int[] NOBLE_GASES = {2, 10, 18, 36, 54, 86, 118};
+
+    /** Number of electrons in each subshell of SUBSHELLS. */
+    private final byte[] occupancy;
+    private final int electrons;
+    // renderings, filled in the first time they are needed
+    private String fullForm;
+    private String shortForm;
+    private String highestOccupiedOrbital;
+
+    /** @param occupancy number of electrons in each subshell of SUBSHELLS. Not copied: callers must not change it. */
+    private ElectronConfiguration(byte[] occupancy) {
+        this.occupancy = occupancy;
+        int total = 0;
+        for (byte count : occupancy) total += count;
+        this.electrons = total;
+    }
+
+    /** @param occupancy number of electrons in each subshell of SUBSHELLS
+     * @return the configuration with those occupancies
+     * @throws IllegalArgumentException thrown if there is not one value per subshell or a subshell is over capacity */
+    static ElectronConfiguration of(byte[] occupancy) throws IllegalArgumentException {
+        if (occupancy.length != SUBSHELL_COUNT) {
+            throw new IllegalArgumentException("An occupancy is needed for each of the " + SUBSHELL_COUNT + " subshells.");
+        }
+        for (int i = 0; i < SUBSHELL_COUNT; i++) {
+            if (occupancy[i] < 0 || occupancy[i] > CAPACITIES[i]) {
+                throw new IllegalArgumentException(SUBSHELLS[i] + " cannot hold " + occupancy[i] + " electrons.");
+            }
+        }
+        return new ElectronConfiguration(occupancy.clone());
+    }
+
+    /** Fills subshells strictly in Aufbau order.
+     * @param electrons number of electrons, 0-118
+     * @return the idealized configuration for that many electrons */
+    static ElectronConfiguration aufbau(int electrons) {
+        byte[] occupancy = new byte[SUBSHELL_COUNT];
+        for (int i = 0; i < SUBSHELL_COUNT && electrons > 0; i++) {
+            occupancy[i] = (byte) Math.min(electrons, CAPACITIES[i]);
+            electrons -= occupancy[i];
+        }
+        return new ElectronConfiguration(occupancy);
+    }
+
+    /** @return the total number of electrons */
+    int getElectrons() {
+        return electrons;
+    }
+
+    /** @param subshell index of the subshell in SUBSHELLS
+     * @return the number of electrons in the subshell */
+    int getOccupancy(int subshell) {
+        return occupancy[subshell];
+    }
+
+    /** @return a copy of the occupancy of every subshell, in the order of SUBSHELLS */
+    byte[] toByteArray() {
+        return occupancy.clone();
+    }
+
+    /** @return the configuration with orbitals of the same row linked by dashes (e.g. "1s2 2s2-2p6 3s1") */
+    @Override
+    public String toString() {
+        if (fullForm == null) {
+            StringBuilder builder = new StringBuilder(64);
+            for (int i = 0; i < SUBSHELL_COUNT; i++) {
+                if (occupancy[i] == 0) continue;
+                builder.append(SUBSHELLS[i]).append(occupancy[i]);
+                // a row ends after its p subshell (or 1s, for the first row)
+                builder.append((i == 0 || SUBSHELLS[i].charAt(1) == 'p') ? ' ' : '-');
+            }
+            if (builder.length() > 0) builder.setLength(builder.length() - 1);
+            fullForm = builder.toString();
+        }
+        return fullForm;
+    }
+
+    /** @return the configuration in noble gas notation (e.g. "[Ne] 3s1"). Configurations without a filled noble gas
+     * core, like those of hydrogen and helium, are written out in full. */
+    String toShortString() {
+        if (shortForm == null) {
+            int core = findNobleGasCore();
+            StringBuilder builder = new StringBuilder(32);
+            if (core >= 0) {
+                builder.append('[').append(Element.of(NOBLE_GASES[core]).getAbbreviation()).append("] ");
+            }
+            int firstValence = (core >= 0) ? NOBLE_GAS_SUBSHELLS[core] + 1 : 0;
+            for (int i = firstValence; i < SUBSHELL_COUNT; i++) {
+                if (occupancy[i] == 0) continue;
+                builder.append(SUBSHELLS[i]).append(occupancy[i]).append(' ');
+            }
+            if (builder.length() > 0) builder.setLength(builder.length() - 1);
+            shortForm = builder.toString();
+        }
+        return shortForm;
+    }
+
+    /** @return the last occupied subshell in Aufbau order, with its electron count (e.g. "3d1"), or an empty String
+     * if there are no electrons */
+    String getHighestOccupiedOrbital() {
+        if (highestOccupiedOrbital == null) {
+            String orbital = "";
+            for (int i = SUBSHELL_COUNT - 1; i >= 0; i--) {
+                if (occupancy[i] > 0) {
+                    orbital = SUBSHELLS[i] + occupancy[i];
+                    break;
+                }
+            }
+            highestOccupiedOrbital = orbital;
+        }
+        return highestOccupiedOrbital;
+    }
+
+    /** Finds the largest noble gas whose subshells are all full and which still leaves electrons outside it.
+     * @return index in NOBLE_GASES of the core, or -1 if there is none */
+    private int findNobleGasCore() {
+        int core = -1;
+        int filledThrough = -1;
+        for (int gas = 0; gas < NOBLE_GASES.length; gas++) {
+            for (int i = filledThrough + 1; i <= NOBLE_GAS_SUBSHELLS[gas]; i++) {
+                if (occupancy[i] != CAPACITIES[i]) return core;
+                filledThrough = i;
+            }
+            if (NOBLE_GASES[gas] >= electrons) return core;
+            core = gas;
+        }
+        return core;
+    }
+
+    /** @return true if the other object is a configuration with the same occupancy in every subshell */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ElectronConfiguration
+                && Arrays.equals(this.occupancy, ((ElectronConfiguration) other).occupancy);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(occupancy);
+    }
+}
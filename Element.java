@@ -1,39 +1,13 @@
-import java.io.*;
-import java.util.ArrayList;
-
-/** Class storing information about an element on the periodic table. Element objects are immutable.
+/** Class storing information about an element on the periodic table. Element objects are immutable and canonical:
+ * there is exactly one instance per element, obtained through Element.of().
  * @author Rohit De*/
 class Element {
+    /** The table holding this element's numeric, column, family, metallic state, and electron configuration values. */
+    private final ElementTable table;
     /** Default lowercase version of element name. */
-    private String name;
-    private String abbreviation;
-    private int atomicNumber;
-    private double atomicMass;
-    private int protons;
-    private int neutrons;
-    private int electrons;
-    /** Column the element is in on the periodic table.
-     * 8B columns are separated out into 8B, 9B, and 0B for clarity.
-     * Most lanthanides and actinides have no columns on the periodic table, so column names created for them are "LA" (e.g. 1LA, 2LA, ... 14LA).
-     * */
-    private String column;
-
-    /** Enumeration of the column to use for electron configuration.
-     * The modern IUPAC method of naming groups, apart from the lanthanides and actinides.
-     * Columns 1-18 have corresponding double values.
-     * Most lanthanides and actinides have a double value between 2 and 3, ranging from 2.01 to 2.14 based on their "LA column". */
-    private double columnEnumeration;
-    private int period;
-    /** Array of orbitals occupied by electrons, from lowest to highest energy. Accessible outside class as a String. */
-    private ArrayList<String> electronConfig;
-    /** Short form electron configuration of the element.
-     * Uses noble gas notation, shortening the length of the configuration. */
-    private String shortElectronConfig;
-    /** The highest occupied orbital of the element, with the number of elements in said orbital. */
-    private String highestOccupiedOrbital;
-    /** The family of elements this element belongs to. Families include: alkali metals, alkaline earth metals,
-     * transition metals, lanthanides, actinides, post-transition metals, metalloids, nonmetals, halogens, and noble gases. */
-    private String elementFamily;
+    private final String name;
+    private final String abbreviation;
+    private final int atomicNumber;
     // SOLID OR LIQUID OR GAS
     public static final String ALKALI_METAL = "ALKALI METAL";
     public static final String ALKALINE_EARTH_METAL = "ALKALINE EARTH METAL";
@@ -54,151 +28,87 @@ class Element {
             "10LA", "11LA", "12LA", "13LA", "14LA", "3B", "4B", "5B", "6B", "7B", "8B", "9B", "0B", "1B", "2B", "3A",
             "4A", "5A", "6A", "7A", "8A"};
 
-    private boolean isAlkaliMetal;
-    private boolean isAlkalineEarthMetal;
-    private boolean isTransitionMetal;
-    private boolean isLanthanide;
-    private boolean isActinide;
-    private boolean isPostTransitionMetal;
-    private boolean isMetalloid;
-    private boolean isReactiveNonmetal;
-    private boolean isHalogen;
-    private boolean isNobleGas;
-
-    private boolean isInnerTransitionMetal;
-
-
-    private boolean isMetal;
-    private boolean isNonmetal;
-
-    /** Array with information read from file. Vital to set element properties. Inaccessible outside of class. */
-    private final String[] informationArray;
-    /** The atomic number of the element that was last in the previous row.
-     * Useful in calculating columns and electron configuration.
-     * For period 1 elements, this value is 0. */
-    private int lastInPreviousRow;
     /** The number of elements on the periodic table.*/
     public static final int TOTAL_ELEMENT_COUNT = 118;
 
 
 
 
-    /** Constructor using element's atomic number.
+    /** Builds the Element view of one row of an ElementTable. Only ElementTable builds elements: everywhere else uses
+     * the canonical instances from Element.of(). */
+    Element(ElementTable table, int atomicNumber, String abbreviation, String name) {
+        this.table = table;
+        this.atomicNumber = atomicNumber;
+        this.abbreviation = abbreviation;
+        this.name = name;
+    }
+
+    /** Calculates all the relevant values for an element from its line of the element file.
+     * @param informationArray the element's line of the element file, split into atomic number, abbreviation, name,
+     *                         and atomic mass
+     * @param table the table the calculated values are stored in
+     * @return the element built from the calculated values */
+    static Element fromInformationArray(String[] informationArray, ElementTable table) {
+        int atomicNumber = Integer.parseInt(informationArray[0]);
+        double atomicMass = Double.parseDouble(informationArray[3]);
+        int neutrons = (int) Math.round(atomicMass) - atomicNumber;
+        // period will always be 1-7 for valid element. The registry only builds elements for valid atomic numbers
+        int period = findRow(atomicNumber);
+        int lastInPreviousRow = findLastInRow(period-1);
+        // column uses switch statement on period: since period is always 1-7, column is never null
+        String column = findColumn(atomicNumber, period, lastInPreviousRow);
+        // the null warning does not matter because column will never be null, as explained in comments above
+        // assertion exists only to placate IntelliJ
+        assert column != null;
+        double columnEnumeration = columnToDouble(column);
+        String elementFamily = findElementFamily(atomicNumber, period, columnEnumeration);
+        return table.put(atomicNumber, informationArray[1], informationArray[2].toLowerCase(), atomicMass, neutrons,
+                period, Column.parse(column).ordinal(), Family.parse(elementFamily).ordinal(),
+                ElectronConfiguration.aufbau(atomicNumber));
+    }
+
+    /** Finds an element using its atomic number. Does no disk I/O: the element comes from ElementRegistry.
      * @param atomicNumber Atomic number of the element.
+     * @return the canonical Element with the atomic number
      * @exception IllegalArgumentException thrown if invalid atomic number provided. */
-    public Element(int atomicNumber) throws IllegalArgumentException {
-        if (atomicNumber > TOTAL_ELEMENT_COUNT || atomicNumber < 1) {
+    public static Element of(int atomicNumber) throws IllegalArgumentException {
+        Element element = ElementRegistry.get(atomicNumber);
+        if (element == null) {
             throw new IllegalArgumentException("Invalid atomic number entered.");
         }
-        this.atomicNumber = atomicNumber;
-        informationArray = findInformationArray(Integer.toString(atomicNumber), 0);
-        setValues();
+        return element;
     }
 
-    /** Constructor using element name or abbreviation (is able to differentiate).
-     * @param element Either the element's name or abbreviation. The constructor can differentiate between the two via length.
+    /** Finds an element using its name or abbreviation (case does not matter). Does no disk I/O: the element comes
+     * from ElementRegistry.
+     * @param element Either the element's name or abbreviation.
+     * @return the canonical Element with the name or abbreviation
      * @exception IllegalArgumentException thrown if invalid abbreviation or name provided.*/
-    public Element(String element) throws IllegalArgumentException {
-        try {
-            if (element.length() > 2) { // full element name search
-                this.name = element.toLowerCase();
-                informationArray = findInformationArray(name, 2); // can throw NullPointerException
-            } else { // abbreviation search
-                StringBuilder builder = new StringBuilder();
-                builder.append(element.toUpperCase().charAt(0));
-                if (element.length() > 1) builder.append(element.toLowerCase().charAt(1));
-                this.abbreviation = builder.toString();
-                informationArray = findInformationArray(element, 1); // can throw NullPointerException
-            }
-            setValues();
-        } catch (NullPointerException ex) {
+    public static Element of(String element) throws IllegalArgumentException {
+        Element found = ElementRegistry.get(element);
+        if (found == null) {
             throw new IllegalArgumentException("Invalid element name or abbreviation entered.");
         }
-    }
-
-    /** Finds the information array for the element given the name, abbreviation, or atomic number.
-     * Not accessible outside of class.
-     * @param knownInput String of the element's name, abbreviation, or atomic number
-     * @param index Position of the knownInput in the informationArray. 0 for atomic number, 1 for abbreviation, 2 for name.
-     * @throws NullPointerException thrown if input (name or abbreviation) is invalid/not found.
-     * @return array with information for the provided element. Provided element is determined from knownInput. */
-    private String[] findInformationArray(String knownInput, int index) throws NullPointerException {
-        String[] returnable = {};
-        try (BufferedReader reader = new BufferedReader(new FileReader("src/elementlist.txt"))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] array = line.split(",");
-                if (array[index].equalsIgnoreCase(knownInput)) {
-                    returnable = array;
-                    break;
-                }
-            }
-        } catch (IOException ex) {
-            System.out.println("Something went wrong...");
-            System.out.println(ex.getMessage());
-        }
-        if (returnable.length == 0) {
-            throw new NullPointerException("Element name or abbreviation not found.");
-        } else return returnable;
-    }
-
-    /** Calculates and sets all the relevant values for elements. */
-    private void setValues() {
-        atomicNumber = Integer.parseInt(informationArray[0]);
-        // abbreviation and name are set in case provided values are lowercase
-        abbreviation = informationArray[1];
-        name = informationArray[2].toLowerCase();
-        if (atomicMass == 0) atomicMass = Double.parseDouble(informationArray[3]);
-        protons = this.atomicNumber;
-        electrons = this.protons;
-        neutrons = (int) Math.round(this.atomicMass) - this.protons;
-        // period will always be 1-7 for valid element. If the element is invalid an exception is thrown in the constructor
-        period = findRow();
-        lastInPreviousRow = findLastInRow(this.period-1);
-        // column uses switch statement on this.period: since period is always 1-7, column is never null
-        column = findColumn();
-        // the null warning does not matter because this.column will never be null, as explained in comments above
-        // assertion exists only to placate IntelliJ
-        assert this.column != null;
-        columnEnumeration = columnToDouble(this.column);
-        electronConfig = findElectronConfiguration();
-        highestOccupiedOrbital = this.electronConfig.get(electronConfig.size()-1);
-        shortElectronConfig = findShortElectronConfiguration();
-        elementFamily = findElementFamily();
-        isAlkaliMetal = isFromFamily(ALKALI_METAL);
-        isAlkalineEarthMetal = isFromFamily(ALKALINE_EARTH_METAL);
-        isTransitionMetal = isFromFamily(TRANSITION_METAL);
-        isLanthanide = isFromFamily(LANTHANIDE);
-        isActinide = isFromFamily(ACTINIDE);
-        isPostTransitionMetal = isFromFamily(POST_TRANSITION_METAL);
-        isMetalloid = isFromFamily(METALLOID);
-        isReactiveNonmetal = isFromFamily(REACTIVE_NONMETAL);
-        isHalogen = isFromFamily(HALOGEN);
-        isNobleGas = isFromFamily(NOBLE_GAS);
-
-        isInnerTransitionMetal = isLanthanide || isActinide;
-
-        isMetal = isAlkaliMetal || isAlkalineEarthMetal || isTransitionMetal || isInnerTransitionMetal
-                || isPostTransitionMetal;
-        isNonmetal = isReactiveNonmetal || isHalogen || isNobleGas;
-    }
-
-    /** @return period element is found in. Will always return 1-7 because it is called only for valid elements. */
-    private int findRow() {
-        if (this.atomicNumber <= 2) return 1;
-        else if (this.atomicNumber <= 10) return 2;
-        else if (this.atomicNumber <= 18) return 3;
-        else if (this.atomicNumber <= 36) return 4;
-        else if (this.atomicNumber <= 54) return 5;
-        else if (this.atomicNumber <= 86) return 6;
-        else if (this.atomicNumber <= 118) return 7;
+        return found;
+    }
+
+    /** @param atomicNumber atomic number of the element
+     * @return period element is found in. Will always return 1-7 because it is called only for valid elements. */
+    private static int findRow(int atomicNumber) {
+        if (atomicNumber <= 2) return 1;
+        else if (atomicNumber <= 10) return 2;
+        else if (atomicNumber <= 18) return 3;
+        else if (atomicNumber <= 36) return 4;
+        else if (atomicNumber <= 54) return 5;
+        else if (atomicNumber <= 86) return 6;
+        else if (atomicNumber <= 118) return 7;
         // never returns 0 because the numbers provided in Element will always be valid
         else return 0;
     }
 
     /** @param rowNumber The row whose last element is searched for.
      * @return atomic number of the last element in the row, or 0 (if it does not exist: H & He). */
-    private int findLastInRow(int rowNumber) {
+    private static int findLastInRow(int rowNumber) {
         return switch (rowNumber) {
             case 1 -> 2;
             case 2 -> 10;
@@ -214,10 +124,13 @@ class Element {
 
     /** Finds the column number for a B column element. Helper function for findColumn().
      * 8B column is split into 8B, 9B, and 0B.
+     * @param atomicNumber atomic number of the element
+     * @param period period of the element
+     * @param lastInPreviousRow atomic number of the last element in the previous period
      * @return number for the B column (3B-9B, 0B, 1B, 2B) */
-    private int findBColumnNumber() {
-        int columnNumber = this.atomicNumber-lastInPreviousRow;
-        if (this.period == 6 || this.period == 7) columnNumber -= 14;
+    private static int findBColumnNumber(int atomicNumber, int period, int lastInPreviousRow) {
+        int columnNumber = atomicNumber-lastInPreviousRow;
+        if (period == 6 || period == 7) columnNumber -= 14;
         if (columnNumber >= 10)
             columnNumber -= 10;
         return columnNumber;
@@ -225,47 +138,50 @@ class Element {
 
     /** Finds the column of an element. 8B is separated into 8B, 9B, and 0B.
      * Most lanthanides and actinides get custom columns, ranging from 1LA to 14 LA.
+     * @param atomicNumber atomic number of the element
+     * @param period period of the element
+     * @param lastInPreviousRow atomic number of the last element in the previous period
      * @return column of the element. Will never return null because method uses the period, which will always be 1-7 for a valid element. */
-    private String findColumn() {
+    private static String findColumn(int atomicNumber, int period, int lastInPreviousRow) {
         // efficiency?
-        switch (this.period) {
+        switch (period) {
             case 1:
-                if (this.atomicNumber == 1) return "1A";
+                if (atomicNumber == 1) return "1A";
                 else return "8A";
             case 2:
             case 3:
-                return String.format("%dA",(this.atomicNumber-lastInPreviousRow));
+                return String.format("%dA",(atomicNumber-lastInPreviousRow));
             case 4:
             case 5:
                 // first A columns
-                if (this.atomicNumber <= (lastInPreviousRow+2)) {
-                    return String.format("%dA", this.atomicNumber - lastInPreviousRow);
+                if (atomicNumber <= (lastInPreviousRow+2)) {
+                    return String.format("%dA", atomicNumber - lastInPreviousRow);
                     // B columns
-                } else if (this.atomicNumber <= (lastInPreviousRow+2+10)) {
-                    int columnNumber = findBColumnNumber();
+                } else if (atomicNumber <= (lastInPreviousRow+2+10)) {
+                    int columnNumber = findBColumnNumber(atomicNumber, period, lastInPreviousRow);
                     return String.format("%dB", (columnNumber));
                     // second A columns
                 } else {
-                    return String.format("%dA", (this.atomicNumber-(lastInPreviousRow+10)));
+                    return String.format("%dA", (atomicNumber-(lastInPreviousRow+10)));
                 }
             case 6:
             case 7:
                 // first A columns
-                if (this.atomicNumber <= (lastInPreviousRow+2)) {
-                    return String.format("%dA", this.atomicNumber - lastInPreviousRow);
+                if (atomicNumber <= (lastInPreviousRow+2)) {
+                    return String.format("%dA", atomicNumber - lastInPreviousRow);
                     // LA columns
-                } else if (this.atomicNumber <= (lastInPreviousRow+2+14)) {
-                    return String.format("%dLA", this.atomicNumber - (lastInPreviousRow+2));
+                } else if (atomicNumber <= (lastInPreviousRow+2+14)) {
+                    return String.format("%dLA", atomicNumber - (lastInPreviousRow+2));
                     // B columns
-                } else if (this.atomicNumber <= (lastInPreviousRow+2+14+10)) {
-                    int columnNumber = findBColumnNumber();
+                } else if (atomicNumber <= (lastInPreviousRow+2+14+10)) {
+                    int columnNumber = findBColumnNumber(atomicNumber, period, lastInPreviousRow);
                     return String.format("%dB", (columnNumber));
                     // second A columns
                 } else {
-                    return String.format("%dA", (this.atomicNumber-(lastInPreviousRow+10+14)));
+                    return String.format("%dA", (atomicNumber-(lastInPreviousRow+10+14)));
                 }
         }
-        // will never return null because this.period will always be 1-7
+        // will never return null because period will always be 1-7
         return null;
     }
 
@@ -273,7 +189,7 @@ class Element {
      * Values between 2 and 3 are used for most lanthanides and actinides.
      * @param column the column the element is in
      * @return number the column the element is as a double. Lanthanide/actinide values are between 2.01 and 2.14, inclusive. */
-    private double columnToDouble(String column) {
+    static double columnToDouble(String column) {
         if (column.equals("1A")) return 1;
         else if (column.equals("2A")) return 2;
         // Lanthanides and actinides get decimal values because they don't fit into the traditional periodic table column
@@ -300,68 +216,11 @@ class Element {
         return -1;
     }
 
-    /** Generates the electron configuration as a list of filled orbitals.
-     * @return array containing occupied electron orbitals, ranging from lowest to highest energy level. */
-    private ArrayList<String> findElectronConfiguration() {
-        ArrayList<String> list = new ArrayList<>();
-        for (int row = 1; row <= this.period; row++) {
-            // S logic
-            if (columnEnumeration >= 2){
-                list.add(String.format("%ds2", row));
-            } else {
-                list.add(String.format("%ds1", row));
-            }
-            // F logic
-            if (row >= 6) {
-                if (columnEnumeration >= 3 || this.period > row) {
-                    list.add(String.format("%df14", row - 2));
-                } else if (columnEnumeration > 2) {
-                    // double round-off error requires rounding
-                    int columnNumberLA = (int) Math.round((columnEnumeration - 2) * 100);
-                    list.add(String.format("%df%d", row - 2, columnNumberLA));
-                }
-            }
-            // D logic
-            if (row >= 4) {
-                if (columnEnumeration > 12 || this.period > row) {
-                    list.add(String.format("%dd10", row-1));
-                } else if (columnEnumeration >= 3){
-                    list.add(String.format("%dd%d", row - 1, (int) columnEnumeration-2));
-                }
-            }
-            // P logic
-            if (row >= 2) {
-                if (this.period > row) {
-                    list.add(String.format("%dp6", row));
-                } else if (columnEnumeration >= 13) {
-                    list.add(String.format("%dp%d", row, (int) columnEnumeration - 12));
-                }
-            }
-        }
-        return list;
-    }
-    /** Generates a shorter electron configuration using noble gas notation.
-     * @return String containing the noble gas placeholder and highest energy level. */
-    private String findShortElectronConfiguration() {
-        StringBuilder builder = new StringBuilder();
-        int electronsSoFar = 0;
-        builder.append(highestOccupiedOrbital);
-        electronsSoFar += Integer.parseInt(highestOccupiedOrbital.substring(2));
-        for (int i = electronConfig.size() - 2; i >= 0; i--) {
-            String thisOrbital = electronConfig.get(i);
-            builder.insert(0, String.format("%s ", thisOrbital));
-            electronsSoFar += Integer.parseInt(thisOrbital.substring(2));
-            if (electronsSoFar == atomicNumber-lastInPreviousRow) break;
-        }
-        if (lastInPreviousRow > 0) {
-            Element lastElInPreviousRow = new Element(this.lastInPreviousRow);
-            builder.insert(0,String.format("[%s] ", lastElInPreviousRow.getAbbreviation()));
-        }
-        return builder.toString();
-    }
-
-    /** @return  the family this element belongs to. */
-    private String findElementFamily() {
+    /** @param atomicNumber atomic number of the element
+     * @param period period of the element
+     * @param columnEnumeration the column of the element as a double, from columnToDouble()
+     * @return  the family this element belongs to. */
+    private static String findElementFamily(int atomicNumber, int period, double columnEnumeration) {
         if (columnEnumeration == 18) return NOBLE_GAS;
         else if (columnEnumeration == 17) return HALOGEN;
         else if (columnEnumeration == 1 && atomicNumber != 1) return ALKALI_METAL;
@@ -389,11 +248,11 @@ class Element {
         return null;
     }
 
-    /** Checks whether an element is part of a certain family.
-     * @param familyName the family being checked for
-     * @return true if element is part of the family, false if not*/
-    private boolean isFromFamily(String familyName) {
-        return (this.elementFamily.equals(familyName));
+    /** Checks whether an element has certain family or metallic state flags.
+     * @param mask one or more of the ElementTable flags
+     * @return true if element has every flag in the mask, false if not*/
+    private boolean hasFlags(long mask) {
+        return table.hasFlags(this.atomicNumber, mask);
     }
 
     /**@return name of the element */
@@ -411,56 +270,66 @@ class Element {
     }
     /** @return atomic mass of the element*/
     public double getAtomicMass() {
-        return this.atomicMass;
+        return table.atomicMass[this.atomicNumber];
     }
     /** @return number of protons in the element*/
     public int getProtons() {
-        return protons;
+        return this.atomicNumber;
     }
-    /** @return number of neutrons in the element*/
+    /** @return number of neutrons in the element's most abundant isotope, if it is in the isotope table; otherwise,
+     * the rounded atomic mass minus the number of protons*/
     public int getNeutrons() {
-        return neutrons;
+        return table.neutrons[this.atomicNumber];
     }
     /** @return number of electrons in a stable element*/
     public int getElectrons() {
-        return electrons;
+        return this.atomicNumber;
     }
 
     /** @return the row/period of the element on the periodic table*/
     public int getPeriod() {
-        return this.period;
+        return table.period[this.atomicNumber];
     }
     /** @return the column of the element on the periodic table (old notation, 9B, 0B, custom LA columns) */
     public String getColumn() {
-        return this.column;
+        return getPeriodicColumn().getLabel();
+    }
+    /** @return the column of the element on the periodic table, for comparisons that should not use Strings */
+    public Column getPeriodicColumn() {
+        return Column.fromOrdinal(table.columnIndex[this.atomicNumber]);
     }
     /** @return the enumeration of the column as a double. The current column system, apart from the lanthanides and actinides*/
     public double getColumnEnumeration() {
-        return this.columnEnumeration;
+        return getPeriodicColumn().getEnumeration();
     }
     /** @return the highest occupied orbital of the element */
     public String getHighestOccupiedOrbital() {
-        return highestOccupiedOrbital;
+        return getElectronConfiguration().getHighestOccupiedOrbital();
     }
     /** @return the short form of the electron configuration, using noble gas notation */
     public String getShortElectronConfig() {
-        return shortElectronConfig;
+        return getElectronConfiguration().toShortString();
     }
 
     /** @return the electron configuration as a String, with orbitals of the same orbital linked by dashes. */
     public String getElectronConfig() {
-        StringBuilder builder = new StringBuilder();
-        for (String str: this.electronConfig) {
-            builder.append(String.format("%s%s", str, (str.contains("p") || str.equals("1s2")) ? " " : "-"));
-        }
-        if (builder.charAt(builder.length()-1) == '-') {
-            builder.delete(builder.length()-1, builder.length());
-        }
-        return builder.toString().trim();
+        return getElectronConfiguration().toString();
+    }
+    /** @return the electron configuration, as an occupancy of each subshell */
+    public ElectronConfiguration getElectronConfiguration() {
+        return table.electronConfiguration[this.atomicNumber];
     }
     /** @return the family the element belongs to. */
     public String getElementFamily() {
-        return elementFamily;
+        return getFamily().getLabel();
+    }
+    /** @return the family the element belongs to, for comparisons that should not use Strings */
+    public Family getFamily() {
+        return Family.fromOrdinal(table.familyIndex[this.atomicNumber]);
+    }
+    /** @return whether the element is a metal, nonmetal, or metalloid */
+    public MetallicState getMetallicState() {
+        return getFamily().getMetallicState();
     }
 
     /** Compares whether two elements are the same.
@@ -490,42 +359,42 @@ class Element {
 
     // made these accessible if needed outside of class, but those methods are never called
     public boolean isAlkaliMetal() {
-        return isAlkaliMetal;
+        return hasFlags(ElementTable.ALKALI_METAL);
     }
     public boolean isAlkalineEarthMetal() {
-        return isAlkalineEarthMetal;
+        return hasFlags(ElementTable.ALKALINE_EARTH_METAL);
     }
     public boolean isTransitionMetal() {
-        return isTransitionMetal;
+        return hasFlags(ElementTable.TRANSITION_METAL);
     }
     public boolean isLanthanide() {
-        return isLanthanide;
+        return hasFlags(ElementTable.LANTHANIDE);
     }
     public boolean isActinide() {
-        return isActinide;
+        return hasFlags(ElementTable.ACTINIDE);
     }
     public boolean isPostTransitionMetal() {
-        return isPostTransitionMetal;
+        return hasFlags(ElementTable.POST_TRANSITION_METAL);
     }
     public boolean isReactiveNonmetal() {
-        return isReactiveNonmetal;
+        return hasFlags(ElementTable.REACTIVE_NONMETAL);
     }
     public boolean isHalogen() {
-        return isHalogen;
+        return hasFlags(ElementTable.HALOGEN);
     }
     public boolean isNobleGas() {
-        return isNobleGas;
+        return hasFlags(ElementTable.NOBLE_GAS);
     }
     public boolean isInnerTransitionMetal() {
-        return isInnerTransitionMetal;
+        return hasFlags(ElementTable.INNER_TRANSITION_METAL);
     }
     public boolean isMetalloid() {
-        return isMetalloid;
+        return hasFlags(ElementTable.METALLOID);
     }
     public boolean isMetal() {
-        return isMetal;
+        return hasFlags(ElementTable.METAL);
     }
     public boolean isNonmetal() {
-        return isNonmetal;
+        return hasFlags(ElementTable.NONMETAL);
     }
 }
\ No newline at end of file
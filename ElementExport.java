@@ -0,0 +1,205 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/** Streams every element's full set of properties to a file, as CSV, JSON Lines, or a compact binary format, for use
+ * as a fixture by other tools ("java ElementExport csv elements.csv", or the batch command "export csv FILE").
+ * Every format goes through one buffered writer: each CSV row or JSON object is built in a reused StringBuilder with
+ * its append methods, never String.format(), and written with one call.
+ * <p>CSV and JSON Lines have the fields in FIELDS, in that order: one header row and then one row per element, or
+ * one object per line. Flags are the ElementTable family and metallic state bits.
+ * <p>Binary layout (big-endian): a header of magic, version, element count, and subshell count (4 bytes each); then
+ * per element: atomic number, period, column ordinal (see Column), and family ordinal (see Family), 1 byte each;
+ * neutrons (2 bytes); atomic mass (8-byte double); flags (8 bytes); the electrons in each subshell, 1 byte each, in
+ * the order of ElectronConfiguration.SUBSHELLS; and the symbol and name, each a 1-byte length and ASCII. Everything
+ * else (protons, column label and enumeration, configurations) follows from these. */
+final class ElementExport {
+    /** "ELEX" */
+    static final int MAGIC = 0x454C4558;
+    static final int VERSION = 1;
+    /** The fields of every CSV row and JSON object, in order. */
+    static final String[] FIELDS = {"atomicNumber", "symbol", "name", "atomicMass", "protons", "neutrons",
+            "electrons", "period", "column", "columnEnumeration", "family", "metallicState", "flags",
+            "electronConfiguration", "shortElectronConfiguration", "highestOccupiedOrbital"};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    enum Format {CSV, JSONL, BINARY}
+
+    private ElementExport() {}
+
+    /** @param name csv, jsonl (or json), or binary (or bin), ignoring case
+     * @return the format
+     * @throws IllegalArgumentException thrown if the name is not a format */
+    static Format parseFormat(String name) throws IllegalArgumentException {
+        return switch (name.toLowerCase()) {
+            case "csv" -> Format.CSV;
+            case "jsonl", "json" -> Format.JSONL;
+            case "binary", "bin" -> Format.BINARY;
+            default -> throw new IllegalArgumentException("Unknown export format: " + name + " (csv, jsonl, or binary)");
+        };
+    }
+
+    /** Exports every element to a file, written beside it and then moved into place, so a reader never sees a
+     * half-written export.
+     * @param format the format
+     * @param file the file's path
+     * @throws IOException thrown if the file cannot be written */
+    static void export(Format format, String file) throws IOException {
+        Path destination = Path.of(file).toAbsolutePath();
+        Path temporary = destination.resolveSibling(destination.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            export(format, out);
+        }
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Exports every element to a stream, which is flushed but not closed.
+     * @param format the format
+     * @param out where the export is written
+     * @throws IOException thrown if the stream cannot be written */
+    static void export(Format format, OutputStream out) throws IOException {
+        if (format == Format.BINARY) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            writeBinary(data);
+            data.flush();
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        StringBuilder row = new StringBuilder(256);
+        if (format == Format.CSV) {
+            writer.write(String.join(",", FIELDS));
+            writer.write('\n');
+        }
+        ElementTable table = ElementRegistry.table();
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            row.setLength(0);
+            if (format == Format.CSV) appendCsv(row, table.element(z), table.flags[z]);
+            else appendJson(row, table.element(z), table.flags[z]);
+            writer.append(row);
+        }
+        writer.flush();
+    }
+
+    /** @return the element's property values, in the order of FIELDS */
+    private static Object[] values(Element element, long flags) {
+        return new Object[]{element.getAtomicNumber(), element.getAbbreviation(), element.getName(),
+                element.getAtomicMass(), element.getProtons(), element.getNeutrons(), element.getElectrons(),
+                element.getPeriod(), element.getColumn(), element.getColumnEnumeration(), element.getElementFamily(),
+                element.getMetallicState().getLabel(), flags, element.getElectronConfig(),
+                element.getShortElectronConfig(), element.getHighestOccupiedOrbital()};
+    }
+
+    private static void appendCsv(StringBuilder row, Element element, long flags) {
+        Object[] values = values(element, flags);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) row.append(',');
+            if (values[i] instanceof String text) appendCsvString(row, text);
+            else row.append(values[i]);
+        }
+        row.append('\n');
+    }
+
+    /** Appends a CSV field, quoted only if it contains a comma, quote, or line break. */
+    private static void appendCsvString(StringBuilder row, String text) {
+        boolean quoted = false;
+        for (int i = 0; i < text.length() && !quoted; i++) {
+            char c = text.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            row.append(text);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') row.append('"');
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private static void appendJson(StringBuilder row, Element element, long flags) {
+        Object[] values = values(element, flags);
+        row.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) row.append(',');
+            row.append('"').append(FIELDS[i]).append("\":");
+            if (values[i] instanceof String text) appendJsonString(row, text);
+            else row.append(values[i]);
+        }
+        row.append("}\n");
+    }
+
+    private static void appendJsonString(StringBuilder row, String text) {
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) row.append("\\u00").append(Character.forDigit(c >> 4, 16))
+                            .append(Character.forDigit(c & 0xF, 16));
+                    else row.append(c);
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    private static void writeBinary(DataOutputStream data) throws IOException {
+        ElementTable table = ElementRegistry.table();
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(Element.TOTAL_ELEMENT_COUNT);
+        data.writeInt(ElectronConfiguration.SUBSHELL_COUNT);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            Element element = table.element(z);
+            data.writeByte(z);
+            data.writeByte(element.getPeriod());
+            data.writeByte(element.getPeriodicColumn().ordinal());
+            data.writeByte(element.getFamily().ordinal());
+            data.writeShort(element.getNeutrons());
+            data.writeDouble(element.getAtomicMass());
+            data.writeLong(table.flags[z]);
+            data.write(element.getElectronConfiguration().toByteArray());
+            writeAscii(data, element.getAbbreviation());
+            writeAscii(data, element.getName());
+        }
+    }
+
+    private static void writeAscii(DataOutputStream data, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        data.writeByte(bytes.length);
+        data.write(bytes);
+    }
+
+    /** Arguments: csv|jsonl|binary [file (default: stdout)] */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java ElementExport csv|jsonl|binary [file]");
+            return;
+        }
+        Format format = parseFormat(args[0]);
+        if (args.length > 1 && !args[1].equals("-")) {
+            long start = System.nanoTime();
+            export(format, args[1]);
+            System.out.printf("Exported %d elements to %s in %.1f ms.%n", Element.TOTAL_ELEMENT_COUNT, args[1],
+                    (System.nanoTime() - start) / 1e6);
+        } else {
+            export(format, new FileOutputStream(FileDescriptor.out));
+        }
+    }
+}
@@ -1,32 +1,47 @@
+import java.io.PrintStream;
 import java.util.Arrays;
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ThreadLocalRandom;
 
 /** A game where the user tries to guess the mystery element L by using information about the element, especially in
  * regard to the periodic table. The class is designed for re-playability, with the difficulty level, element set, and
  * Scanner provided by the user.
  * @author Rohit De*/
 public class ElementLGame {
-    private int infoFetches;
     private final String difficultyLevel;
-    private boolean outOfFetches;
-    private final boolean playWithLanthanidesActinides;
     /** Inputted Scanner provided by the player to ensure that there are no Scanner errors. */
     private final Scanner scanner;
-    /** The Element that needs to be guessed. Randomly set by setElementL(). */
-    private Element elementL;
-    private final Element[] playableElementList;
-    private boolean gameIsOver;
-    private boolean elementHasBeenGuessed;
-    private boolean rowGuessed, columnGuessed, familyGuessed, metallicStateGuessed, modulusHintGotten;
-    /** Is true only if the player has won. isVictory & isDefeat can simultaneously be false. */
-    private boolean isVictory;
-    /** Is true only if the player has won. isVictory & isDefeat can simultaneously be false. */
-    private boolean isDefeat;
+    /** Collects each turn's prompts and messages into one frame, written to System.out or a GameServer session's
+     * connection when the player's input is next read. */
+    private final FrameRenderer frame;
+    /** The rules and state of the game. Element L is chosen by the engine from its seed. */
+    private final GameEngine engine;
+    /** Where every action is journaled so the game survives a crash, or null if it is not journaled. */
+    private final SessionJournal journal;
+    /** The game's session id in the journal. */
+    private final long sessionId;
     /** Set by playAgainPrompt(). Allows for re-playability by creating a new instance of this class in the main method. */
     private final boolean playAgain;
     /** Information the player has guessed about element L. Displayed to the player by displayInformation(). */
-    private final ArrayList<String> information = new ArrayList<>();
+    private final HintKnowledge knowledge = new HintKnowledge();
+    /** The most remaining candidates that displayInformation() lists by name. */
+    private static final int MAX_LISTED_CANDIDATES = 10;
+    /** The number of actions displayAdvice() recommends. */
+    private static final int ADVICE_COUNT = 5;
+    /** Every action by its number and names, as used by findAction() and performAction(). */
+    private static final CommandRegistry<Integer> ACTIONS = new CommandRegistry<Integer>()
+            .add(1, "1", "guessElement", "element")
+            .add(2, "2", "guessRow", "row", "period")
+            .add(3, "3", "guessColumn", "column", "group")
+            .add(4, "4", "guessFamily", "family")
+            .add(5, "5", "guessMetallicState", "state")
+            .add(6, "6", "getModulus3Hint", "modulus")
+            .add(7, "7", "getAdvice", "advice")
+            .add(-1, "-1", "quitGame", "quit");
+    /** The rest of the line an action was typed on (e.g. "4" in "2 4"), used as the action's answer instead of asking
+     * for it, or null if there was none. */
+    private String pendingAnswer;
 
     /** The base number of fetches corresponding with the hydrogen level. */
     public static final int HYDROGEN_LEVEL = 13;
@@ -52,17 +67,59 @@ public class ElementLGame {
      * @param difficulty the difficulty level returned by static method getDifficulty(scanner). H=13, I=10, G=7, U=4
      */
     public ElementLGame(Scanner scanner, boolean playWithLanthanidesActinides, int difficulty) {
+        this(scanner, (playWithLanthanidesActinides) ? ElementList.ALL_ELEMENTS_SET
+                : ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET, difficulty);
+    }
+
+    /**
+     * Sets difficulty level, a custom playable element set, number of info fetches, and the used Scanner.
+     * Plays the game, and then stores playAgain information that can be used outside the class.
+     * Sets containing any lanthanide or actinide are played with them, with the 2 extra fetches that come with them.
+     *
+     * @param scanner a valid Scanner provided by the user. Ensures that no Scanner-related errors occur.
+     *                Scanner must not be closed or null.
+     * @param playableElements the elements element L can be (e.g. ElementList.FIRST_36_ELEMENTS_SET). Must not be empty.
+     * @param difficulty the difficulty level returned by static method getDifficulty(scanner). H=13, I=10, G=7, U=4
+     * @throws IllegalArgumentException thrown if the playable element set is empty
+     */
+    public ElementLGame(Scanner scanner, ElementSet playableElements, int difficulty) throws IllegalArgumentException {
+        this(scanner, System.out, playableElements, difficulty);
+    }
+
+    /**
+     * Sets difficulty level, a custom playable element set, number of info fetches, the used Scanner, and where the
+     * game is displayed. Plays the game, and then stores playAgain information that can be used outside the class.
+     *
+     * @param scanner a valid Scanner provided by the user. Must not be closed or null.
+     * @param out where every prompt and message is printed (System.out for the console)
+     * @param playableElements the elements element L can be. Must not be empty.
+     * @param difficulty the difficulty level returned by static method getDifficulty(scanner). H=13, I=10, G=7, U=4
+     * @throws IllegalArgumentException thrown if the playable element set is empty
+     */
+    public ElementLGame(Scanner scanner, PrintStream out, ElementSet playableElements, int difficulty)
+            throws IllegalArgumentException {
+        this(scanner, out, new GameEngine(new GameEngine.Config(playableElements, difficulty),
+                ThreadLocalRandom.current().nextLong()), null, 0);
+    }
+
+    /**
+     * Plays a game on an engine, which may already have actions applied (a game recovered by SessionJournal): the
+     * information from those actions is shown as if the player had just fetched it. Then stores playAgain information.
+     *
+     * @param scanner a valid Scanner provided by the user. Must not be closed or null.
+     * @param out where every prompt and message is printed (System.out for the console)
+     * @param engine the game to play
+     * @param journal where every action is journaled, or null to not journal the game
+     * @param sessionId the game's session id in the journal (from SessionJournal.start()), if it is journaled
+     */
+    ElementLGame(Scanner scanner, PrintStream out, GameEngine engine, SessionJournal journal, long sessionId) {
         this.scanner = scanner;
-        this.playWithLanthanidesActinides = playWithLanthanidesActinides;
-        this.infoFetches = difficulty;
-        if (this.playWithLanthanidesActinides) {
-            playableElementList = ElementList.ALL_ELEMENTS;
-            this.infoFetches += 2;
-        } else {
-            playableElementList = ElementList.NO_LANTHANIDES_OR_ACTINIDES;
-        }
-        this.difficultyLevel = difficultyToString(difficulty);
-        this.setElementL();
+        this.frame = new FrameRenderer(out);
+        this.engine = engine;
+        this.journal = journal;
+        this.sessionId = sessionId;
+        this.difficultyLevel = difficultyToString(engine.getConfig().difficulty());
+        for (GameEngine.Outcome outcome : engine.getHistory()) knowledge.add(outcome);
         this.playGame();
         this.playAgain = this.playAgainPrompt();
     }
@@ -72,9 +129,14 @@ public class ElementLGame {
      * Static so it can be called and information can be displayed only at the very start.
      * @param scanner a Scanner provided for use by the player */
     public static void displayOpeningMessage(Scanner scanner) {
+        displayOpeningMessage(scanner, System.out);
+    }
+
+    /** Like displayOpeningMessage(scanner), printing the prompts to out instead of System.out. */
+    public static void displayOpeningMessage(Scanner scanner, PrintStream out) {
         boolean viewInstructions;
-        System.out.println("Welcome to Element-Ls! Try to guess the mystery element L!");
-        System.out.println("Would you like to learn more about the game? Type [y]es or [n]o");
+        out.println("Welcome to Element-Ls! Try to guess the mystery element L!");
+        out.println("Would you like to learn more about the game? Type [y]es or [n]o");
         while (true) {
             String response = scanner.nextLine();
             if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) {
@@ -85,48 +147,54 @@ public class ElementLGame {
                 break;
             }
         }
-        if (viewInstructions) displayInstructions();
+        if (viewInstructions) displayInstructions(out);
     }
 
     /** Displays instructions for the game if the user requests it from displayOpeningMessage().*/
     public static void displayInstructions() {
-        System.out.println("""
+        displayInstructions(System.out);
+    }
+
+    /** Like displayInstructions(), printing the instructions to out instead of System.out. */
+    public static void displayInstructions(PrintStream out) {
+        out.println("""
               
               
               Element-Ls is a game where the player tries to guess the mystery element L.
               The player obtains information about the element in order to guess it.
               A player wins by guessing an element, and they lose by running out of fetches.
               IMPORTANT: Element-Ls is to be played with a periodic table on hand.""");
-        System.out.println("""
+        out.println("""
               
               A player uses information "fetches" to get hints about the element.
               The player can guess the element's row, column, family, or metallic state.
               If the player is incorrect, they lose a fetch.""");
-        System.out.println("""
+        out.println("""
               Incorrectly guessing an element costs 2 fetches instead of 1.
-              Obtaining the result of (atomic number % 3) also costs 1 fetch.""");
-        System.out.println("""
+              Obtaining the result of (atomic number % 3) also costs 1 fetch.
+              An action's answer can be typed on the same line as the action, by number or name (e.g. "2 4" or "column 1B").""");
+        out.println("""
               
               Periodic rows range from 1 to 7. Lanthanides and actinides get special columns, and column 8B is split up.
               The periodic columns are listed below:""");
-        System.out.println(Arrays.toString(Element.COLUMNS));
-        System.out.println("\nThere are 10 families used in this game, as listed below:");
-        System.out.println(Arrays.toString(Element.ELEMENT_FAMILIES));
-        System.out.println("""
+        out.println(Arrays.toString(Element.COLUMNS));
+        out.println("\nThere are 10 families used in this game, as listed below:");
+        out.println(Arrays.toString(Element.ELEMENT_FAMILIES));
+        out.println("""
               
               A few notes:
               Reactive nonmetals are any nonmetals that are not halogens or noble gasses.
               There are only 6 elements considered metalloids: boron (5), silicon (14), germanium (32), arsenic (33), antimony (51), and tellurium (52).
               Polonium (84), nihonium (113), flerovium (114), moscovium (115), and livermorium (116) are considered post-transition metals.
               Tennessine (117) is considered a halogen, while oganesson (118) is considered a noble gas.""");
-        System.out.println("\nThe three metallic states are metal, nonmetal, and metalloid.");
-        System.out.println("\nThe modulus 3 hint does cost 1 fetch, but it can help narrow down elements of a single row or column.");
-        System.out.println("""
+        out.println("\nThe three metallic states are metal, nonmetal, and metalloid.");
+        out.println("\nThe modulus 3 hint does cost 1 fetch, but it can help narrow down elements of a single row or column.");
+        out.println("""
               
               There are 4 different difficulties to this game: hydrogen (easy), iron (medium), gold (hard), and uranium (very hard).
               Hydrogen allots a user 13 guesses, iron allots 10, gold allots 7, and uranium allots only 4.
               The hydrogen level is almost always guessable, while the uranium level will almost always require some luck.""");
-        System.out.println("""
+        out.println("""
               
               You can choose your difficulty level, as well as whether you would like to play with the lanthanide and actinide series or not.
               Good luck playing Element-Ls!""");
@@ -137,8 +205,13 @@ public class ElementLGame {
      * @param scanner a Scanner provided for use by the player
      * @return true if the user is playing with lanthanides & actinides, false if they are not */
     public static boolean playWithLanthanidesActinides(Scanner scanner) {
+        return playWithLanthanidesActinides(scanner, System.out);
+    }
+
+    /** Like playWithLanthanidesActinides(scanner), printing the prompts to out instead of System.out. */
+    public static boolean playWithLanthanidesActinides(Scanner scanner, PrintStream out) {
         while (true) {
-            System.out.println("Would you like to play with lanthanides and actinides? Type [y]es or [n]o");
+            out.println("Would you like to play with lanthanides and actinides? Type [y]es or [n]o");
             String response = scanner.nextLine();
             if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) {
                 return true;
@@ -148,27 +221,80 @@ public class ElementLGame {
         }
     }
 
+    /** Uses user input to determine the element set used for the game: with or without lanthanides & actinides, or
+     * a custom set written as an ElementSet spec (e.g. "1-36" or "all, !superheavy").
+     * Static method so element set can be used for multiple consecutive games without extra input.
+     * @param scanner a Scanner provided for use by the player
+     * @return the elements element L can be chosen from */
+    public static ElementSet choosePlayableElements(Scanner scanner) {
+        return choosePlayableElements(scanner, System.out);
+    }
+
+    /** Like choosePlayableElements(scanner), printing the prompts to out instead of System.out. */
+    public static ElementSet choosePlayableElements(Scanner scanner, PrintStream out) {
+        while (true) {
+            out.println("Would you like to play with lanthanides and actinides? Type [y]es or [n]o, " +
+                    "or type a custom element set (e.g. \"1-36\" or \"all, !superheavy\")");
+            String response = scanner.nextLine();
+            if (response.isBlank()) continue;
+            try {
+                return parsePlayableElements(response);
+            } catch (IllegalArgumentException ex) {
+                out.println(ex.getMessage());
+            }
+        }
+    }
+
+    /** Reads an answer to choosePlayableElements() without prompting: used for command line flags and scripts.
+     * @param response [y]es for every element, [n]o for every element but the lanthanides & actinides, or an
+     *                 ElementSet spec (e.g. "1-36" or "all, !superheavy")
+     * @return the elements element L can be chosen from
+     * @throws IllegalArgumentException thrown if the spec is invalid or has no elements */
+    public static ElementSet parsePlayableElements(String response) throws IllegalArgumentException {
+        if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) {
+            return ElementList.ALL_ELEMENTS_SET;
+        } else if (response.equalsIgnoreCase("N") || response.equalsIgnoreCase("no")) {
+            return ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET;
+        }
+        ElementSet custom = ElementSet.parse(response);
+        if (custom.isEmpty()) throw new IllegalArgumentException("That set has no elements; please try again.");
+        return custom;
+    }
+
     /** Uses user input to determine the difficulty (HYDROGEN/IRON/GOLD/URANIUM) for the game.
      * Static method so difficulty can be used for multiple consecutive games without extra input.
      * THe result should be passed as a parameter to the constructor for this class.
      * @param scanner a Scanner provided for use by the player
      * @return the number of info fetches allotted to the user based on the difficulty (H=13, I=10, G=7, U=4) */
     public static int getDifficulty(Scanner scanner) {
+        return getDifficulty(scanner, System.out);
+    }
+
+    /** Like getDifficulty(scanner), printing the prompts to out instead of System.out. */
+    public static int getDifficulty(Scanner scanner, PrintStream out) {
         while (true) {
-            System.out.println("\nWhich difficulty would you like to play?\n[H]ydrogen\t[I]ron\t[G]old\t[U]ranium");
-            String response = scanner.nextLine();
-            if (response.equalsIgnoreCase("H") || response.equalsIgnoreCase("hydrogen")) {
-                return HYDROGEN_LEVEL;
-            } else if (response.equalsIgnoreCase("i") || response.equalsIgnoreCase("iron")) {
-                return IRON_LEVEL;
-            }
-            else if (response.equalsIgnoreCase("g") || response.equalsIgnoreCase("gold")) {
-                return GOLD_LEVEL;
-            } else if (response.equalsIgnoreCase("u") || response.equalsIgnoreCase("uranium")) {
-                return URANIUM_LEVEL;
-            }
+            out.println("\nWhich difficulty would you like to play?\n[H]ydrogen\t[I]ron\t[G]old\t[U]ranium");
+            int difficulty = parseDifficulty(scanner.nextLine());
+            if (difficulty != 0) return difficulty;
         }
     }
+
+    /** Reads an answer to getDifficulty() without prompting: used for command line flags and scripts.
+     * @param response [H]ydrogen, [I]ron, [G]old, or [U]ranium
+     * @return the number of info fetches of the difficulty (H=13, I=10, G=7, U=4), or 0 if it is not one */
+    public static int parseDifficulty(String response) {
+        if (response.equalsIgnoreCase("H") || response.equalsIgnoreCase("hydrogen")) {
+            return HYDROGEN_LEVEL;
+        } else if (response.equalsIgnoreCase("i") || response.equalsIgnoreCase("iron")) {
+            return IRON_LEVEL;
+        }
+        else if (response.equalsIgnoreCase("g") || response.equalsIgnoreCase("gold")) {
+            return GOLD_LEVEL;
+        } else if (response.equalsIgnoreCase("u") || response.equalsIgnoreCase("uranium")) {
+            return URANIUM_LEVEL;
+        }
+        return 0;
+    }
     /** Converts int difficulty level into String. Used so difficulty for a singular game can be found outside of class
      * if difficulty is not provided as a constructor parameter. Called in a constructor.
      * @param difficulty the maximum number of fetches the user is allowed  (13 or 10 or 7 or 4)
@@ -185,32 +311,22 @@ public class ElementLGame {
         };
     }
 
-    /** Chooses a random element from playableElementList to set as ElementL, the element to be guessed.*/
-    private void setElementL() {
-        // Generates a random index to select from list
-        int index = (int) (Math.random() * (double) playableElementList.length);
-        this.elementL = playableElementList[index];
-    }
-
     /** The method that operates the game steps. Displays element information, finds the next action to take,
-     * performs said action, checks if the game is over, and displays a victory or defeat message.
-     * Methods called include: displayInformation(), findAction(), performAction(), isOutOfFetches(), isVictory(), isDefeat(), isGameOver()*/
+     * performs said action until the engine reports that the game is over, and displays a victory or defeat message.
+     * Methods called include: displayInformation(), findAction(), performAction()*/
     private void playGame() {
-        while (!this.gameIsOver) {
+        while (!engine.isOver()) {
             displayInformation();
             int action = findAction();
             performAction(action);
-            this.outOfFetches = isOutOfFetches();
-            this.isVictory = isVictory();
-            this.isDefeat = isDefeat();
-            this.gameIsOver = isGameOver();
         }
-        if (this.isVictory) {
-            System.out.println("Congratulations! You won!\nYou successfully guessed element L!");
-            System.out.printf("Element L was %s.%n", this.elementL.toString().toUpperCase());
-        } else if (this.isDefeat) {
-            System.out.println("Sorry, you did not win.");
-            System.out.printf("The mystery element L was %s.%n", elementL.toString().toUpperCase());
+        if (journal != null) journal.end(sessionId);
+        if (engine.getStatus() == GameEngine.Status.WON) {
+            frame.println("Congratulations! You won!\nYou successfully guessed element L!");
+            frame.printf("Element L was %s.%n", engine.getElementL().toString().toUpperCase());
+        } else {
+            frame.println("Sorry, you did not win.");
+            frame.printf("The mystery element L was %s.%n", engine.getElementL().toString().toUpperCase());
         }
 
 
@@ -219,333 +335,306 @@ public class ElementLGame {
     /** Displays any information the user has obtained from their fetches.
      * If no information has been fetched, nothing is displayed.*/
     private void displayInformation() {
-        System.out.printf("%n%nFetches remaining: %d%n", this.infoFetches);
-        if (!information.isEmpty()) {
-            System.out.println("Available Information:");
-            for (String s: information) {
-                System.out.println(s);
+        frame.printf("%n%nFetches remaining: %d%n", engine.getFetches());
+        if (!knowledge.isEmpty()) {
+            frame.println("Available Information:");
+            for (HintKnowledge.Hint hint : knowledge.hints()) {
+                frame.println(hint.describe());
             }
-            System.out.println();
+            frame.println();
+        }
+        ElementSet remaining = engine.getCandidates();
+        frame.printf("Possible elements remaining: %d%n", remaining.size());
+        if (remaining.size() <= MAX_LISTED_CANDIDATES) {
+            StringBuilder builder = new StringBuilder();
+            for (int z = remaining.next(0); z != 0; z = remaining.next(z)) {
+                builder.append((builder.length() == 0) ? "" : ", ").append(Element.of(z).toString());
+            }
+            frame.println(builder);
         }
     }
 
-    /** Determines what action to take based on user input.
+    /** Determines what action to take based on user input: the action's number or name, optionally followed by its
+     * answer on the same line (e.g. "2 4" or "column 1B"), which is kept in pendingAnswer.
      * @return an int value corresponding with the action to take: this int is used in performAction(). */
     private int findAction() {
         while (true) {
-            System.out.println("What action would you like to perform? Type in the NUMBER corresponding to the action.");
-            System.out.println("[1] guessElement\t[2] guessRow\t[3] guessColumn\t[4] guessFamily" +
-                    "\t[5] guessMetallicState\t[6] getModulus3Hint\t[-1] quitGame");
-            String input = scanner.nextLine();
+            frame.print(FrameRenderer.ACTION_MENU);
+            String input = frame.readLine(scanner).trim();
+            String[] words = CommandRegistry.split(input);
+            Integer act = (words.length == 0) ? null : ACTIONS.get(words[0]);
+            if (act != null) {
+                String rest = input.substring(words[0].length()).replaceFirst("^[\\s,]+", "");
+                pendingAnswer = rest.isEmpty() ? null : rest;
+                return act;
+            }
             try {
-                int act = Integer.parseInt(input);
-                if (act >= -1 && act <= 6) return act;
-                else System.out.println("Invalid input: please try again.");
-            } catch (Exception ex) {
-                System.out.println("Something went wrong; please try again.");
+                Integer.parseInt(input);
+                frame.println("Invalid input: please try again.");
+            } catch (NumberFormatException ex) {
+                frame.println("Something went wrong; please try again.");
             }
         }
     }
 
+    /** @param prompt what to ask the player if they did not answer on the action's line
+     * @return the answer typed with the action, the first time one is asked for; otherwise the player's next line */
+    private String readAnswer(String prompt) {
+        if (pendingAnswer != null) {
+            String answer = pendingAnswer;
+            pendingAnswer = null;
+            return answer;
+        }
+        frame.print(prompt);
+        return frame.readLine(scanner);
+    }
+
     /** Allows the user to perform an action based on their input. Actions include: quitting the game;
-     * guessing the row, column, family, or metallic state; and getting the modulus 3 hint.
+     * guessing the row, column, family, or metallic state; getting the modulus 3 hint; and getting advice on what to do next.
      * @param actionToPerform int corresponding with the action to perform; obtained from findAction() */
     private void performAction(int actionToPerform) {
         switch (actionToPerform) {
-            case -1 -> quitGame();
-            case 1 -> this.elementHasBeenGuessed = guessElement();
-            case 2 -> this.rowGuessed = guessRow();
-            case 3 -> this.columnGuessed = guessColumn();
-            case 4 -> this.familyGuessed = guessFamily();
-            case 5 -> this.metallicStateGuessed = guessMetallicState();
-            case 6 -> this.modulusHintGotten = getModulus3Hint();
+            case -1 -> engine.resign();
+            case 1 -> guessElement();
+            case 2 -> guessRow();
+            case 3 -> guessColumn();
+            case 4 -> guessFamily();
+            case 5 -> guessMetallicState();
+            case 6 -> getModulus3Hint();
+            case 7 -> displayAdvice();
         }
+        // an answer the action did not need is dropped
+        pendingAnswer = null;
     }
 
-    /** Quits the current game and sets it as a loss. */
-    private void quitGame() {
-        this.isDefeat = true;
-        this.isVictory = false;
-        this.gameIsOver = true;
+    /** Displays the actions expected to give the most information per fetch, given the remaining candidates.
+     * Getting advice costs no fetches. */
+    private void displayAdvice() {
+        List<HintAdvisor.Advice> advice = HintAdvisor.rank(engine);
+        frame.println("Best actions (expected information per expected fetch spent):");
+        for (int i = 0; i < Math.min(ADVICE_COUNT, advice.size()); i++) {
+            HintAdvisor.Advice action = advice.get(i);
+            if (Double.isInfinite(action.score())) {
+                frame.printf("[%d] %s: certain to win%n", i + 1, action.label());
+            } else {
+                frame.printf("[%d] %s: %.2f bits for %.2f fetches%n", i + 1, action.label(),
+                        action.expectedGain(), action.expectedCost());
+            }
+        }
     }
 
 
     /** Reads user input to either guess the element or go back and perform another action.
      * Incorrect element guesses cost 2 information fetches, as opposed to 1.
-     * If the guess is incorrect, that information is added to the information list to be displayed.
-     * @return true if the element has been guessed correctly, false if the guess is incorrect or if the user backs out. */
-    private boolean guessElement() {
+     * If the guess is incorrect, that information is added to the information list to be displayed. */
+    private void guessElement() {
         Element guessedElement;
         while (true) {
-            System.out.println("Type in the name or abbreviation of the element you think element L is. Type -1 to go back:");
-            String guess = scanner.nextLine();
-            if (guess.equals("-1")) return false;
-            try {
-              guessedElement = new Element(guess);
-              break;
-            } catch (IllegalArgumentException ex) {
-              System.out.println("Invalid input: please try again");
-            }
+            String guess = readAnswer("Type in the name or abbreviation of the element you think element L is. " +
+                    "Type -1 to go back:\n");
+            if (guess.equals("-1")) return;
+            guessedElement = ElementNameIndex.resolve(guess);
+            if (guessedElement != null) break;
+            frame.println("Invalid input: please try again." + ElementNameIndex.didYouMean(guess));
         }
-        if (guessedElement.equals(this.elementL)) {
-            return true;
-        } else {
-            System.out.print("What were you thinking? ");
-            boolean hasBeenGuessed = addToInformation(guessedElement.toString().toUpperCase(), false, "");
-            checkHasBeenGuessed(hasBeenGuessed, false, true);
-            ///this.infoFetches -= 2;
-            return false;
+        GameEngine.Action guess = GameEngine.Action.guessElement(guessedElement);
+        if (!confirmGuess(guess)) return;
+        GameEngine.Outcome outcome = apply(guess);
+        if (!outcome.isCorrect()) {
+            frame.print("What were you thinking? ");
+            addToInformation(outcome);
         }
     }
 
     /** Reads user input to either guess the metallic state of the element or go back and perform another action.
      * If the state has already been guessed, the method completes early to save the user hassle.
      * The information guessed about the metallic state is added to information, too.
-     * Incorrect state guesses cost 1 information fetch.
-     * @return true if the metallic state has been guessed correctly, false if the guess is incorrect or if the user backs out*/
-    private boolean guessMetallicState() {
-        if (this.metallicStateGuessed) {
-            System.out.println("You already know the metallic state!");
-            return this.metallicStateGuessed;
+     * Incorrect state guesses cost 1 information fetch. */
+    private void guessMetallicState() {
+        if (engine.isKnown(ActionKind.METALLIC_STATE)) {
+            frame.println("You already know the metallic state!");
+            return;
         }
-        int guessedInt;
-        // IntelliJ says to initialize these, even though my code sets these when they are needed.
-        //  (My code proceeds to use these only if the input is 1, 2, or 3, and it sets these values with these inputs specifically.)
-        String guessedMetallicState = "";
-        boolean guessedCorrectState = false;
+        MetallicState guessedMetallicState;
         while (true) {
-          System.out.println("Guessable metallic states: [1] METAL\t[2] NONMETAL\t[3] METALLOID");
-          System.out.println("Type in the integer corresponding to the metallic state you think element L has. Type -1 to go back.");
-          String input = scanner.nextLine();
-          try {
-              guessedInt = Integer.parseInt(input);
-              // -1 quits before proceeding further
-              if (guessedInt==-1) return false;
-              // proceed further if correct input
-              if (guessedInt >= 1 && guessedInt <= 3) break;
-          } catch (Exception ignored) {}
+          String input = readAnswer(FrameRenderer.METALLIC_STATE_MENU);
+          // -1 quits before proceeding further
+          if (input.trim().equals("-1")) return;
+          // proceed further if correct input (the integer or the state itself)
+          guessedMetallicState = MetallicState.parse(input);
+          if (guessedMetallicState != null) break;
           // if not correct input, go back
-          System.out.println("Invalid input; please try again");
+          frame.println("Invalid input; please try again");
         }
-        switch (guessedInt) {
-            case 1 -> {
-                guessedMetallicState = "METAL";
-                guessedCorrectState = this.elementL.isMetal();
-            }
-            case 2 -> {
-                guessedMetallicState = "NONMETAL";
-                guessedCorrectState = this.elementL.isNonmetal();
-            }
-            case 3 -> {
-                guessedMetallicState = "METALLOID";
-                guessedCorrectState = this.elementL.isMetalloid();
-            }
-        }
-        if (guessedCorrectState) {
-            System.out.print("Correct! ");
+        GameEngine.Action guess = GameEngine.Action.guessMetallicState(guessedMetallicState);
+        if (!confirmGuess(guess)) return;
+        GameEngine.Outcome outcome = apply(guess);
+        printVerdict(outcome);
+        addToInformation(outcome);
+    }
+
+    /** Prints the start of the message for a guess: "Correct! " or "Sorry, ".
+     * @param outcome the outcome of the guess */
+    private void printVerdict(GameEngine.Outcome outcome) {
+        if (outcome.isCorrect()) {
+            frame.print("Correct! ");
         } else {
-            System.out.print("Sorry, ");
-        }
-        boolean hasBeenGuessed = addToInformation(guessedMetallicState, guessedCorrectState, "a ");
-        checkHasBeenGuessed(hasBeenGuessed, guessedCorrectState, false);
-        return guessedCorrectState;
-    }
-
-    /** Takes information about the element from guess functions, prints it out, and adds it to information
-     * if it was not there already. If the information was there, it does not add anything.
-     * @param guessedInformation the specific information group the user guessed Element L belonged to
-     * @param isCorrect whether the player's guess was correct or not
-     * @param otherString any additional words meant to form a complete phrase
-     * @return true if the information has already been fetches (is in this.information), false otherwise. */
-    private boolean addToInformation(String guessedInformation, boolean isCorrect, String otherString) {
-        String familyInfo = String.format("Element L is %s%s%s", (isCorrect) ? "" : "not ", otherString,
-                guessedInformation);
-        System.out.printf("%s.%n", familyInfo);
-        // if not found in information
-        if (Main.searchFor(information.toArray(), familyInfo) == -1) {
-            information.add(familyInfo);
-            return false;
+            frame.print("Sorry, ");
         }
-        // if already found in information
-        else return true;
-    }
-
-    /** Subtracts a number of fetches for an incorrect fetch (2 for element, 1 for anything else); if the fetch was
-     * guessed beforehand, nothing is subtracted
-     * @param hasBeenGuessed whether the information has already been guessed before
-     * @param guessIsCorrect whether the guess is correct
-     * @param isElementGuess whether the element itself is being guessed or not */
-    private void checkHasBeenGuessed(boolean hasBeenGuessed, boolean guessIsCorrect, boolean isElementGuess) {
-        if (!hasBeenGuessed && !guessIsCorrect) {
-            if (isElementGuess) this.infoFetches -=2;
-            else this.infoFetches--;
+    }
+
+    /** Applies an action to the engine, and journals it if the game is journaled.
+     * @param action the player's move
+     * @return what happened */
+    private GameEngine.Outcome apply(GameEngine.Action action) {
+        GameEngine.Outcome outcome = engine.apply(action);
+        if (journal != null) journal.record(sessionId, action);
+        return outcome;
+    }
+
+    /** Prints the information an action's outcome gave, and adds it to the knowledge base (once).
+     * If the guess had been made before, the player is reminded of that.
+     * @param outcome the outcome of the player's guess or hint, from the engine */
+    private void addToInformation(GameEngine.Outcome outcome) {
+        HintKnowledge.Hint hint = knowledge.add(outcome);
+        if (hint != null) frame.printf("%s.%n", hint.describe());
+        if (outcome.result() == GameEngine.Result.REPEATED) frame.println("You already guessed that, though!");
+    }
+
+    /** Warns before a fetch is spent on a guess that what the player already knows rules out (e.g. row 2 for a
+     * lanthanide). Guesses made before are free, so they are not warned about.
+     * @param action the guess
+     * @return true to make the guess, false to go back */
+    private boolean confirmGuess(GameEngine.Action action) {
+        HintKnowledge.Hint wrong = new HintKnowledge.Hint(action.kind(), action.value(), false);
+        if (knowledge.contains(wrong) || HintKnowledge.implication(engine.getCandidates(), action.kind(),
+                action.value()) != HintKnowledge.Implication.IMPLIED_FALSE) return true;
+        int cost = engine.getConfig().rules().cost(action.kind());
+        return confirm(String.format("%s: that already follows from what you know, and guessing it costs %d fetch%s. "
+                + "Guess anyway?", wrong.describe(), cost, (cost == 1) ? "" : "es"));
+    }
+
+    /** Warns before a fetch is spent on the modulus 3 hint when every element left has the same remainder, so the
+     * hint cannot tell the player anything new.
+     * @return true to get the hint, false to go back */
+    private boolean confirmModulus3Hint() {
+        if (HintKnowledge.implication(engine.getCandidates(), ActionKind.MODULUS_3, 0)
+                != HintKnowledge.Implication.IMPLIED_TRUE) return true;
+        int cost = engine.getConfig().rules().cost(ActionKind.MODULUS_3);
+        return confirm(String.format("Every element left has the same atomic number %% 3, so the hint cannot tell you "
+                + "anything new, and it costs %d fetch%s. Get it anyway?", cost, (cost == 1) ? "" : "es"));
+    }
+
+    /** Asks a yes or no question until it is answered.
+     * @param question the question, without the "Type [y]es or [n]o" that follows it
+     * @return true for yes */
+    private boolean confirm(String question) {
+        while (true) {
+            frame.printf("%s Type [y]es or [n]o%n", question);
+            String response = frame.readLine(scanner);
+            if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) return true;
+            else if (response.equalsIgnoreCase("n") || response.equalsIgnoreCase("no")) return false;
         }
-        else if (hasBeenGuessed) System.out.println("You already guessed that, though!");
     }
 
     /** Reads user input to either guess the family of the element or go back and perform another action.
      * If the family has already been guessed, the method completes early to save the user hassle.
      * The information guessed about the family is added to information, too.
-     * Incorrect state guesses cost 1 information fetch.
-     * @return true if the family has been guessed correctly, false if the guess is incorrect or if the user backs out*/
-    private boolean guessFamily() {
-        String guessedFamily;
-        if (this.familyGuessed) {
-          System.out.println("You already know the family!");
-          return this.familyGuessed;
+     * Incorrect state guesses cost 1 information fetch. */
+    private void guessFamily() {
+        Family guessedFamily;
+        if (engine.isKnown(ActionKind.FAMILY)) {
+          frame.println("You already know the family!");
+          return;
         }
+        boolean playWithLanthanidesActinides = engine.getConfig().playWithLanthanidesActinides();
         while (true) {
-            System.out.print("Guessable families: ");
-            for (int i = 0; i < Element.ELEMENT_FAMILIES.length; i++) {
-                String thisFamily = Element.ELEMENT_FAMILIES[i];
-                if (!playWithLanthanidesActinides && (thisFamily.equals(Element.LANTHANIDE)
-                        || thisFamily.equals(Element.ACTINIDE))) {
-                    continue;
-                } else System.out.printf("[%d] %s; ", i+1, thisFamily);
-                if ((playWithLanthanidesActinides && i==4) || (!playWithLanthanidesActinides && i==2))
-                    System.out.println();
-            }
-            System.out.println("\nType in the integer corresponding to the family you think element L belongs to. Type -1 to go back.");
-            // columns are written uppercase
-            String input = scanner.nextLine();
-            try {
-                int familyIndex = Integer.parseInt(input)-1;
-                // if -1 entered, familyIndex=-2
-                // quits step before proceeding further
-                if (familyIndex==-2) return false;
-                guessedFamily = Element.ELEMENT_FAMILIES[familyIndex];
-                if (!playWithLanthanidesActinides && (guessedFamily.equals(Element.ACTINIDE) ||
-                        guessedFamily.equals(Element.LANTHANIDE))) {
-                    System.out.println("You are not playing with lanthanides or actinides; please guess again.");
-                    continue;
-                } else break;
-            } catch (Exception ex) {
-                System.out.println("Invalid input; please try again");
-            }
+            String input = readAnswer(FrameRenderer.familyMenu(playWithLanthanidesActinides));
+            // quits step before proceeding further
+            if (input.trim().equals("-1")) return;
+            // the integer or the family itself
+            guessedFamily = Family.parse(input);
+            if (guessedFamily == null) {
+                frame.println("Invalid input; please try again");
+            } else if (!playWithLanthanidesActinides && guessedFamily.isInnerTransition()) {
+                frame.println("You are not playing with lanthanides or actinides; please guess again.");
+            } else break;
         }
-        boolean isCorrectFamily = (guessedFamily.equals(this.elementL.getElementFamily()));
-        if (isCorrectFamily) {
-            System.out.print("Correct! ");
-        } else {
-            System.out.print("Sorry, ");
-        }
-        // add "a" or "an" depending on whether the family starts with "a" or not
-        String aOrAn = (guessedFamily.equals(Element.ALKALI_METAL) || guessedFamily.equals(Element.ALKALINE_EARTH_METAL)
-                || guessedFamily.equals(Element.ACTINIDE)) ? "an " : "a ";
-        boolean hasBeenGuessed = addToInformation(guessedFamily, isCorrectFamily, aOrAn);
-        checkHasBeenGuessed(hasBeenGuessed, isCorrectFamily, false);
-        return isCorrectFamily;
+        GameEngine.Action guess = GameEngine.Action.guessFamily(guessedFamily);
+        if (!confirmGuess(guess)) return;
+        GameEngine.Outcome outcome = apply(guess);
+        printVerdict(outcome);
+        addToInformation(outcome);
     }
 
     /** Reads user input to either guess the column of the element or go back and perform another action.
      * If the column has already been guessed, the method completes early to save the user hassle.
      * The information guessed about the column is added to information, too.
-     * Incorrect state guesses cost 1 information fetch.
-     * @return true if the column has been guessed correctly, false if the guess is incorrect or if the user backs out*/
-    private boolean guessColumn() {
-        String guessedColumn;
-        if (this.columnGuessed) {
-          System.out.println("You already know the column!");
-          return this.columnGuessed;
+     * Incorrect state guesses cost 1 information fetch. */
+    private void guessColumn() {
+        Column guessedColumn;
+        if (engine.isKnown(ActionKind.COLUMN)) {
+          frame.println("You already know the column!");
+          return;
         }
+        boolean playWithLanthanidesActinides = engine.getConfig().playWithLanthanidesActinides();
         while (true) {
-            System.out.print("Guessable columns: ");
-            for (String str: Element.COLUMNS) {
-                if (!(!playWithLanthanidesActinides && str.contains("LA"))) {
-                   System.out.printf("%s; ", str);
-                }
-            }
-            System.out.println("\nType in the column you think element L is in. Type -1 to go back.");
             // columns are written uppercase
-            String input = scanner.nextLine().toUpperCase();
-            System.out.println(input);
+            String input = readAnswer(FrameRenderer.columnMenu(playWithLanthanidesActinides)).toUpperCase();
+            frame.println(input);
             // quits step before going further
-            if (input.equals("-1")) return false;
-            if (Main.searchFor(Element.COLUMNS, input) >= 0) {
-                guessedColumn = input;
+            if (input.equals("-1")) return;
+            guessedColumn = Column.parse(input);
+            if (guessedColumn != null) {
                 break;
             } else {
-                System.out.println("Invalid input; please try again");
+                frame.println("Invalid input; please try again");
             }
         }
-        boolean inCorrectColumn = (guessedColumn.equals(this.elementL.getColumn()));
-        if (inCorrectColumn) {
-            System.out.print("Correct! ");
-        } else {
-            System.out.print("Sorry, ");
-        }
-        boolean hasBeenGuessed = addToInformation(guessedColumn, inCorrectColumn, "in column ");
-        checkHasBeenGuessed(hasBeenGuessed, inCorrectColumn, false);
-        return inCorrectColumn;
+        GameEngine.Action guess = GameEngine.Action.guessColumn(guessedColumn);
+        if (!confirmGuess(guess)) return;
+        GameEngine.Outcome outcome = apply(guess);
+        printVerdict(outcome);
+        addToInformation(outcome);
     }
 
     /** Reads user input to either guess the row of the element or go back and perform another action.
      * If the row has already been guessed, the method completes early to save the user hassle.
      * The information guessed about the row is added to information, too.
-     * Incorrect state guesses cost 1 information fetch.
-     * @return true if the row has been guessed correctly, false if the guess is incorrect or if the user backs out*/
-    private boolean guessRow() {
+     * Incorrect state guesses cost 1 information fetch. */
+    private void guessRow() {
         int guessedRow;
-        if (this.rowGuessed) {
-          System.out.println("You already know the row!");
-          return this.rowGuessed;
+        if (engine.isKnown(ActionKind.ROW)) {
+          frame.println("You already know the row!");
+          return;
         }
         while (true) {
-            System.out.println("Type in the row/period you think element L is in:");
-            String input = scanner.nextLine();
+            String input = readAnswer("Type in the row/period you think element L is in:\n");
             try {
                 guessedRow = Integer.parseInt(input);
                 // quits
-                if (guessedRow == -1) return false;
+                if (guessedRow == -1) return;
                 if (guessedRow >= 1 && guessedRow <= 7) break;
-                else System.out.println("Invalid input: please try again");
+                else frame.println("Invalid input: please try again");
             } catch (Exception ex) {
-                System.out.println("Invalid input: please try again");
+                frame.println("Invalid input: please try again");
             }
         }
-        boolean inCorrectRow = (guessedRow == this.elementL.getPeriod());
-        if (inCorrectRow) {
-            System.out.print("Correct! ");
-        } else {
-            System.out.print("Sorry, ");
-        }
-        boolean hasBeenGuessed = addToInformation(Integer.toString(guessedRow), inCorrectRow, "in row ");
-        checkHasBeenGuessed(hasBeenGuessed, inCorrectRow, false);
-        return inCorrectRow;
+        GameEngine.Action guess = GameEngine.Action.guessRow(guessedRow);
+        if (!confirmGuess(guess)) return;
+        GameEngine.Outcome outcome = apply(guess);
+        printVerdict(outcome);
+        addToInformation(outcome);
     }
 
-    /** Provides the user with the modulus 3 hint or goes back to perform another action.
-     * @return true because the modulus hint has been fetched */
-    private boolean getModulus3Hint() {
-        if (this.modulusHintGotten) {
-          System.out.println("You already have the modulus hint!");
-          return this.modulusHintGotten;
+    /** Provides the user with the modulus 3 hint, unless they already have it. */
+    private void getModulus3Hint() {
+        if (engine.isKnown(ActionKind.MODULUS_3)) {
+          frame.println("You already have the modulus hint!");
+          return;
         }
-        String modInfo = String.format("Atomic Number %% 3 = %d", this.elementL.getAtomicNumber() % 3);
-        System.out.printf("%s.%n", modInfo);
-        if (Main.searchFor(information.toArray(), modInfo) == -1) information.add(modInfo);
-        this.infoFetches--;
-        return true;
-    }
-
-    /** @return true if the game is over, false if otherwise */
-    private boolean isGameOver() {
-        return (this.isVictory || this.isDefeat || this.gameIsOver || this.elementHasBeenGuessed || this.outOfFetches);
-    }
-
-    /** @return true if the user is out of fetches, false if the user still has fetches*/
-    private boolean isOutOfFetches() {
-        return (this.infoFetches <= 0);
-    }
-
-    /** @return true if the user has won, false otherwise*/
-    private boolean isVictory() {
-        return this.elementHasBeenGuessed && !this.isDefeat;
-    }
-
-    /** @return true if the user has lost, false otherwise*/
-    private boolean isDefeat() {
-        return (this.gameIsOver || this.outOfFetches) && !this.isVictory;
+        if (!confirmModulus3Hint()) return;
+        addToInformation(apply(GameEngine.Action.modulus3Hint()));
     }
 
     /** Asks whether the user wants to play again: information is used outside of class via getter to start a new game
@@ -553,16 +642,16 @@ public class ElementLGame {
     private boolean playAgainPrompt() {
         String response;
         while (true) {
-            System.out.println("\nWould you like to play again? Type [y]es or [n]o");
-            response = scanner.nextLine();
+            frame.println("\nWould you like to play again? Type [y]es or [n]o");
+            response = frame.readLine(scanner);
             if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) {
-                System.out.println("\n");
+                frame.println("\n").flush();
                 return true;
             } else if (response.equalsIgnoreCase("n") || response.equalsIgnoreCase("no")) {
-                System.out.println("\n");
+                frame.println("\n").flush();
                 return false;
             } else {
-                System.out.println("Invalid input; please try again\n");
+                frame.println("Invalid input; please try again\n");
             }
         }
     }
@@ -570,10 +659,15 @@ public class ElementLGame {
     /** @return true if the user has won the game, false if the user has lost the game
      * @throws IllegalStateException thrown if the game has not yet finished */
     public boolean getVictoryStatus() throws IllegalStateException {
-        if (gameIsOver) return this.isVictory;
+        if (engine.isOver()) return engine.getStatus() == GameEngine.Status.WON;
         else throw new IllegalStateException("Game is not over");
     }
 
+    /** @return the engine the game was played on, with its full history (see GameLog) */
+    GameEngine getEngine() {
+        return engine;
+    }
+
     /** @return whether the user wants to play again (true) or not (false) */
     public boolean isPlayAgain() {
         return playAgain;
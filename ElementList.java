@@ -2,124 +2,124 @@
  * @author Rohit De*/
 public class ElementList {
     // I did not type out all of these: printing and copy-paste were my best friends. The numbers were easy to change.
-    public static final Element HYDROGEN = new Element(1);
-    public static final Element HELIUM = new Element(2);
-    public static final Element LITHIUM = new Element(3);
-    public static final Element BERYLLIUM = new Element(4);
-    public static final Element BORON = new Element(5);
-    public static final Element CARBON = new Element(6);
-    public static final Element NITROGEN = new Element(7);
-    public static final Element OXYGEN = new Element(8);
-    public static final Element FLUORINE = new Element(9);
-    public static final Element NEON = new Element(10);
-    public static final Element SODIUM = new Element(11);
-    public static final Element MAGNESIUM = new Element(12);
-    public static final Element ALUMINUM = new Element(13);
-    public static final Element SILICON = new Element(14);
-    public static final Element PHOSPHORUS = new Element(15);
-    public static final Element SULFUR = new Element(16);
-    public static final Element CHLORINE = new Element(17);
-    public static final Element ARGON = new Element(18);
-    public static final Element POTASSIUM = new Element(19);
-    public static final Element CALCIUM = new Element(20);
-    public static final Element SCANDIUM = new Element(21);
-    public static final Element TITANIUM = new Element(22);
-    public static final Element VANADIUM = new Element(23);
-    public static final Element CHROMIUM = new Element(24);
-    public static final Element MANGANESE = new Element(25);
-    public static final Element IRON = new Element(26);
-    public static final Element COBALT = new Element(27);
-    public static final Element NICKEL = new Element(28);
-    public static final Element COPPER = new Element(29);
-    public static final Element ZINC = new Element(30);
-    public static final Element GALLIUM = new Element(31);
-    public static final Element GERMANIUM = new Element(32);
-    public static final Element ARSENIC = new Element(33);
-    public static final Element SELENIUM = new Element(34);
-    public static final Element BROMINE = new Element(35);
-    public static final Element KRYPTON = new Element(36);
-    public static final Element RUBIDIUM = new Element(37);
-    public static final Element STRONTIUM = new Element(38);
-    public static final Element YTTRIUM = new Element(39);
-    public static final Element ZIRCONIUM = new Element(40);
-    public static final Element NIOBIUM = new Element(41);
-    public static final Element MOLYBDENUM = new Element(42);
-    public static final Element TECHNETIUM = new Element(43);
-    public static final Element RUTHENIUM = new Element(44);
-    public static final Element RHODIUM = new Element(45);
-    public static final Element PALLADIUM = new Element(46);
-    public static final Element SILVER = new Element(47);
-    public static final Element CADMIUM = new Element(48);
-    public static final Element INDIUM = new Element(49);
-    public static final Element TIN = new Element(50);
-    public static final Element ANTIMONY = new Element(51);
-    public static final Element TELLURIUM = new Element(52);
-    public static final Element IODINE = new Element(53);
-    public static final Element XENON = new Element(54);
-    public static final Element CESIUM = new Element(55);
-    public static final Element BARIUM = new Element(56);
-    public static final Element LANTHANUM = new Element(57);
-    public static final Element CERIUM = new Element(58);
-    public static final Element PRASEODYMIUM = new Element(59);
-    public static final Element NEODYMIUM = new Element(60);
-    public static final Element PROMETHIUM = new Element(61);
-    public static final Element SAMARIUM = new Element(62);
-    public static final Element EUROPIUM = new Element(63);
-    public static final Element GADOLINIUM = new Element(64);
-    public static final Element TERBIUM = new Element(65);
-    public static final Element DYSPROSIUM = new Element(66);
-    public static final Element HOLMIUM = new Element(67);
-    public static final Element ERBIUM = new Element(68);
-    public static final Element THULIUM = new Element(69);
-    public static final Element YTTERBIUM = new Element(70);
-    public static final Element LUTETIUM = new Element(71);
-    public static final Element HAFNIUM = new Element(72);
-    public static final Element TANTALUM = new Element(73);
-    public static final Element TUNGSTEN = new Element(74);
-    public static final Element RHENIUM = new Element(75);
-    public static final Element OSMIUM = new Element(76);
-    public static final Element IRIDIUM = new Element(77);
-    public static final Element PLATINUM = new Element(78);
-    public static final Element GOLD = new Element(79);
-    public static final Element MERCURY = new Element(80);
-    public static final Element THALLIUM = new Element(81);
-    public static final Element LEAD = new Element(82);
-    public static final Element BISMUTH = new Element(83);
-    public static final Element POLONIUM = new Element(84);
-    public static final Element ASTATINE = new Element(85);
-    public static final Element RADON = new Element(86);
-    public static final Element FRANCIUM = new Element(87);
-    public static final Element RADIUM = new Element(88);
-    public static final Element ACTINIUM = new Element(89);
-    public static final Element THORIUM = new Element(90);
-    public static final Element PROTACTINIUM = new Element(91);
-    public static final Element URANIUM = new Element(92);
-    public static final Element NEPTUNIUM = new Element(93);
-    public static final Element PLUTONIUM = new Element(94);
-    public static final Element AMERICIUM = new Element(95);
-    public static final Element CURIUM = new Element(96);
-    public static final Element BERKELIUM = new Element(97);
-    public static final Element CALIFORNIUM = new Element(98);
-    public static final Element EINSTEINIUM = new Element(99);
-    public static final Element FERMIUM = new Element(100);
-    public static final Element MENDELEVIUM = new Element(101);
-    public static final Element NOBELIUM = new Element(102);
-    public static final Element LAWRENCIUM = new Element(103);
-    public static final Element RUTHERFORDIUM = new Element(104);
-    public static final Element DUBNIUM = new Element(105);
-    public static final Element SEABORGIUM = new Element(106);
-    public static final Element BOHRIUM = new Element(107);
-    public static final Element HASSIUM = new Element(108);
-    public static final Element MEITNERIUM = new Element(109);
-    public static final Element DARMSTADTIUM = new Element(110);
-    public static final Element ROENTGENIUM = new Element(111);
-    public static final Element COPERNICIUM = new Element(112);
-    public static final Element NIHONIUM = new Element(113);
-    public static final Element FLEROVIUM = new Element(114);
-    public static final Element MOSCOVIUM = new Element(115);
-    public static final Element LIVERMORIUM = new Element(116);
-    public static final Element TENNESSINE = new Element(117);
-    public static final Element OGANESSON = new Element(118);
+    public static final Element HYDROGEN = Element.of(1);
+    public static final Element HELIUM = Element.of(2);
+    public static final Element LITHIUM = Element.of(3);
+    public static final Element BERYLLIUM = Element.of(4);
+    public static final Element BORON = Element.of(5);
+    public static final Element CARBON = Element.of(6);
+    public static final Element NITROGEN = Element.of(7);
+    public static final Element OXYGEN = Element.of(8);
+    public static final Element FLUORINE = Element.of(9);
+    public static final Element NEON = Element.of(10);
+    public static final Element SODIUM = Element.of(11);
+    public static final Element MAGNESIUM = Element.of(12);
+    public static final Element ALUMINUM = Element.of(13);
+    public static final Element SILICON = Element.of(14);
+    public static final Element PHOSPHORUS = Element.of(15);
+    public static final Element SULFUR = Element.of(16);
+    public static final Element CHLORINE = Element.of(17);
+    public static final Element ARGON = Element.of(18);
+    public static final Element POTASSIUM = Element.of(19);
+    public static final Element CALCIUM = Element.of(20);
+    public static final Element SCANDIUM = Element.of(21);
+    public static final Element TITANIUM = Element.of(22);
+    public static final Element VANADIUM = Element.of(23);
+    public static final Element CHROMIUM = Element.of(24);
+    public static final Element MANGANESE = Element.of(25);
+    public static final Element IRON = Element.of(26);
+    public static final Element COBALT = Element.of(27);
+    public static final Element NICKEL = Element.of(28);
+    public static final Element COPPER = Element.of(29);
+    public static final Element ZINC = Element.of(30);
+    public static final Element GALLIUM = Element.of(31);
+    public static final Element GERMANIUM = Element.of(32);
+    public static final Element ARSENIC = Element.of(33);
+    public static final Element SELENIUM = Element.of(34);
+    public static final Element BROMINE = Element.of(35);
+    public static final Element KRYPTON = Element.of(36);
+    public static final Element RUBIDIUM = Element.of(37);
+    public static final Element STRONTIUM = Element.of(38);
+    public static final Element YTTRIUM = Element.of(39);
+    public static final Element ZIRCONIUM = Element.of(40);
+    public static final Element NIOBIUM = Element.of(41);
+    public static final Element MOLYBDENUM = Element.of(42);
+    public static final Element TECHNETIUM = Element.of(43);
+    public static final Element RUTHENIUM = Element.of(44);
+    public static final Element RHODIUM = Element.of(45);
+    public static final Element PALLADIUM = Element.of(46);
+    public static final Element SILVER = Element.of(47);
+    public static final Element CADMIUM = Element.of(48);
+    public static final Element INDIUM = Element.of(49);
+    public static final Element TIN = Element.of(50);
+    public static final Element ANTIMONY = Element.of(51);
+    public static final Element TELLURIUM = Element.of(52);
+    public static final Element IODINE = Element.of(53);
+    public static final Element XENON = Element.of(54);
+    public static final Element CESIUM = Element.of(55);
+    public static final Element BARIUM = Element.of(56);
+    public static final Element LANTHANUM = Element.of(57);
+    public static final Element CERIUM = Element.of(58);
+    public static final Element PRASEODYMIUM = Element.of(59);
+    public static final Element NEODYMIUM = Element.of(60);
+    public static final Element PROMETHIUM = Element.of(61);
+    public static final Element SAMARIUM = Element.of(62);
+    public static final Element EUROPIUM = Element.of(63);
+    public static final Element GADOLINIUM = Element.of(64);
+    public static final Element TERBIUM = Element.of(65);
+    public static final Element DYSPROSIUM = Element.of(66);
+    public static final Element HOLMIUM = Element.of(67);
+    public static final Element ERBIUM = Element.of(68);
+    public static final Element THULIUM = Element.of(69);
+    public static final Element YTTERBIUM = Element.of(70);
+    public static final Element LUTETIUM = Element.of(71);
+    public static final Element HAFNIUM = Element.of(72);
+    public static final Element TANTALUM = Element.of(73);
+    public static final Element TUNGSTEN = Element.of(74);
+    public static final Element RHENIUM = Element.of(75);
+    public static final Element OSMIUM = Element.of(76);
+    public static final Element IRIDIUM = Element.of(77);
+    public static final Element PLATINUM = Element.of(78);
+    public static final Element GOLD = Element.of(79);
+    public static final Element MERCURY = Element.of(80);
+    public static final Element THALLIUM = Element.of(81);
+    public static final Element LEAD = Element.of(82);
+    public static final Element BISMUTH = Element.of(83);
+    public static final Element POLONIUM = Element.of(84);
+    public static final Element ASTATINE = Element.of(85);
+    public static final Element RADON = Element.of(86);
+    public static final Element FRANCIUM = Element.of(87);
+    public static final Element RADIUM = Element.of(88);
+    public static final Element ACTINIUM = Element.of(89);
+    public static final Element THORIUM = Element.of(90);
+    public static final Element PROTACTINIUM = Element.of(91);
+    public static final Element URANIUM = Element.of(92);
+    public static final Element NEPTUNIUM = Element.of(93);
+    public static final Element PLUTONIUM = Element.of(94);
+    public static final Element AMERICIUM = Element.of(95);
+    public static final Element CURIUM = Element.of(96);
+    public static final Element BERKELIUM = Element.of(97);
+    public static final Element CALIFORNIUM = Element.of(98);
+    public static final Element EINSTEINIUM = Element.of(99);
+    public static final Element FERMIUM = Element.of(100);
+    public static final Element MENDELEVIUM = Element.of(101);
+    public static final Element NOBELIUM = Element.of(102);
+    public static final Element LAWRENCIUM = Element.of(103);
+    public static final Element RUTHERFORDIUM = Element.of(104);
+    public static final Element DUBNIUM = Element.of(105);
+    public static final Element SEABORGIUM = Element.of(106);
+    public static final Element BOHRIUM = Element.of(107);
+    public static final Element HASSIUM = Element.of(108);
+    public static final Element MEITNERIUM = Element.of(109);
+    public static final Element DARMSTADTIUM = Element.of(110);
+    public static final Element ROENTGENIUM = Element.of(111);
+    public static final Element COPERNICIUM = Element.of(112);
+    public static final Element NIHONIUM = Element.of(113);
+    public static final Element FLEROVIUM = Element.of(114);
+    public static final Element MOSCOVIUM = Element.of(115);
+    public static final Element LIVERMORIUM = Element.of(116);
+    public static final Element TENNESSINE = Element.of(117);
+    public static final Element OGANESSON = Element.of(118);
 
     // System.out.print(Element e + ",") really helped
     // as did boolean is[family_name]() instance functions
@@ -181,4 +181,24 @@ public class ElementList {
             MERCURY, THALLIUM, LEAD, BISMUTH, POLONIUM, ASTATINE, RADON, FRANCIUM, RADIUM, RUTHERFORDIUM, DUBNIUM,
             SEABORGIUM, BOHRIUM, HASSIUM, MEITNERIUM, DARMSTADTIUM, ROENTGENIUM, COPERNICIUM, NIHONIUM, FLEROVIUM,
             MOSCOVIUM, LIVERMORIUM, TENNESSINE, OGANESSON};
+    // the same groups as 128-bit masks, for constant-time membership tests and set operations
+    public static final ElementSet ALL_ELEMENTS_SET = ElementSet.of(ALL_ELEMENTS);
+    public static final ElementSet ALKALI_METALS_SET = ElementSet.of(ALKALI_METALS);
+    public static final ElementSet ALKALINE_EARTH_METALS_SET = ElementSet.of(ALKALINE_EARTH_METALS);
+    public static final ElementSet TRANSITION_METALS_SET = ElementSet.of(TRANSITION_METALS);
+    public static final ElementSet LANTHANIDES_SET = ElementSet.of(LANTHANIDES);
+    public static final ElementSet ACTINIDES_SET = ElementSet.of(ACTINIDES);
+    public static final ElementSet POST_TRANSITION_METALS_SET = ElementSet.of(POST_TRANSITION_METALS);
+    public static final ElementSet METALLOIDS_SET = ElementSet.of(METALLOIDS);
+    public static final ElementSet REACTIVE_NONMETALS_SET = ElementSet.of(REACTIVE_NONMETALS);
+    public static final ElementSet HALOGENS_SET = ElementSet.of(HALOGENS);
+    public static final ElementSet NOBLE_GASSES_SET = ElementSet.of(NOBLE_GASSES);
+    public static final ElementSet INNER_TRANSITION_METALS_SET = ElementSet.of(INNER_TRANSITION_METALS);
+    public static final ElementSet METALS_SET = ElementSet.of(METALS);
+    public static final ElementSet NONMETALS_SET = ElementSet.of(NONMETALS);
+    public static final ElementSet NO_LANTHANIDES_OR_ACTINIDES_SET = ElementSet.of(NO_LANTHANIDES_OR_ACTINIDES);
+    /** Every element up to krypton: the first four periods. */
+    public static final ElementSet FIRST_36_ELEMENTS_SET = ElementSet.range(1, 36);
+    /** Every element except the superheavy elements (rutherfordium and above). */
+    public static final ElementSet NO_SUPERHEAVIES_SET = ElementSet.range(1, ElementSet.FIRST_SUPERHEAVY - 1);
 }
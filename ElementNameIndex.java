@@ -0,0 +1,186 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/** In-memory indexes over element names for forgiving user input. A prefix trie resolves unique prefixes ("moly" is
+ * molybdenum) and lists completions, and a BK-tree (a tree of names arranged by edit distance) finds the names closest
+ * to a misspelling ("flourine" is probably fluorine) without comparing the input against every name.
+ * Both are built once, from ElementRegistry, the first time the class is used. */
+final class ElementNameIndex {
+    /** Shortest input that may be resolved as a prefix. Shorter inputs must be exact names or abbreviations. */
+    static final int MIN_PREFIX_LENGTH = 3;
+    /** Most suggestions or completions ever returned. */
+    static final int MAX_SUGGESTIONS = 5;
+
+    private static final int ALPHABET = 26;
+    /** Longest element name; bounds both the trie's depth and every edit distance. */
+    private static final int MAX_NAME_LENGTH = 16;
+
+    // prefix trie, one row per node (node 0 is the root)
+    /** Child node of each node for each letter, or 0 if there is none. */
+    private static final int[][] TRIE_CHILDREN = new int[Element.TOTAL_ELEMENT_COUNT * MAX_NAME_LENGTH][];
+    /** Number of names that pass through each node. */
+    private static final int[] TRIE_COUNT = new int[TRIE_CHILDREN.length];
+    /** Atomic number of the lowest element whose name passes through each node. */
+    private static final int[] TRIE_FIRST = new int[TRIE_CHILDREN.length];
+    private static int trieSize = 1;
+
+    // BK-tree, one row per element (node 0 is the root)
+    /** Atomic number of the element at each node. */
+    private static final int[] BK_ELEMENT = new int[Element.TOTAL_ELEMENT_COUNT];
+    /** Child node of each node at each edit distance, or 0 if there is none. */
+    private static final int[][] BK_CHILDREN = new int[Element.TOTAL_ELEMENT_COUNT][MAX_NAME_LENGTH + 1];
+    private static int bkSize = 0;
+    /** Lowercase name of each element, indexed by atomic number. */
+    private static final String[] NAMES = new String[Element.TOTAL_ELEMENT_COUNT + 1];
+
+    static {
+        TRIE_CHILDREN[0] = new int[ALPHABET];
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            String name = Element.of(atomicNumber).getName();
+            NAMES[atomicNumber] = name;
+            addToTrie(name, atomicNumber);
+            addToBkTree(name, atomicNumber);
+        }
+    }
+
+    private ElementNameIndex() {}
+
+    private static void addToTrie(String name, int atomicNumber) {
+        int node = 0;
+        countName(node, atomicNumber);
+        for (int i = 0; i < name.length(); i++) {
+            int letter = name.charAt(i) - 'a';
+            if (TRIE_CHILDREN[node][letter] == 0) {
+                TRIE_CHILDREN[trieSize] = new int[ALPHABET];
+                TRIE_CHILDREN[node][letter] = trieSize++;
+            }
+            node = TRIE_CHILDREN[node][letter];
+            countName(node, atomicNumber);
+        }
+    }
+
+    private static void countName(int node, int atomicNumber) {
+        if (TRIE_COUNT[node]++ == 0) TRIE_FIRST[node] = atomicNumber;
+    }
+
+    private static void addToBkTree(String name, int atomicNumber) {
+        BK_ELEMENT[bkSize] = atomicNumber;
+        if (bkSize > 0) {
+            int node = 0;
+            while (true) {
+                int distance = editDistance(name, NAMES[BK_ELEMENT[node]]);
+                if (BK_CHILDREN[node][distance] == 0) {
+                    BK_CHILDREN[node][distance] = bkSize;
+                    break;
+                }
+                node = BK_CHILDREN[node][distance];
+            }
+        }
+        bkSize++;
+    }
+
+    /** Finds an element from a name, abbreviation, or unique prefix of a name (case does not matter).
+     * @param input what the user typed
+     * @return the element, or null if the input matches no element or is the prefix of several names */
+    static Element resolve(String input) {
+        Element exact = ElementRegistry.get(input);
+        if (exact != null || input == null) return exact;
+        String key = input.trim().toLowerCase();
+        if (key.length() < MIN_PREFIX_LENGTH) return null;
+        int node = findNode(key);
+        return (node >= 0 && TRIE_COUNT[node] == 1) ? Element.of(TRIE_FIRST[node]) : null;
+    }
+
+    /** @param prefix the start of an element name (case does not matter)
+     * @return up to MAX_SUGGESTIONS elements whose names start with the prefix, lowest atomic number first */
+    static List<Element> complete(String prefix) {
+        List<Element> completions = new ArrayList<>();
+        String key = prefix.trim().toLowerCase();
+        int node = findNode(key);
+        if (node < 0) return completions;
+        // the names under a node are few, so walking the elements after the first one is cheap
+        for (int atomicNumber = TRIE_FIRST[node]; atomicNumber <= Element.TOTAL_ELEMENT_COUNT
+                && completions.size() < Math.min(TRIE_COUNT[node], MAX_SUGGESTIONS); atomicNumber++) {
+            if (NAMES[atomicNumber].startsWith(key)) completions.add(Element.of(atomicNumber));
+        }
+        return completions;
+    }
+
+    /** @param input a possibly misspelled element name (case does not matter)
+     * @return up to MAX_SUGGESTIONS elements whose names are within a few edits of the input, closest first */
+    static List<Element> suggest(String input) {
+        String key = input.trim().toLowerCase();
+        List<Element> suggestions = new ArrayList<>();
+        if (key.isEmpty() || key.length() > MAX_NAME_LENGTH * 2) return suggestions;
+        int maxDistance = (key.length() <= 4) ? 1 : (key.length() <= 8) ? 2 : 3;
+        int[] distances = new int[Element.TOTAL_ELEMENT_COUNT + 1];
+        int[] stack = new int[Element.TOTAL_ELEMENT_COUNT];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        while (stackSize > 0) {
+            int node = stack[--stackSize];
+            int distance = editDistance(key, NAMES[BK_ELEMENT[node]]);
+            if (distance <= maxDistance) distances[BK_ELEMENT[node]] = distance + 1;
+            // by the triangle inequality, only children within maxDistance of this distance can match
+            int low = Math.max(1, distance - maxDistance);
+            int high = Math.min(MAX_NAME_LENGTH, distance + maxDistance);
+            for (int d = low; d <= high; d++) {
+                if (BK_CHILDREN[node][d] != 0) stack[stackSize++] = BK_CHILDREN[node][d];
+            }
+        }
+        for (int distance = 1; distance <= maxDistance + 1 && suggestions.size() < MAX_SUGGESTIONS; distance++) {
+            for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT
+                    && suggestions.size() < MAX_SUGGESTIONS; atomicNumber++) {
+                if (distances[atomicNumber] == distance) suggestions.add(Element.of(atomicNumber));
+            }
+        }
+        return suggestions;
+    }
+
+    /** @param input input that did not match any element
+     * @return a sentence naming the elements the user may have meant (e.g. " Did you mean Fluorine?"), starting with
+     * a space, or an empty String if there are none */
+    static String didYouMean(String input) {
+        if (input == null || input.isBlank()) return "";
+        List<Element> candidates = complete(input);
+        if (candidates.isEmpty()) candidates = suggest(input);
+        if (candidates.isEmpty()) return "";
+        StringBuilder builder = new StringBuilder(" Did you mean ");
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i > 0) builder.append((i == candidates.size() - 1) ? (candidates.size() > 2 ? ", or " : " or ") : ", ");
+            builder.append(candidates.get(i).toString());
+        }
+        return builder.append('?').toString();
+    }
+
+    /** @param key a lowercase prefix
+     * @return the trie node reached by the prefix, or -1 if no name starts with it */
+    private static int findNode(String key) {
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int letter = key.charAt(i) - 'a';
+            if (letter < 0 || letter >= ALPHABET || TRIE_CHILDREN[node][letter] == 0) return -1;
+            node = TRIE_CHILDREN[node][letter];
+        }
+        return node;
+    }
+
+    /** @return the Levenshtein distance between the Strings: the fewest insertions, deletions, and substitutions
+     * that turn one into the other */
+    static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + ((a.charAt(i - 1) == b.charAt(j - 1)) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
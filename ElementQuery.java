@@ -0,0 +1,411 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/** A compiled query over the elements, such as
+ * {@code period=4 and family="transition metal" and mass>50 order by mass desc limit 5}.
+ * A query is parsed once into a tree of predicates. Every leaf is answered from a per-property index: a sorted array
+ * for numeric properties (a binary search gives the range) and an ElementSet per category. The tree combines leaves
+ * with bitwise set operations, so evaluating a query touches no Strings and no Element objects.
+ * <p>Grammar (keywords and field names are case-insensitive):
+ * <pre>
+ * query      := [condition] ["order" "by" field ["asc" | "desc"]] ["limit" integer]
+ * condition  := and-term ("or" and-term)*
+ * and-term   := factor ("and" factor)*
+ * factor     := "not" factor | "(" condition ")" | field operator value
+ * operator   := = | == | != | &lt;&gt; | &lt; | &lt;= | &gt; | &gt;=
+ * </pre>
+ * Numeric fields: z (or number, protons, electrons), mass, neutrons, period (or row), group (the IUPAC number).
+ * Category fields, compared with = and != only: column (e.g. 3B or 13), family, state (metal, nonmetal, metalloid),
+ * name, and symbol. Values with spaces are written in quotes. Results can be ordered by any field: families and states
+ * by their menu numbers, columns by group, and names and symbols alphabetically; ties stay in atomic number order. */
+final class ElementQuery {
+    /** A node of the compiled predicate tree. */
+    private interface Predicate {
+        /** @return the elements the predicate holds for */
+        ElementSet evaluate();
+    }
+
+    /** Numeric properties, each with its index: atomic numbers sorted by the property's value. */
+    private enum NumericField {
+        Z, MASS, NEUTRONS, PERIOD, GROUP;
+
+        /** Each element's value, indexed by atomic number. */
+        private final double[] values = new double[Element.TOTAL_ELEMENT_COUNT + 1];
+        /** Values in ascending order. */
+        private final double[] sortedValues = new double[Element.TOTAL_ELEMENT_COUNT];
+        /** Atomic number of the element each value of sortedValues belongs to. */
+        private final int[] sortedAtomicNumbers = new int[Element.TOTAL_ELEMENT_COUNT];
+
+        static {
+            for (NumericField field : values()) {
+                Integer[] order = new Integer[Element.TOTAL_ELEMENT_COUNT];
+                for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+                    Element element = Element.of(z);
+                    field.values[z] = switch (field) {
+                        case Z -> z;
+                        case MASS -> element.getAtomicMass();
+                        case NEUTRONS -> element.getNeutrons();
+                        case PERIOD -> element.getPeriod();
+                        case GROUP -> element.getColumnEnumeration();
+                    };
+                    order[z - 1] = z;
+                }
+                // stable sort: ties stay in order of atomic number
+                Arrays.sort(order, (a, b) -> Double.compare(field.values[a], field.values[b]));
+                for (int i = 0; i < order.length; i++) {
+                    field.sortedAtomicNumbers[i] = order[i];
+                    field.sortedValues[i] = field.values[order[i]];
+                }
+            }
+        }
+
+        /** @param low lowest value in the range
+         * @param lowInclusive whether an element with value low is in the range
+         * @param high highest value in the range
+         * @param highInclusive whether an element with value high is in the range
+         * @return the elements whose values are in the range */
+        ElementSet range(double low, boolean lowInclusive, double high, boolean highInclusive) {
+            int from = lowInclusive ? lowerBound(low) : upperBound(low);
+            int to = highInclusive ? upperBound(high) : lowerBound(high);
+            ElementSet set = ElementSet.EMPTY;
+            for (int i = from; i < to; i++) set = set.with(sortedAtomicNumbers[i]);
+            return set;
+        }
+
+        /** @return index of the first value that is at least the key */
+        private int lowerBound(double key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedValues[middle] < key) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+
+        /** @return index of the first value that is greater than the key */
+        private int upperBound(double key) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedValues[middle] <= key) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+
+    /** Elements of each family, column, and metallic state. */
+    private static final EnumMap<Family, ElementSet> BY_FAMILY = new EnumMap<>(Family.class);
+    private static final EnumMap<Column, ElementSet> BY_COLUMN = new EnumMap<>(Column.class);
+    private static final EnumMap<MetallicState, ElementSet> BY_STATE = new EnumMap<>(MetallicState.class);
+    /** Atomic numbers sorted by name, by symbol, by family, and by metallic state, for ordering results. */
+    private static final int[] BY_NAME = sortedBy(false);
+    private static final int[] BY_SYMBOL = sortedBy(true);
+    private static final int[] BY_FAMILY_ORDER;
+    private static final int[] BY_STATE_ORDER;
+    /** Field names and their aliases, mapped to the canonical field name. */
+    private static final HashMap<String, String> FIELDS = new HashMap<>();
+
+    static {
+        for (Family family : Family.values()) BY_FAMILY.put(family, ElementSet.withFlags(1L << family.ordinal()));
+        for (MetallicState state : MetallicState.values()) BY_STATE.put(state, ElementSet.withFlags(state.getFlag()));
+        BY_FAMILY_ORDER = sortedByCategory(BY_FAMILY);
+        BY_STATE_ORDER = sortedByCategory(BY_STATE);
+        for (Column column : Column.values()) BY_COLUMN.put(column, ElementSet.EMPTY);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            Column column = Element.of(z).getPeriodicColumn();
+            BY_COLUMN.put(column, BY_COLUMN.get(column).with(z));
+        }
+        String[][] aliases = {{"z", "z", "number", "atomicnumber", "protons", "electrons"}, {"mass", "mass", "am"},
+                {"neutrons", "neutrons", "n"}, {"period", "period", "row"}, {"group", "group"}, {"column", "column"},
+                {"family", "family", "f"}, {"state", "state", "metallic", "metallicstate"}, {"name", "name"},
+                {"symbol", "symbol", "abbreviation"}};
+        for (String[] names : aliases) {
+            for (int i = 1; i < names.length; i++) FIELDS.put(names[i], names[0]);
+        }
+    }
+
+    /** The compiled condition, or null to match every element. */
+    private final Predicate condition;
+    /** Every atomic number in ascending order of the order by field; atomic number order if there is no order by
+     * clause. */
+    private final int[] order;
+    private final boolean descending;
+    /** Most results returned, or -1 for no limit. */
+    private final int limit;
+
+    private ElementQuery(Predicate condition, int[] order, boolean descending, int limit) {
+        this.condition = condition;
+        this.order = order;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    /** @param query the text of the query (see the class documentation)
+     * @return the compiled query, ready to be run any number of times
+     * @throws IllegalArgumentException thrown if the query cannot be parsed */
+    static ElementQuery compile(String query) throws IllegalArgumentException {
+        return new Parser(query).parseQuery();
+    }
+
+    /** @return every element that matches the condition, ignoring order and limit */
+    ElementSet matches() {
+        return (condition == null) ? ElementSet.ALL : condition.evaluate();
+    }
+
+    /** @return the atomic numbers of the results, in order and limited */
+    int[] results() {
+        ElementSet matches = matches();
+        int count = (limit < 0) ? matches.size() : Math.min(limit, matches.size());
+        int[] results = new int[count];
+        int found = 0;
+        for (int i = 0; i < order.length && found < count; i++) {
+            int z = order[descending ? order.length - 1 - i : i];
+            if (matches.contains(z)) results[found++] = z;
+        }
+        return results;
+    }
+
+    /** @param field a canonical field name
+     * @return every atomic number in ascending order of the field
+     * @throws IllegalArgumentException thrown if results cannot be ordered by the field */
+    private static int[] order(String field) throws IllegalArgumentException {
+        return switch (field) {
+            case "z" -> NumericField.Z.sortedAtomicNumbers;
+            case "name" -> BY_NAME;
+            case "symbol" -> BY_SYMBOL;
+            case "mass" -> NumericField.MASS.sortedAtomicNumbers;
+            case "neutrons" -> NumericField.NEUTRONS.sortedAtomicNumbers;
+            case "period" -> NumericField.PERIOD.sortedAtomicNumbers;
+            case "group", "column" -> NumericField.GROUP.sortedAtomicNumbers;
+            case "family" -> BY_FAMILY_ORDER;
+            case "state" -> BY_STATE_ORDER;
+            default -> throw new IllegalArgumentException("Cannot order by " + field + ".");
+        };
+    }
+
+    /** Prints the results as a table, one row at a time.
+     * @param out where the table is printed */
+    void printTable(PrintStream out) {
+        int[] results = results();
+        out.printf("%-4s%-7s%-15s%-11s%-7s%-8s%s%n", "#", "Symbol", "Name", "Mass", "Period", "Column", "Family");
+        for (int z : results) {
+            Element element = Element.of(z);
+            out.printf("%-4d%-7s%-15s%-11s%-7d%-8s%s%n", z, element.getAbbreviation(), element.toString(),
+                    element.getAtomicMass(), element.getPeriod(), element.getColumn(), element.getElementFamily());
+        }
+        out.printf("%d element%s found.%n", results.length, (results.length == 1) ? "" : "s");
+    }
+
+    /** @param bySymbol true to sort by symbol, false to sort by name */
+    private static int[] sortedBy(boolean bySymbol) {
+        Integer[] order = new Integer[Element.TOTAL_ELEMENT_COUNT];
+        for (int i = 0; i < order.length; i++) order[i] = i + 1;
+        Arrays.sort(order, (a, b) -> bySymbol
+                ? Element.of(a).getAbbreviation().compareTo(Element.of(b).getAbbreviation())
+                : Element.of(a).getName().compareTo(Element.of(b).getName()));
+        int[] sorted = new int[order.length];
+        for (int i = 0; i < order.length; i++) sorted[i] = order[i];
+        return sorted;
+    }
+
+    /** @param byCategory the elements of every category, in category order
+     * @return atomic numbers in category order, then atomic number */
+    private static int[] sortedByCategory(EnumMap<?, ElementSet> byCategory) {
+        int[] sorted = new int[Element.TOTAL_ELEMENT_COUNT];
+        int i = 0;
+        for (ElementSet members : byCategory.values()) {
+            for (int z = members.next(0); z != 0; z = members.next(z)) sorted[i++] = z;
+        }
+        return sorted;
+    }
+
+    /** Recursive descent parser that compiles the text of a query. */
+    private static final class Parser {
+        private final List<String> tokens = new ArrayList<>();
+        /** Whether each token was written in quotes, and so is never a keyword or operator. */
+        private final List<Boolean> quoted = new ArrayList<>();
+        private int position;
+
+        Parser(String query) throws IllegalArgumentException {
+            int i = 0;
+            while (i < query.length()) {
+                char c = query.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '"' || c == '\'') {
+                    int end = query.indexOf(c, i + 1);
+                    if (end < 0) throw new IllegalArgumentException("Unclosed quote in query.");
+                    add(query.substring(i + 1, end), true);
+                    i = end + 1;
+                } else if (c == '(' || c == ')') {
+                    add(String.valueOf(c), false);
+                    i++;
+                } else if ("=!<>".indexOf(c) >= 0) {
+                    int end = i + 1;
+                    while (end < query.length() && "=!<>".indexOf(query.charAt(end)) >= 0) end++;
+                    add(query.substring(i, end), false);
+                    i = end;
+                } else {
+                    int end = i;
+                    while (end < query.length() && !Character.isWhitespace(query.charAt(end))
+                            && "=!<>()\"'".indexOf(query.charAt(end)) < 0) end++;
+                    add(query.substring(i, end), false);
+                    i = end;
+                }
+            }
+        }
+
+        private void add(String token, boolean isQuoted) {
+            tokens.add(token);
+            quoted.add(isQuoted);
+        }
+
+        private boolean atKeyword(String keyword) {
+            return position < tokens.size() && !quoted.get(position) && tokens.get(position).equalsIgnoreCase(keyword);
+        }
+
+        private String next(String expected) throws IllegalArgumentException {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Query ended early: expected " + expected + ".");
+            }
+            return tokens.get(position++);
+        }
+
+        ElementQuery parseQuery() throws IllegalArgumentException {
+            Predicate condition = (position < tokens.size() && !atKeyword("order") && !atKeyword("limit"))
+                    ? parseCondition() : null;
+            int[] order = order("z");
+            boolean descending = false;
+            int limit = -1;
+            if (atKeyword("order")) {
+                position++;
+                if (!atKeyword("by")) throw new IllegalArgumentException("Expected \"by\" after \"order\".");
+                position++;
+                order = order(field(next("a field")));
+                if (atKeyword("desc")) {
+                    descending = true;
+                    position++;
+                } else if (atKeyword("asc")) {
+                    position++;
+                }
+            }
+            if (atKeyword("limit")) {
+                position++;
+                String count = next("a limit");
+                try {
+                    limit = Integer.parseInt(count);
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Limit must be an integer: " + count);
+                }
+                if (limit < 0) throw new IllegalArgumentException("Limit must not be negative.");
+            }
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected \"" + tokens.get(position) + "\" in query.");
+            }
+            return new ElementQuery(condition, order, descending, limit);
+        }
+
+        private Predicate parseCondition() throws IllegalArgumentException {
+            Predicate left = parseAndTerm();
+            while (atKeyword("or")) {
+                position++;
+                Predicate a = left;
+                Predicate b = parseAndTerm();
+                left = () -> a.evaluate().union(b.evaluate());
+            }
+            return left;
+        }
+
+        private Predicate parseAndTerm() throws IllegalArgumentException {
+            Predicate left = parseFactor();
+            while (atKeyword("and")) {
+                position++;
+                Predicate a = left;
+                Predicate b = parseFactor();
+                left = () -> a.evaluate().intersect(b.evaluate());
+            }
+            return left;
+        }
+
+        private Predicate parseFactor() throws IllegalArgumentException {
+            if (atKeyword("not")) {
+                position++;
+                Predicate inner = parseFactor();
+                return () -> inner.evaluate().complement();
+            }
+            if (atKeyword("(")) {
+                position++;
+                Predicate inner = parseCondition();
+                if (!atKeyword(")")) throw new IllegalArgumentException("Expected \")\" in query.");
+                position++;
+                return inner;
+            }
+            String field = field(next("a field"));
+            String operator = next("an operator");
+            String value = next("a value");
+            return comparison(field, operator, value);
+        }
+
+        /** @return the canonical name of the field */
+        private static String field(String name) throws IllegalArgumentException {
+            String field = FIELDS.get(name.toLowerCase(Locale.ROOT).replace("_", ""));
+            if (field == null) throw new IllegalArgumentException("Unknown field: " + name);
+            return field;
+        }
+
+        /** Compiles one comparison into a leaf of the tree. */
+        private static Predicate comparison(String field, String operator, String value)
+                throws IllegalArgumentException {
+            boolean equality = operator.equals("=") || operator.equals("==");
+            boolean inequality = operator.equals("!=") || operator.equals("<>");
+            ElementSet categorySet = switch (field) {
+                case "column" -> BY_COLUMN.get(require(Column.parse(value), "column", value));
+                case "family" -> BY_FAMILY.get(require(Family.parse(value), "family", value));
+                case "state" -> BY_STATE.get(require(MetallicState.parse(value), "metallic state", value));
+                case "name", "symbol" -> ElementSet.of(require(ElementRegistry.get(value), field, value));
+                default -> null;
+            };
+            if (categorySet != null) {
+                if (!equality && !inequality) {
+                    throw new IllegalArgumentException(field + " can only be compared with = or !=.");
+                }
+                ElementSet result = inequality ? categorySet.complement() : categorySet;
+                return () -> result;
+            }
+            NumericField numeric = NumericField.valueOf(field.toUpperCase(Locale.ROOT));
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(field + " must be compared with a number, not " + value);
+            }
+            double infinity = Double.POSITIVE_INFINITY;
+            ElementSet result = switch (operator) {
+                case "=", "==" -> numeric.range(number, true, number, true);
+                case "!=", "<>" -> numeric.range(number, true, number, true).complement();
+                case "<" -> numeric.range(-infinity, true, number, false);
+                case "<=" -> numeric.range(-infinity, true, number, true);
+                case ">" -> numeric.range(number, false, infinity, true);
+                case ">=" -> numeric.range(number, true, infinity, true);
+                default -> throw new IllegalArgumentException("Unknown operator: " + operator);
+            };
+            return () -> result;
+        }
+
+        /** @return the value, if it is not null
+         * @throws IllegalArgumentException thrown if the value is null */
+        private static <T> T require(T parsed, String what, String value) throws IllegalArgumentException {
+            if (parsed == null) throw new IllegalArgumentException("Unknown " + what + ": " + value);
+            return parsed;
+        }
+    }
+}
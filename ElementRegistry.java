@@ -0,0 +1,54 @@
+import java.util.HashMap;
+
+/** Registry of every element on the periodic table. The elements are loaded exactly once, when the class is first used:
+ * into an ElementTable, from the ElementSnapshot if a current one exists, and otherwise from the element file.
+ * Lookups by atomic number, name, or abbreviation never touch the disk and always return the same canonical Element. */
+final class ElementRegistry {
+    /** File containing the atomic number, abbreviation, name, and atomic mass of every element, one element per line. */
+    static final String ELEMENT_FILE = "src/elementlist.txt";
+
+    /** The table every canonical element reads its values from. */
+    private static final ElementTable TABLE = loadTable();
+    /** Canonical elements keyed by lowercase name and lowercase abbreviation.
+     * Names are always longer than 2 characters and abbreviations never are, so the keys cannot collide. */
+    private static final HashMap<String, Element> ELEMENTS_BY_NAME = new HashMap<>();
+
+    static {
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            Element element = TABLE.element(atomicNumber);
+            ELEMENTS_BY_NAME.put(element.getName(), element);
+            ELEMENTS_BY_NAME.put(element.getAbbreviation().toLowerCase(), element);
+        }
+    }
+
+    private ElementRegistry() {}
+
+    /** Loads the table from the snapshot, falling back to the element file if the snapshot is missing, unreadable,
+     * or was compiled from a different element or isotope file.
+     * @return the filled table */
+    private static ElementTable loadTable() {
+        ElementTable table = ElementSnapshot.read(ElementSnapshot.SNAPSHOT_FILE,
+                ElementSnapshot.checksum(ELEMENT_FILE, IsotopeTable.ISOTOPE_FILE));
+        if (table != null) return table;
+        return ElementTable.fromElementFile();
+    }
+
+    /** @return the table behind every canonical element, for scans and filters over all elements */
+    static ElementTable table() {
+        return TABLE;
+    }
+
+    /** @param atomicNumber atomic number of the element
+     * @return the canonical element, or null if the atomic number is out of range */
+    static Element get(int atomicNumber) {
+        if (atomicNumber > Element.TOTAL_ELEMENT_COUNT || atomicNumber < 1) return null;
+        return TABLE.element(atomicNumber);
+    }
+
+    /** @param nameOrAbbreviation the element's name or abbreviation, in any case
+     * @return the canonical element, or null if no element has that name or abbreviation */
+    static Element get(String nameOrAbbreviation) {
+        if (nameOrAbbreviation == null) return null;
+        return ELEMENTS_BY_NAME.get(nameOrAbbreviation.trim().toLowerCase());
+    }
+}
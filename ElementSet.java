@@ -0,0 +1,268 @@
+/** An immutable set of elements stored as a 128-bit mask in two longs: bit (Z - 1) of the pair is set if element Z
+ * is in the set, so elements 1-64 live in the low long and 65-118 in the high long. Union, intersection, complement,
+ * size, and membership are a handful of bitwise operations, and iteration never allocates.
+ * Sets can be built from elements, atomic number ranges, ElementTable flags, or a text spec (see parse()). */
+final class ElementSet {
+    /** Atomic number of rutherfordium, the first superheavy (transactinide) element. */
+    static final int FIRST_SUPERHEAVY = 104;
+
+    private static final long HIGH_MASK = (1L << (Element.TOTAL_ELEMENT_COUNT - 64)) - 1;
+
+    static final ElementSet EMPTY = new ElementSet(0L, 0L);
+    static final ElementSet ALL = new ElementSet(-1L, HIGH_MASK);
+
+    /** Bits for elements 1-64. */
+    private final long low;
+    /** Bits for elements 65-118. */
+    private final long high;
+
+    private ElementSet(long low, long high) {
+        this.low = low;
+        this.high = high & HIGH_MASK;
+    }
+
+    /** @param elements the elements in the set
+     * @return the set of the elements */
+    static ElementSet of(Element... elements) {
+        long low = 0;
+        long high = 0;
+        for (Element element : elements) {
+            int bit = element.getAtomicNumber() - 1;
+            if (bit < 64) low |= 1L << bit;
+            else high |= 1L << (bit - 64);
+        }
+        return new ElementSet(low, high);
+    }
+
+    /** @param low bits for elements 1-64, as returned by getLowBits()
+     * @param high bits for elements 65-118, as returned by getHighBits() (bits past element 118 are ignored)
+     * @return the set with the bits */
+    static ElementSet fromBits(long low, long high) {
+        return new ElementSet(low, high);
+    }
+
+    /** @param from lowest atomic number in the set
+     * @param to highest atomic number in the set
+     * @return the set of every element from one atomic number to the other, inclusive
+     * @throws IllegalArgumentException thrown if either atomic number is invalid or from is greater than to */
+    static ElementSet range(int from, int to) throws IllegalArgumentException {
+        if (from < 1 || to > Element.TOTAL_ELEMENT_COUNT || from > to) {
+            throw new IllegalArgumentException("Invalid range of atomic numbers: " + from + "-" + to);
+        }
+        return new ElementSet(bitsUpTo(to), (to > 64) ? bitsUpTo(to - 64) : 0L)
+                .minus(new ElementSet(bitsUpTo(from - 1), (from > 65) ? bitsUpTo(from - 65) : 0L));
+    }
+
+    /** @return a long whose lowest count bits are set (count is 0-64) */
+    private static long bitsUpTo(int count) {
+        return (count >= 64) ? -1L : (1L << count) - 1;
+    }
+
+    /** @param mask one or more ElementTable flags
+     * @return the set of every element that has every flag in the mask */
+    static ElementSet withFlags(long mask) {
+        ElementTable table = ElementRegistry.table();
+        long low = 0;
+        long high = 0;
+        for (int z = table.nextWithFlags(0, mask); z != 0; z = table.nextWithFlags(z, mask)) {
+            if (z <= 64) low |= 1L << (z - 1);
+            else high |= 1L << (z - 65);
+        }
+        return new ElementSet(low, high);
+    }
+
+    /** Builds a set from a comma separated spec. Each term adds elements to the set, or removes them if it starts with
+     * "!" (a spec starting with a removal starts from every element). A term is one of:
+     * "all"; "superheavy" (104-118); an atomic number or range ("26", "1-36"); a period ("period 4"); a family
+     * ("halogen") or metallic state ("metalloid", "metals"); or an element's name or abbreviation.
+     * For example, "1-36", "all, !superheavy", and "!lanthanide, !actinide" are all valid specs.
+     * @param spec the spec
+     * @return the set the spec describes
+     * @throws IllegalArgumentException thrown if a term is not recognized */
+    static ElementSet parse(String spec) throws IllegalArgumentException {
+        ElementSet set = null;
+        for (String rawTerm : spec.split(",")) {
+            String term = rawTerm.trim();
+            if (term.isEmpty()) continue;
+            boolean remove = term.startsWith("!");
+            ElementSet termSet = parseTerm(remove ? term.substring(1).trim() : term);
+            if (set == null) set = remove ? ALL : EMPTY;
+            set = remove ? set.minus(termSet) : set.union(termSet);
+        }
+        if (set == null) throw new IllegalArgumentException("An element set needs at least one term.");
+        return set;
+    }
+
+    /** @return the set one term of a spec describes (see parse()) */
+    private static ElementSet parseTerm(String term) throws IllegalArgumentException {
+        String upper = term.toUpperCase();
+        if (upper.equals("ALL")) return ALL;
+        if (upper.equals("SUPERHEAVY") || upper.equals("SUPERHEAVIES")) {
+            return range(FIRST_SUPERHEAVY, Element.TOTAL_ELEMENT_COUNT);
+        }
+        try {
+            int dash = term.indexOf('-');
+            if (dash > 0) {
+                return range(Integer.parseInt(term.substring(0, dash).trim()),
+                        Integer.parseInt(term.substring(dash + 1).trim()));
+            }
+            int atomicNumber = Integer.parseInt(term);
+            return range(atomicNumber, atomicNumber);
+        } catch (NumberFormatException ignored) {}
+        if (upper.startsWith("PERIOD")) {
+            try {
+                int period = Integer.parseInt(upper.substring("PERIOD".length()).trim());
+                ElementSet set = EMPTY;
+                for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+                    if (Element.of(z).getPeriod() == period) set = set.with(z);
+                }
+                if (!set.isEmpty()) return set;
+            } catch (NumberFormatException ignored) {}
+        }
+        // plural forms of families and states ("halogens", "metals", "noble gases", "noble gasses")
+        for (String suffix : new String[]{"", "S", "ES", "SES"}) {
+            if (!upper.endsWith(suffix) || upper.length() == suffix.length()) continue;
+            String candidate = upper.substring(0, upper.length() - suffix.length());
+            Family family = Family.parse(candidate);
+            // menu numbers are atomic numbers here, so only labels count
+            if (family != null && !Character.isDigit(candidate.charAt(0))) return withFlags(family.getFlags());
+            MetallicState state = MetallicState.parse(candidate);
+            if (state != null && !Character.isDigit(candidate.charAt(0))) return withFlags(state.getFlag());
+        }
+        Element element = ElementRegistry.get(term);
+        if (element != null) return of(element);
+        throw new IllegalArgumentException("Unrecognized element set term: " + term);
+    }
+
+    /** @return the set plus the element with the atomic number */
+    ElementSet with(int atomicNumber) {
+        return (atomicNumber <= 64) ? new ElementSet(low | (1L << (atomicNumber - 1)), high)
+                : new ElementSet(low, high | (1L << (atomicNumber - 65)));
+    }
+
+    /** @return the elements in either set */
+    ElementSet union(ElementSet other) {
+        return new ElementSet(low | other.low, high | other.high);
+    }
+
+    /** @return the elements in both sets */
+    ElementSet intersect(ElementSet other) {
+        return new ElementSet(low & other.low, high & other.high);
+    }
+
+    /** @return the elements in this set but not the other */
+    ElementSet minus(ElementSet other) {
+        return new ElementSet(low & ~other.low, high & ~other.high);
+    }
+
+    /** @return every element not in this set */
+    ElementSet complement() {
+        return new ElementSet(~low, ~high);
+    }
+
+    /** @param atomicNumber atomic number of an element
+     * @return true if the element is in the set */
+    boolean contains(int atomicNumber) {
+        if (atomicNumber < 1 || atomicNumber > Element.TOTAL_ELEMENT_COUNT) return false;
+        return (atomicNumber <= 64) ? (low >>> (atomicNumber - 1) & 1L) != 0 : (high >>> (atomicNumber - 65) & 1L) != 0;
+    }
+
+    /** @return true if the element is in the set */
+    boolean contains(Element element) {
+        return contains(element.getAtomicNumber());
+    }
+
+    /** @return true if every element of the other set is in this set */
+    boolean containsAll(ElementSet other) {
+        return (other.low & ~low) == 0 && (other.high & ~high) == 0;
+    }
+
+    /** @return the number of elements in both sets, without building the intersection */
+    int intersectionSize(ElementSet other) {
+        return Long.bitCount(low & other.low) + Long.bitCount(high & other.high);
+    }
+
+    /** @return true if the sets share an element */
+    boolean intersects(ElementSet other) {
+        return (low & other.low) != 0 || (high & other.high) != 0;
+    }
+
+    /** @return the number of elements in the set */
+    int size() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    boolean isEmpty() {
+        return low == 0 && high == 0;
+    }
+
+    /** Steps through the set without allocating:
+     * {@code for (int z = set.next(0); z != 0; z = set.next(z))}
+     * @param after the atomic number to search after (0 to start from hydrogen)
+     * @return the lowest atomic number in the set above after, or 0 if there is none */
+    int next(int after) {
+        if (after < 64) {
+            long rest = (after <= 0) ? low : low & (-1L << after);
+            if (rest != 0) return Long.numberOfTrailingZeros(rest) + 1;
+            after = 64;
+        }
+        long rest = (after >= 128) ? 0 : high & (-1L << (after - 64));
+        return (rest != 0) ? Long.numberOfTrailingZeros(rest) + 65 : 0;
+    }
+
+    /** @param index index of the element among the set's elements, in order of atomic number (0 to size() - 1)
+     * @return the atomic number of the element at the index
+     * @throws IndexOutOfBoundsException thrown if the index is not below size() */
+    int get(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+        int lowCount = Long.bitCount(low);
+        long bits = (index < lowCount) ? low : high;
+        int skip = (index < lowCount) ? index : index - lowCount;
+        // clear the lowest set bits until the wanted one is the lowest
+        for (int i = 0; i < skip; i++) bits &= bits - 1;
+        return Long.numberOfTrailingZeros(bits) + ((index < lowCount) ? 1 : 65);
+    }
+
+    /** @return the set's elements, in order of atomic number */
+    Element[] toArray() {
+        Element[] elements = new Element[size()];
+        int i = 0;
+        for (int z = next(0); z != 0; z = next(z)) elements[i++] = Element.of(z);
+        return elements;
+    }
+
+    /** @return the low long of the mask (elements 1-64) */
+    long getLowBits() {
+        return low;
+    }
+
+    /** @return the high long of the mask (elements 65-118) */
+    long getHighBits() {
+        return high;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ElementSet && ((ElementSet) other).low == low && ((ElementSet) other).high == high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low) * 31 + Long.hashCode(high);
+    }
+
+    /** @return the set as atomic number ranges (e.g. "{1-56, 72-88, 104-118}") */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int z = next(0); z != 0; ) {
+            int end = z;
+            while (contains(end + 1)) end++;
+            if (builder.length() > 1) builder.append(", ");
+            builder.append(z);
+            if (end > z) builder.append('-').append(end);
+            z = next(end);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/** Versioned, fixed-width binary snapshot of the fully calculated element table.
+ * The snapshot is compiled from the element file by running this class ("java ElementSnapshot"), and checked against
+ * the element file with "java ElementSnapshot verify". At startup ElementRegistry memory-maps the snapshot read-only
+ * and copies every value straight out of its record into the ElementTable's arrays, so nothing is parsed or
+ * recalculated. The mapping is only read while loading: each JVM keeps its own copy of the table on its heap.
+ * <p>
+ * Layout (big-endian): a header of magic, version, element count, record size (4 bytes each), and the CRC32 of the
+ * element and isotope files the snapshot was compiled from (8 bytes); then one record per element, in atomic number
+ * order.
+ * A snapshot whose header does not match, or whose checksum does not match the current element and isotope files, is
+ * ignored. */
+final class ElementSnapshot {
+    /** Default location of the snapshot, next to the element file. */
+    static final String SNAPSHOT_FILE = "src/elementlist.bin";
+    /** "ELMT" */
+    static final int MAGIC = 0x454C4D54;
+    /** Bumped whenever the record layout changes, so stale snapshots are ignored instead of misread. */
+    static final int VERSION = 2;
+    /** Returned by checksum() when the element or isotope file cannot be read: the snapshot is then trusted as-is. */
+    static final long NO_CHECKSUM = -1;
+
+    static final int HEADER_SIZE = 24;
+    // offsets of the fields in a record
+    private static final int ATOMIC_NUMBER = 0; // byte
+    private static final int PERIOD = 1; // byte
+    private static final int COLUMN = 2; // byte: index in Element.COLUMNS
+    private static final int FAMILY = 3; // byte: index in Element.ELEMENT_FAMILIES
+    private static final int NEUTRONS = 4; // short
+    private static final int ABBREVIATION = 6; // ASCII, zero-padded
+    private static final int ABBREVIATION_WIDTH = 2;
+    private static final int ATOMIC_MASS = 8; // double
+    private static final int NAME = 16; // ASCII, zero-padded
+    private static final int NAME_WIDTH = 14;
+    private static final int OCCUPANCY = 30; // one byte per subshell, in the order of ElectronConfiguration.SUBSHELLS
+    /** Size of one element's record in bytes. */
+    static final int RECORD_SIZE = 56;
+
+    private ElementSnapshot() {}
+
+    /** Compiles the snapshot from the element file, or checks an existing snapshot against it.
+     * @param args empty to compile SNAPSHOT_FILE, "verify" to check it. An optional second argument replaces the path. */
+    public static void main(String[] args) {
+        boolean verifying = args.length > 0 && args[0].equalsIgnoreCase("verify");
+        String snapshotFile = (args.length > 1) ? args[1] : SNAPSHOT_FILE;
+        ElementTable fromText = ElementTable.fromElementFile();
+        long checksum = checksum(ElementRegistry.ELEMENT_FILE, IsotopeTable.ISOTOPE_FILE);
+        if (!verifying) {
+            try {
+                write(fromText, snapshotFile, checksum);
+                System.out.printf("Wrote %d elements to %s.%n", Element.TOTAL_ELEMENT_COUNT, snapshotFile);
+            } catch (IOException ex) {
+                System.out.println("Could not write the snapshot: " + ex.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        ElementTable fromSnapshot = read(snapshotFile, checksum);
+        if (fromSnapshot == null) {
+            System.out.printf("%s is missing, unreadable, or out of date with %s.%n", snapshotFile,
+                    ElementRegistry.ELEMENT_FILE);
+            System.exit(1);
+        }
+        int mismatches = 0;
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            String difference = difference(fromText, fromSnapshot, atomicNumber);
+            if (difference != null) {
+                System.out.printf("#%d differs in %s.%n", atomicNumber, difference);
+                mismatches++;
+            }
+        }
+        System.out.printf("%d of %d elements match.%n", Element.TOTAL_ELEMENT_COUNT - mismatches,
+                Element.TOTAL_ELEMENT_COUNT);
+        if (mismatches > 0) System.exit(1);
+    }
+
+    /** @param elementFile path of the element file
+     * @param isotopeFile path of the isotope file, which is left out of the checksum if it does not exist
+     * @return the CRC32 of the files' contents, or NO_CHECKSUM if one cannot be read */
+    static long checksum(String elementFile, String isotopeFile) {
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(Files.readAllBytes(Path.of(elementFile)));
+            // the neutron counts come from the isotope file, when there is one
+            if (Files.exists(Path.of(isotopeFile))) crc.update(Files.readAllBytes(Path.of(isotopeFile)));
+            return crc.getValue();
+        } catch (IOException ex) {
+            return NO_CHECKSUM;
+        }
+    }
+
+    /** Writes the snapshot. The file is written beside its destination and then moved into place, so another JVM that
+     * has the old snapshot mapped never sees a half-written file.
+     * @param table the table to write
+     * @param snapshotFile where to write the snapshot
+     * @param checksum the checksum of the element and isotope files the elements were calculated from
+     * @throws IOException thrown if the snapshot cannot be written */
+    static void write(ElementTable table, String snapshotFile, long checksum) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * Element.TOTAL_ELEMENT_COUNT);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(Element.TOTAL_ELEMENT_COUNT).putInt(RECORD_SIZE).putLong(checksum);
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            Element el = table.element(atomicNumber);
+            int record = HEADER_SIZE + RECORD_SIZE * (atomicNumber - 1);
+            buffer.put(record + ATOMIC_NUMBER, (byte) atomicNumber);
+            buffer.put(record + PERIOD, table.period[atomicNumber]);
+            buffer.put(record + COLUMN, table.columnIndex[atomicNumber]);
+            buffer.put(record + FAMILY, table.familyIndex[atomicNumber]);
+            buffer.putShort(record + NEUTRONS, table.neutrons[atomicNumber]);
+            buffer.putDouble(record + ATOMIC_MASS, table.atomicMass[atomicNumber]);
+            putAscii(buffer, record + ABBREVIATION, ABBREVIATION_WIDTH, el.getAbbreviation());
+            putAscii(buffer, record + NAME, NAME_WIDTH, el.getName());
+            buffer.put(record + OCCUPANCY, table.electronConfiguration[atomicNumber].toByteArray());
+        }
+        Path destination = Path.of(snapshotFile);
+        Path temporary = destination.resolveSibling(destination.getFileName() + ".tmp");
+        // records were written with absolute puts, so write out the whole buffer
+        buffer.rewind();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Memory-maps the snapshot and fills a table from its records.
+     * @param snapshotFile path of the snapshot
+     * @param expectedChecksum checksum of the current element and isotope files, or NO_CHECKSUM to skip the check
+     * @return the filled table, or null if the snapshot is missing,
+     * unreadable, of a different version, or compiled from a different element or isotope file */
+    static ElementTable read(String snapshotFile, long expectedChecksum) {
+        Path path = Path.of(snapshotFile);
+        if (!Files.isReadable(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size != HEADER_SIZE + (long) RECORD_SIZE * Element.TOTAL_ELEMENT_COUNT) return null;
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != Element.TOTAL_ELEMENT_COUNT || buffer.getInt(12) != RECORD_SIZE) return null;
+            if (expectedChecksum != NO_CHECKSUM && buffer.getLong(16) != expectedChecksum) return null;
+            ElementTable table = new ElementTable();
+            for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+                int record = HEADER_SIZE + RECORD_SIZE * (atomicNumber - 1);
+                if (buffer.get(record + ATOMIC_NUMBER) != atomicNumber) return null;
+                byte[] occupancy = new byte[ElectronConfiguration.SUBSHELL_COUNT];
+                buffer.get(record + OCCUPANCY, occupancy);
+                table.put(atomicNumber,
+                        getAscii(buffer, record + ABBREVIATION, ABBREVIATION_WIDTH),
+                        getAscii(buffer, record + NAME, NAME_WIDTH),
+                        buffer.getDouble(record + ATOMIC_MASS),
+                        buffer.getShort(record + NEUTRONS),
+                        buffer.get(record + PERIOD),
+                        buffer.get(record + COLUMN),
+                        buffer.get(record + FAMILY),
+                        ElectronConfiguration.of(occupancy));
+            }
+            return table;
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /** Compares every stored value of one element in two tables.
+     * @return the name of the first value that differs, or null if the element matches */
+    static String difference(ElementTable first, ElementTable second, int atomicNumber) {
+        Element a = first.element(atomicNumber);
+        Element b = second.element(atomicNumber);
+        if (!a.getName().equals(b.getName())) return "name";
+        if (!a.getAbbreviation().equals(b.getAbbreviation())) return "abbreviation";
+        if (a.getAtomicNumber() != b.getAtomicNumber()) return "atomic number";
+        if (a.getAtomicMass() != b.getAtomicMass()) return "atomic mass";
+        if (first.neutrons[atomicNumber] != second.neutrons[atomicNumber]) return "neutrons";
+        if (a.getPeriod() != b.getPeriod()) return "period";
+        if (a.getPeriodicColumn() != b.getPeriodicColumn()) return "column";
+        if (a.getColumnEnumeration() != b.getColumnEnumeration()) return "column enumeration";
+        if (!a.getElectronConfiguration().equals(b.getElectronConfiguration())) return "electron configuration";
+        if (a.getFamily() != b.getFamily()) return "family";
+        if (first.flags[atomicNumber] != second.flags[atomicNumber]) return "flags";
+        return null;
+    }
+
+    /** Writes a String as zero-padded ASCII.
+     * @throws IllegalStateException thrown if the String does not fit in the field */
+    private static void putAscii(ByteBuffer buffer, int offset, int width, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > width) {
+            throw new IllegalStateException(String.format("\"%s\" does not fit in %d bytes.", value, width));
+        }
+        buffer.put(offset, bytes);
+    }
+
+    /** @return the zero-padded ASCII field as a String, without its padding */
+    private static String getAscii(ByteBuffer buffer, int offset, int width) {
+        byte[] bytes = new byte[width];
+        buffer.get(offset, bytes);
+        int length = 0;
+        while (length < width && bytes[length] != 0) length++;
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.*;
+
+/** Columnar storage behind Element. Every numeric property of every element lives in its own primitive array indexed
+ * by atomic number (index 0 is unused), and every family and metallic state property of an element is one bit of a
+ * single long. Element's getters read from these arrays, so scans and filters over the whole table are plain loops
+ * over primitives that allocate nothing.
+ * A table is filled once, by fromElementFile() or by ElementSnapshot.read(), and is never changed afterwards. */
+final class ElementTable {
+    // One flag per family, in the order of Element.ELEMENT_FAMILIES, so a family's flag is 1L << its Family ordinal.
+    static final long ALKALI_METAL = 1L;
+    static final long ALKALINE_EARTH_METAL = 1L << 1;
+    static final long TRANSITION_METAL = 1L << 2;
+    static final long LANTHANIDE = 1L << 3;
+    static final long ACTINIDE = 1L << 4;
+    static final long POST_TRANSITION_METAL = 1L << 5;
+    static final long METALLOID = 1L << 6;
+    static final long REACTIVE_NONMETAL = 1L << 7;
+    static final long HALOGEN = 1L << 8;
+    static final long NOBLE_GAS = 1L << 9;
+    // flags shared by several families
+    static final long INNER_TRANSITION_METAL = 1L << 10;
+    static final long METAL = 1L << 11;
+    static final long NONMETAL = 1L << 12;
+
+    private static final int SIZE = Element.TOTAL_ELEMENT_COUNT + 1;
+
+    final byte[] period = new byte[SIZE];
+    /** Index of the element's column in Element.COLUMNS. */
+    final byte[] columnIndex = new byte[SIZE];
+    /** Index of the element's family in Element.ELEMENT_FAMILIES. */
+    final byte[] familyIndex = new byte[SIZE];
+    final short[] neutrons = new short[SIZE];
+    final double[] atomicMass = new double[SIZE];
+    final long[] flags = new long[SIZE];
+    final ElectronConfiguration[] electronConfiguration = new ElectronConfiguration[SIZE];
+    /** The Element views of the table, indexed by atomic number. */
+    private final Element[] elements = new Element[SIZE];
+
+    ElementTable() {}
+
+    /** Reads the element file once and calculates every element's values from it, with neutron counts from the
+     * isotope file (see IsotopeTable). Used when there is no current snapshot, and to compile or check one.
+     * @return the filled table
+     * @throws IllegalStateException thrown if a file cannot be read, or the element file does not hold every
+     * element */
+    static ElementTable fromElementFile() throws IllegalStateException {
+        String[][] arrays = new String[SIZE][];
+        try (BufferedReader reader = new BufferedReader(new FileReader(ElementRegistry.ELEMENT_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] array = line.split(",");
+                arrays[Integer.parseInt(array[0])] = array;
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw new IllegalStateException("Could not read " + ElementRegistry.ELEMENT_FILE + ": " + ex.getMessage(), ex);
+        }
+        ElementTable table = new ElementTable();
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            if (arrays[atomicNumber] == null) {
+                throw new IllegalStateException(ElementRegistry.ELEMENT_FILE + " is missing element #" + atomicNumber);
+            }
+            Element.fromInformationArray(arrays[atomicNumber], table);
+        }
+        // neutrons of the most abundant isotope, where the isotope table has the element
+        IsotopeTable isotopes = IsotopeTable.get();
+        for (int atomicNumber = 1; atomicNumber <= Element.TOTAL_ELEMENT_COUNT; atomicNumber++) {
+            int massNumber = isotopes.getMostAbundantMassNumber(atomicNumber);
+            if (massNumber > 0) table.neutrons[atomicNumber] = (short) (massNumber - atomicNumber);
+        }
+        return table;
+    }
+
+    /** Stores one element's values and creates its Element view.
+     * @return the Element view of the stored values */
+    Element put(int atomicNumber, String abbreviation, String name, double atomicMass, int neutrons, int period,
+                int columnIndex, int familyIndex, ElectronConfiguration electronConfiguration) {
+        this.period[atomicNumber] = (byte) period;
+        this.columnIndex[atomicNumber] = (byte) columnIndex;
+        this.familyIndex[atomicNumber] = (byte) familyIndex;
+        this.neutrons[atomicNumber] = (short) neutrons;
+        this.atomicMass[atomicNumber] = atomicMass;
+        this.flags[atomicNumber] = Family.fromOrdinal(familyIndex).getFlags();
+        this.electronConfiguration[atomicNumber] = electronConfiguration;
+        elements[atomicNumber] = new Element(this, atomicNumber, abbreviation, name);
+        return elements[atomicNumber];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return the Element view of the element */
+    Element element(int atomicNumber) {
+        return elements[atomicNumber];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @param mask one or more flags
+     * @return true if the element has every flag in the mask */
+    boolean hasFlags(int atomicNumber, long mask) {
+        return (flags[atomicNumber] & mask) == mask;
+    }
+
+    /** @param mask one or more flags
+     * @return the number of elements that have every flag in the mask */
+    int countWithFlags(long mask) {
+        int count = 0;
+        for (int atomicNumber = 1; atomicNumber < SIZE; atomicNumber++) {
+            if ((flags[atomicNumber] & mask) == mask) count++;
+        }
+        return count;
+    }
+
+    /** Steps through the elements with certain flags without allocating:
+     * {@code for (int z = table.nextWithFlags(0, mask); z != 0; z = table.nextWithFlags(z, mask))}
+     * @param after the atomic number to search after (0 to start from hydrogen)
+     * @param mask one or more flags
+     * @return the lowest atomic number above after whose element has every flag in the mask, or 0 if there is none */
+    int nextWithFlags(int after, long mask) {
+        for (int atomicNumber = after + 1; atomicNumber < SIZE; atomicNumber++) {
+            if ((flags[atomicNumber] & mask) == mask) return atomicNumber;
+        }
+        return 0;
+    }
+}
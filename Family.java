@@ -0,0 +1,110 @@
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+
+/** The families of elements used in the game, in the order of Element.ELEMENT_FAMILIES. Each family carries the
+ * metadata the game needs about it (its label, its article, its metallic state, and its ElementTable flags), so
+ * comparing and describing families never touches their Strings. */
+enum Family {
+    ALKALI_METAL(Element.ALKALI_METAL, "an", MetallicState.METAL),
+    ALKALINE_EARTH_METAL(Element.ALKALINE_EARTH_METAL, "an", MetallicState.METAL),
+    TRANSITION_METAL(Element.TRANSITION_METAL, "a", MetallicState.METAL),
+    LANTHANIDE(Element.LANTHANIDE, "a", MetallicState.METAL),
+    ACTINIDE(Element.ACTINIDE, "an", MetallicState.METAL),
+    POST_TRANSITION_METAL(Element.POST_TRANSITION_METAL, "a", MetallicState.METAL),
+    METALLOID(Element.METALLOID, "a", MetallicState.METALLOID),
+    REACTIVE_NONMETAL(Element.REACTIVE_NONMETAL, "a", MetallicState.NONMETAL),
+    HALOGEN(Element.HALOGEN, "a", MetallicState.NONMETAL),
+    NOBLE_GAS(Element.NOBLE_GAS, "a", MetallicState.NONMETAL);
+
+    /** The lanthanides and actinides, which players can leave out of the game. */
+    static final EnumSet<Family> INNER_TRANSITION = EnumSet.of(LANTHANIDE, ACTINIDE);
+
+    /** Every family, indexed by ordinal. Cached because values() copies its array on every call. */
+    private static final Family[] VALUES = values();
+    /** Every family keyed by the uppercase tokens a user may type for it. */
+    private static final HashMap<String, Family> BY_TOKEN = new HashMap<>();
+    /** The families of each metallic state. */
+    private static final EnumMap<MetallicState, EnumSet<Family>> BY_METALLIC_STATE = new EnumMap<>(MetallicState.class);
+
+    static {
+        for (MetallicState state : MetallicState.values()) {
+            BY_METALLIC_STATE.put(state, EnumSet.noneOf(Family.class));
+        }
+        for (Family family : VALUES) {
+            BY_TOKEN.put(family.label, family);
+            BY_TOKEN.put(family.name(), family);
+            BY_TOKEN.put(family.label.replace(" ", ""), family);
+            // the integer shown for the family in menus
+            BY_TOKEN.put(Integer.toString(family.ordinal() + 1), family);
+            BY_METALLIC_STATE.get(family.metallicState).add(family);
+        }
+    }
+
+    private final String label;
+    private final String article;
+    private final MetallicState metallicState;
+
+    Family(String label, String article, MetallicState metallicState) {
+        this.label = label;
+        this.article = article;
+        this.metallicState = metallicState;
+    }
+
+    /** @return the family as it is displayed to players (e.g. "ALKALI METAL") */
+    String getLabel() {
+        return label;
+    }
+
+    /** @return "a" or "an", whichever goes before the label */
+    String getArticle() {
+        return article;
+    }
+
+    /** @return the metallic state of every element in the family */
+    MetallicState getMetallicState() {
+        return metallicState;
+    }
+
+    /** @return true for the lanthanides and actinides */
+    boolean isInnerTransition() {
+        return INNER_TRANSITION.contains(this);
+    }
+
+    /** @return the family's own ElementTable flag, plus the inner transition metal and metallic state flags that go
+     * with it */
+    long getFlags() {
+        long flags = 1L << ordinal();
+        if (isInnerTransition()) flags |= ElementTable.INNER_TRANSITION_METAL;
+        return flags | metallicState.getFlag();
+    }
+
+    /** @param state a metallic state
+     * @return the families with that state. The set is shared: callers must not change it. */
+    static EnumSet<Family> withMetallicState(MetallicState state) {
+        return BY_METALLIC_STATE.get(state);
+    }
+
+    /** @param ordinal the family's ordinal (its index in Element.ELEMENT_FAMILIES)
+     * @return the family with the ordinal
+     * @throws IllegalArgumentException thrown if no family has the ordinal */
+    static Family fromOrdinal(int ordinal) throws IllegalArgumentException {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("No family has ordinal " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /** @param token a family's label (with or without spaces or underscores) or its menu number (1-10), in any case
+     * @return the family, or null if the token names none */
+    static Family parse(String token) {
+        if (token == null) return null;
+        return BY_TOKEN.get(token.trim().toUpperCase());
+    }
+
+    /** @return the label */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
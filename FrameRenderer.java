@@ -0,0 +1,105 @@
+import java.io.PrintStream;
+import java.util.Formatter;
+import java.util.Scanner;
+
+/** Collects everything a game prints between two reads of the player's input into one frame, and writes the frame to
+ * its PrintStream in a single call when input is next read (see readLine()). A turn used to take dozens of println()
+ * calls, each locking the stream and, on a console or an autoflushing GameServer connection, writing on its own.
+ * <p>The frame's buffer and Formatter are reused for every frame of a session, and the menus that never change (the
+ * actions, the columns, the families, and the metallic states) are rendered once, when the class is loaded. Not safe
+ * to share between threads; each ElementLGame has its own. */
+final class FrameRenderer {
+    /** The action menu printed every turn. */
+    static final String ACTION_MENU = """
+            What action would you like to perform? Type in the NUMBER corresponding to the action.
+            [1] guessElement\t[2] guessRow\t[3] guessColumn\t[4] guessFamily\
+            \t[5] guessMetallicState\t[6] getModulus3Hint\t[7] getAdvice\t[-1] quitGame
+            """;
+    static final String METALLIC_STATE_MENU = """
+            Guessable metallic states: [1] METAL\t[2] NONMETAL\t[3] METALLOID
+            Type in the integer corresponding to the metallic state you think element L has. Type -1 to go back.
+            """;
+    /** Column menus, without and with lanthanides & actinides. */
+    private static final String[] COLUMN_MENUS = {renderColumnMenu(false), renderColumnMenu(true)};
+    /** Family menus, without and with lanthanides & actinides. */
+    private static final String[] FAMILY_MENUS = {renderFamilyMenu(false), renderFamilyMenu(true)};
+    /** Initial capacity of the frame: enough for a turn with every piece of information shown. */
+    private static final int FRAME_CAPACITY = 2048;
+
+    private final PrintStream out;
+    private final StringBuilder frame = new StringBuilder(FRAME_CAPACITY);
+    private final Formatter formatter = new Formatter(frame);
+
+    /** @param out where every frame is written */
+    FrameRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    private static String renderColumnMenu(boolean playWithLanthanidesActinides) {
+        StringBuilder builder = new StringBuilder("Guessable columns: ");
+        for (String column : Element.COLUMNS) {
+            if (playWithLanthanidesActinides || !column.contains("LA")) builder.append(column).append("; ");
+        }
+        return builder.append("\nType in the column you think element L is in. Type -1 to go back.\n").toString();
+    }
+
+    private static String renderFamilyMenu(boolean playWithLanthanidesActinides) {
+        StringBuilder builder = new StringBuilder("Guessable families: ");
+        for (Family family : Family.values()) {
+            int i = family.ordinal();
+            if (!playWithLanthanidesActinides && family.isInnerTransition()) continue;
+            builder.append('[').append(i + 1).append("] ").append(family.getLabel()).append("; ");
+            // two lines of families
+            if ((playWithLanthanidesActinides && i == 4) || (!playWithLanthanidesActinides && i == 2)) {
+                builder.append('\n');
+            }
+        }
+        return builder.append("\nType in the integer corresponding to the family you think element L belongs to. " +
+                "Type -1 to go back.\n").toString();
+    }
+
+    /** @return the column menu, with or without the lanthanide & actinide columns */
+    static String columnMenu(boolean playWithLanthanidesActinides) {
+        return COLUMN_MENUS[playWithLanthanidesActinides ? 1 : 0];
+    }
+
+    /** @return the family menu, with or without the inner transition families */
+    static String familyMenu(boolean playWithLanthanidesActinides) {
+        return FAMILY_MENUS[playWithLanthanidesActinides ? 1 : 0];
+    }
+
+    FrameRenderer print(CharSequence text) {
+        frame.append(text);
+        return this;
+    }
+
+    FrameRenderer println(CharSequence text) {
+        frame.append(text).append(System.lineSeparator());
+        return this;
+    }
+
+    FrameRenderer println() {
+        frame.append(System.lineSeparator());
+        return this;
+    }
+
+    /** Like PrintStream.printf(), into the frame. */
+    FrameRenderer printf(String format, Object... args) {
+        formatter.format(format, args);
+        return this;
+    }
+
+    /** Writes the frame, if it has anything in it, and starts a new one. */
+    void flush() {
+        if (frame.length() == 0) return;
+        out.print(frame);
+        out.flush();
+        frame.setLength(0);
+    }
+
+    /** Writes the frame, so the player sees the prompt, and reads their next line of input. */
+    String readLine(Scanner scanner) {
+        flush();
+        return scanner.nextLine();
+    }
+}
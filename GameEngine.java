@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** The rules of the Element-L game as a state machine, with no console I/O or text formatting: a game is created from
+ * a Config and a seed (or a known element L), and each Action applied to it returns an Outcome. ElementLGame is the
+ * console front end to this class; bots, tests, and servers can drive it directly, many games per second.
+ * <p>The rules: a correct guess is free, and a kind of guess cannot be made again once it is correct. A wrong element
+ * guess costs 2 fetches, and any other wrong guess costs 1, unless the same wrong guess was made before. The modulus 3
+ * hint costs 1 fetch and can be gotten once. The game is won by guessing element L, and lost when the fetches run out
+ * or the player resigns. A Config's GameRules can change the costs and add hints, each of which can be gotten once
+ * like the modulus 3 hint. */
+final class GameEngine {
+    /** The settings of a game.
+     * @param playableElements the elements element L is chosen from. Must not be empty.
+     * @param difficulty the base number of fetches (e.g. ElementLGame.HYDROGEN_LEVEL)
+     * @param rules the costs and extra hints of the game */
+    record Config(ElementSet playableElements, int difficulty, GameRules rules) {
+        /** Extra fetches given when lanthanides or actinides can be element L, by the standard rules. */
+        static final int LANTHANIDES_ACTINIDES_BONUS = 2;
+
+        Config {
+            if (playableElements.isEmpty()) throw new IllegalArgumentException("There are no elements to play with.");
+        }
+
+        /** Settings for a game by the standard rules. */
+        Config(ElementSet playableElements, int difficulty) {
+            this(playableElements, difficulty, GameRules.STANDARD);
+        }
+
+        /** @return true if element L can be a lanthanide or actinide */
+        boolean playWithLanthanidesActinides() {
+            return playableElements.intersects(ElementList.INNER_TRANSITION_METALS_SET);
+        }
+
+        /** @return the fetches the game starts with */
+        int startingFetches() {
+            return difficulty + (playWithLanthanidesActinides() ? rules.getLanthanidesActinidesBonus() : 0);
+        }
+    }
+
+    /** One move by the player.
+     * @param kind the kind of move
+     * @param value what is guessed: the atomic number, the period, or the ordinal of the column, family, or metallic
+     *              state (0 for the modulus 3 hint, and the HintType's id for an extra hint) */
+    record Action(ActionKind kind, int value) {
+        static Action guessElement(Element element) {
+            return new Action(ActionKind.ELEMENT, element.getAtomicNumber());
+        }
+
+        static Action guessRow(int period) {
+            return new Action(ActionKind.ROW, period);
+        }
+
+        static Action guessColumn(Column column) {
+            return new Action(ActionKind.COLUMN, column.ordinal());
+        }
+
+        static Action guessFamily(Family family) {
+            return new Action(ActionKind.FAMILY, family.ordinal());
+        }
+
+        static Action guessMetallicState(MetallicState state) {
+            return new Action(ActionKind.METALLIC_STATE, state.ordinal());
+        }
+
+        static Action modulus3Hint() {
+            return new Action(ActionKind.MODULUS_3, 0);
+        }
+
+        static Action hint(HintType type) {
+            return new Action(ActionKind.HINT, type.getId());
+        }
+    }
+
+    /** How an action turned out. */
+    enum Result {
+        /** The guess was right. */
+        CORRECT,
+        /** The guess was wrong, and fetches were spent on it. */
+        INCORRECT,
+        /** The guess was wrong, but it was made before, so no fetches were spent. */
+        REPEATED,
+        /** The answer was already known (a correct guess of the same kind, or a hint again): nothing happened. */
+        ALREADY_KNOWN,
+        /** The modulus 3 hint, or an extra hint, was gotten. */
+        REVEALED
+    }
+
+    /** Whether a game is still being played, and if not, who won. */
+    enum Status {
+        IN_PROGRESS, WON, LOST
+    }
+
+    /** What happened after an action.
+     * @param action the action
+     * @param result how it turned out
+     * @param remainder if the result is REVEALED, element L's atomic number % 3, or for an extra hint the index of
+     *                  element L's class (see HintType.classOf()); otherwise -1
+     * @param fetchesSpent the fetches the action cost
+     * @param fetchesLeft the fetches left after the action
+     * @param status the state of the game after the action */
+    record Outcome(Action action, Result result, int remainder, int fetchesSpent, int fetchesLeft, Status status) {
+        /** @return true if the action was a guess that was right */
+        boolean isCorrect() {
+            return result == Result.CORRECT;
+        }
+    }
+
+    /** Returned by getSeed() for games started with a known element L. */
+    static final long NO_SEED = 0;
+
+    private final Config config;
+    private final long seed;
+    private final Element elementL;
+    private final CandidateTracker candidates;
+    private int fetches;
+    private Status status = Status.IN_PROGRESS;
+    /** Kinds of guess that were correct, plus MODULUS_3 once the hint is gotten. */
+    private final EnumSet<ActionKind> known = EnumSet.noneOf(ActionKind.class);
+    /** Wrong guesses made so far: elements as a set, everything else as bits of the value, by kind ordinal. */
+    private ElementSet wrongElements = ElementSet.EMPTY;
+    private final long[] wrongGuesses = new long[ActionKind.values().length];
+    /** Extra hints gotten so far, as bits of their index in the rules. */
+    private long revealedHints;
+    /** Every outcome so far, in order, for GameLog. */
+    private final List<Outcome> history = new ArrayList<>();
+
+    /** Starts a game with element L chosen at random from the playable elements.
+     * @param config the settings of the game
+     * @param seed the seed element L is chosen with: the same config and seed always give the same element L */
+    GameEngine(Config config, long seed) {
+        this(config, seed, Element.of(config.playableElements().get(
+                new SplittableRandom(seed).nextInt(config.playableElements().size()))));
+    }
+
+    /** Starts a game with a known element L.
+     * @param config the settings of the game
+     * @param elementL the element to be guessed
+     * @throws IllegalArgumentException thrown if element L is not one of the playable elements */
+    GameEngine(Config config, Element elementL) throws IllegalArgumentException {
+        this(config, NO_SEED, elementL);
+    }
+
+    private GameEngine(Config config, long seed, Element elementL) throws IllegalArgumentException {
+        if (!config.playableElements().contains(elementL)) {
+            throw new IllegalArgumentException(elementL + " is not one of the playable elements.");
+        }
+        this.config = config;
+        this.seed = seed;
+        this.elementL = elementL;
+        this.candidates = new CandidateTracker(config.playableElements());
+        this.fetches = config.startingFetches();
+    }
+
+    /** Applies an action to the game.
+     * @param action the player's move
+     * @return what happened
+     * @throws IllegalStateException thrown if the game is over
+     * @throws IllegalArgumentException thrown if the action's value is out of range for its kind */
+    Outcome apply(Action action) throws IllegalStateException, IllegalArgumentException {
+        if (status != Status.IN_PROGRESS) throw new IllegalStateException("Game is over");
+        ActionKind kind = action.kind();
+        int value = action.value();
+        GameRules rules = config.rules();
+        if (kind == ActionKind.MODULUS_3) {
+            if (!known.add(kind)) return outcome(action, Result.ALREADY_KNOWN, -1, 0);
+            int remainder = elementL.getAtomicNumber() % 3;
+            candidates.applyModulus3(remainder);
+            return outcome(action, Result.REVEALED, remainder, rules.cost(kind));
+        }
+        if (kind == ActionKind.HINT) {
+            int index = rules.hintIndex(value);
+            if (index < 0) throw new IllegalArgumentException("The rules do not offer hint " + value);
+            if ((revealedHints & 1L << index) != 0) return outcome(action, Result.ALREADY_KNOWN, -1, 0);
+            revealedHints |= 1L << index;
+            HintType type = rules.hint(index);
+            int revealed = type.classOf(elementL.getAtomicNumber());
+            candidates.apply(type.classSet(revealed), true);
+            return outcome(action, Result.REVEALED, revealed, rules.hintCost(index));
+        }
+        if (kind == ActionKind.ELEMENT) {
+            Element guessed = Element.of(value);
+            if (guessed.equals(elementL)) {
+                status = Status.WON;
+                return outcome(action, Result.CORRECT, -1, 0);
+            }
+            if (wrongElements.contains(value)) return outcome(action, Result.REPEATED, -1, 0);
+            wrongElements = wrongElements.with(value);
+            candidates.applyWrongElement(guessed);
+            return outcome(action, Result.INCORRECT, -1, rules.cost(kind));
+        }
+        if (known.contains(kind)) return outcome(action, Result.ALREADY_KNOWN, -1, 0);
+        boolean correct = switch (kind) {
+            case ROW -> {
+                if (value < 1 || value > 7) throw new IllegalArgumentException("Invalid row: " + value);
+                candidates.applyPeriod(value, value == elementL.getPeriod());
+                yield value == elementL.getPeriod();
+            }
+            case COLUMN -> {
+                Column column = Column.fromOrdinal(value);
+                candidates.applyColumn(column, column == elementL.getPeriodicColumn());
+                yield column == elementL.getPeriodicColumn();
+            }
+            case FAMILY -> {
+                Family family = Family.fromOrdinal(value);
+                candidates.applyFamily(family, family == elementL.getFamily());
+                yield family == elementL.getFamily();
+            }
+            default -> {
+                MetallicState state = MetallicState.fromOrdinal(value);
+                candidates.applyMetallicState(state, state == elementL.getMetallicState());
+                yield state == elementL.getMetallicState();
+            }
+        };
+        if (correct) {
+            known.add(kind);
+            return outcome(action, Result.CORRECT, -1, 0);
+        }
+        long bit = 1L << value;
+        if ((wrongGuesses[kind.ordinal()] & bit) != 0) return outcome(action, Result.REPEATED, -1, 0);
+        wrongGuesses[kind.ordinal()] |= bit;
+        return outcome(action, Result.INCORRECT, -1, rules.cost(kind));
+    }
+
+    /** Spends the fetches, ends the game if they ran out, and describes the action's outcome. */
+    private Outcome outcome(Action action, Result result, int remainder, int cost) {
+        fetches -= cost;
+        if (status == Status.IN_PROGRESS && fetches <= 0) status = Status.LOST;
+        Outcome outcome = new Outcome(action, result, remainder, cost, fetches, status);
+        history.add(outcome);
+        return outcome;
+    }
+
+    /** Ends the game as a loss.
+     * @throws IllegalStateException thrown if the game is over */
+    void resign() throws IllegalStateException {
+        if (status != Status.IN_PROGRESS) throw new IllegalStateException("Game is over");
+        status = Status.LOST;
+    }
+
+    Config getConfig() {
+        return config;
+    }
+
+    /** @return the seed element L was chosen with, or NO_SEED if the game was started with a known element L */
+    long getSeed() {
+        return seed;
+    }
+
+    /** @return the element to be guessed */
+    Element getElementL() {
+        return elementL;
+    }
+
+    int getFetches() {
+        return fetches;
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    boolean isOver() {
+        return status != Status.IN_PROGRESS;
+    }
+
+    /** @param kind a kind of guess, or MODULUS_3
+     * @return true if the kind was guessed correctly (or the modulus 3 hint was gotten), so it cannot be used again */
+    boolean isKnown(ActionKind kind) {
+        return known.contains(kind);
+    }
+
+    /** @return the extra hints gotten so far, as bits of their index in the rules (see GameRules.hint()) */
+    long getRevealedHints() {
+        return revealedHints;
+    }
+
+    /** @return the kinds of action that cannot tell the player anything new (see HintAdvisor.rank()) */
+    EnumSet<ActionKind> getUnavailableKinds() {
+        return known.clone();
+    }
+
+    /** @return every action's outcome so far, oldest first (a read-only view) */
+    List<Outcome> getHistory() {
+        return Collections.unmodifiableList(history);
+    }
+
+    /** @return the elements element L can still be, given the outcomes so far */
+    ElementSet getCandidates() {
+        return candidates.getCandidates();
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Compact binary log of finished games, from which every game can be replayed exactly.
+ * Games are appended through a Writer, which encodes them into one buffer and writes many games to the file channel
+ * at once. replay() maps the file and re-executes every game on a GameEngine without any prompts, checking that every
+ * outcome matches the recorded one, so the log doubles as a regression check of the rules.
+ * <p>
+ * Layout: a header of magic and version (4 bytes each, big-endian), then one record per game. Every number in a record
+ * is an unsigned LEB128 varint (7 bits per byte, low bits first):
+ * <ul>
+ * <li>the seed, zigzag-encoded (GameEngine.NO_SEED for games started with a known element L);</li>
+ * <li>the playable elements' low and high bits (see ElementSet.getLowBits()), the difficulty, and element L's atomic
+ *     number;</li>
+ * <li>for each action, (value &lt;&lt; 3 | kind ordinal), then its outcome as (fetches spent &lt;&lt; 3 | result
+ *     ordinal);</li>
+ * <li>an end marker, (status ordinal &lt;&lt; 3 | END), which also records resignations.</li>
+ * </ul>
+ * A game takes 30-50 bytes, most of them for the seed and the playable elements. */
+final class GameLog {
+    /** Default location of the log, next to the element file. */
+    static final String LOG_FILE = "src/games.log";
+    /** "ELGL" */
+    static final int MAGIC = 0x454C474C;
+    /** Bumped whenever the record layout changes. */
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    /** Low 3 bits of an end marker; action kinds use 0-6. A HINT record (6) is never written, since only games by the
+     * standard rules, which offer no extra hints, are logged; replay() rejects one as corrupt. */
+    private static final int END = 7;
+    private static final int TAG_BITS = 3;
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+    /** Most bytes a game's fixed fields take: 3 ten-byte varints and 2 five-byte ones. */
+    private static final int MAX_FIXED_BYTES = 40;
+    /** Most bytes an action, its outcome, or the end marker take. */
+    private static final int MAX_EVENT_BYTES = 5;
+
+    private GameLog() {}
+
+    /** Appends finished games to a log file, creating it if needed. Games are buffered and written to the file in
+     * groups: whenever the buffer fills, and on flush() and close(). Safe to share between threads (GameServer
+     * sessions share one writer). A game left half written by a crash is cut off when the log is opened, so the games
+     * appended after it can still be replayed. */
+    static final class Writer implements Closeable {
+        /** Bytes buffered before a group of games is written to the file. */
+        static final int BUFFER_SIZE = 1 << 16;
+
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /** @param logFile path of the log
+         * @throws IOException thrown if the log cannot be opened, or exists but is not a log of this version */
+        Writer(String logFile) throws IOException {
+            channel = FileChannel.open(Path.of(logFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            if (channel.size() == 0) {
+                buffer.putInt(MAGIC).putInt(VERSION);
+                return;
+            }
+            ByteBuffer log;
+            try (FileChannel in = FileChannel.open(Path.of(logFile), StandardOpenOption.READ)) {
+                log = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            }
+            if (log.remaining() < HEADER_SIZE || log.getInt() != MAGIC || log.getInt() != VERSION) {
+                channel.close();
+                throw new IOException(logFile + " is not a game log of version " + VERSION);
+            }
+            long intact = intactLength(log);
+            if (intact < channel.size()) channel.truncate(intact);
+        }
+
+        /** Adds a finished game to the buffer.
+         * @param game the game
+         * @throws IOException thrown if the buffer had to be written out and could not be
+         * @throws IllegalStateException thrown if the game is not over
+         * @throws IllegalArgumentException thrown if the game was not played by the standard rules, which the log
+         * cannot record */
+        synchronized void append(GameEngine game) throws IOException, IllegalStateException, IllegalArgumentException {
+            if (!game.isOver()) throw new IllegalStateException("Game is not over");
+            if (!game.getConfig().rules().isStandard()) {
+                throw new IllegalArgumentException("Only games played by the standard rules can be logged");
+            }
+            List<GameEngine.Outcome> history = game.getHistory();
+            int maxBytes = MAX_FIXED_BYTES + MAX_EVENT_BYTES * (2 * history.size() + 1);
+            if (buffer.remaining() < maxBytes) flush();
+            if (buffer.remaining() < maxBytes) buffer = ByteBuffer.allocate(maxBytes);
+            ElementSet playable = game.getConfig().playableElements();
+            putVarint(buffer, (game.getSeed() << 1) ^ (game.getSeed() >> 63));
+            putVarint(buffer, playable.getLowBits());
+            putVarint(buffer, playable.getHighBits());
+            putVarint(buffer, game.getConfig().difficulty());
+            putVarint(buffer, game.getElementL().getAtomicNumber());
+            for (GameEngine.Outcome outcome : history) {
+                putVarint(buffer, (long) outcome.action().value() << TAG_BITS | outcome.action().kind().ordinal());
+                putVarint(buffer, (long) outcome.fetchesSpent() << TAG_BITS | outcome.result().ordinal());
+            }
+            putVarint(buffer, (long) game.getStatus().ordinal() << TAG_BITS | END);
+        }
+
+        /** Writes every buffered game to the file.
+         * @throws IOException thrown if the file cannot be written */
+        synchronized void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /** Re-executes every game in a log.
+     * @param logFile path of the log
+     * @return every game, finished, in the order they were logged (an empty list if the log is missing)
+     * @throws IOException thrown if the log cannot be read, or is not a log of this version
+     * @throws IllegalStateException thrown if a game plays out differently than it was recorded, or the log is
+     * truncated or corrupt */
+    static List<GameEngine> replay(String logFile) throws IOException, IllegalStateException {
+        Path path = Path.of(logFile);
+        List<GameEngine> games = new ArrayList<>();
+        if (!Files.exists(path)) return games;
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(logFile + " is not a game log of version " + VERSION);
+        }
+        try {
+            while (buffer.hasRemaining()) games.add(replayGame(buffer, games.size() + 1));
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalStateException("Game " + (games.size() + 1) + " is truncated", ex);
+        } catch (IllegalArgumentException ex) {
+            // a field no game could have had, such as an atomic number or a guessed column out of range
+            throw new IllegalStateException("Game " + (games.size() + 1) + " is corrupt: " + ex.getMessage(), ex);
+        }
+        return games;
+    }
+
+    /** Reads one game's record and plays it on a new engine.
+     * @param buffer the log, positioned at the start of the record
+     * @param number the game's position in the log, for error messages
+     * @return the finished game */
+    private static GameEngine replayGame(ByteBuffer buffer, int number) throws IllegalStateException {
+        long zigzag = getVarint(buffer);
+        long seed = (zigzag >>> 1) ^ -(zigzag & 1);
+        ElementSet playable = ElementSet.fromBits(getVarint(buffer), getVarint(buffer));
+        GameEngine.Config config = new GameEngine.Config(playable, (int) getVarint(buffer));
+        Element elementL = Element.of((int) getVarint(buffer));
+        GameEngine game = (seed == GameEngine.NO_SEED) ? new GameEngine(config, elementL)
+                : new GameEngine(config, seed);
+        if (!game.getElementL().equals(elementL)) {
+            throw new IllegalStateException("Game " + number + ": seed " + seed + " now gives " + game.getElementL()
+                    + ", not " + elementL);
+        }
+        ActionKind[] kinds = ActionKind.values();
+        GameEngine.Result[] results = GameEngine.Result.values();
+        for (int action = 1; ; action++) {
+            long code = getVarint(buffer);
+            if ((code & TAG_MASK) == END) {
+                GameEngine.Status status = decode(GameEngine.Status.values(), code >>> TAG_BITS, number);
+                if (!game.isOver() && status == GameEngine.Status.LOST) game.resign();
+                if (game.getStatus() != status) {
+                    throw new IllegalStateException("Game " + number + " ends " + game.getStatus() + ", not " + status);
+                }
+                return game;
+            }
+            GameEngine.Outcome outcome = game.apply(
+                    new GameEngine.Action(decode(kinds, code & TAG_MASK, number), (int) (code >>> TAG_BITS)));
+            long recorded = getVarint(buffer);
+            GameEngine.Result result = decode(results, recorded & TAG_MASK, number);
+            if (outcome.result() != result || outcome.fetchesSpent() != (int) (recorded >>> TAG_BITS)) {
+                throw new IllegalStateException("Game " + number + ", action " + action + " (" + outcome.action()
+                        + "): recorded " + result + " for " + (recorded >>> TAG_BITS) + " fetches, replayed "
+                        + outcome.result() + " for " + outcome.fetchesSpent());
+            }
+        }
+    }
+
+    /** @param values every constant of an enum
+     * @param ordinal an ordinal read from a game's record
+     * @param number the game's position in the log, for error messages
+     * @return the constant with the ordinal
+     * @throws IllegalStateException thrown if no constant has the ordinal, which only a corrupt log can hold */
+    private static <T> T decode(T[] values, long ordinal, int number) throws IllegalStateException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalStateException("Game " + number + " is corrupt: no "
+                    + values.getClass().getComponentType().getSimpleName() + " has ordinal " + ordinal);
+        }
+        return values[(int) ordinal];
+    }
+
+    /** @param log a log, positioned just after its header
+     * @return the length of the log up to the end of its last complete game */
+    private static long intactLength(ByteBuffer log) {
+        int intact = log.position();
+        try {
+            while (log.hasRemaining()) {
+                // the seed, the playable elements' bits, the difficulty, and element L
+                for (int i = 0; i < 5; i++) getVarint(log);
+                // actions and their outcomes, up to the end marker
+                for (long code = getVarint(log); (code & TAG_MASK) != END; code = getVarint(log)) getVarint(log);
+                intact = log.position();
+            }
+        } catch (BufferUnderflowException | IllegalStateException ex) {
+            // a game torn by a crash
+        }
+        return intact;
+    }
+
+    /** Writes a number as an unsigned LEB128 varint. */
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /** @return the unsigned LEB128 varint at the buffer's position
+     * @throws IllegalStateException thrown if the varint is longer than a long */
+    static long getVarint(ByteBuffer buffer) throws IllegalStateException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint at byte " + buffer.position());
+    }
+
+    /** Prints one game action by action, with the candidates left after each action and, for every action that cost
+     * fetches, what HintAdvisor would have done instead, to show where a lost game went wrong.
+     * @param game a replayed game */
+    static void printGame(GameEngine game) {
+        GameEngine.Config config = game.getConfig();
+        System.out.printf("Element L: %s, %s, %d fetches%n", game.getElementL(), config.playableElements(),
+                config.startingFetches());
+        GameEngine shadow = (game.getSeed() == GameEngine.NO_SEED) ? new GameEngine(config, game.getElementL())
+                : new GameEngine(config, game.getSeed());
+        int step = 1;
+        for (GameEngine.Outcome outcome : game.getHistory()) {
+            String advice = HintAdvisor.rank(shadow).get(0).label();
+            shadow.apply(outcome.action());
+            String label = HintAdvisor.label(outcome.action().kind(), outcome.action().value());
+            System.out.printf("%d. %s: %s, %d fetches left, %d candidates%s%n", step++, label, outcome.result(),
+                    outcome.fetchesLeft(), shadow.getCandidates().size(),
+                    (outcome.fetchesSpent() > 0 && !advice.equals(label)) ? " (advisor: " + advice + ")" : "");
+        }
+        System.out.println(game.getStatus());
+    }
+
+    /** Replays a log and reports how long it took.
+     * Arguments: [log file (default LOG_FILE)] [number of most recent games to print action by action (default 0)] */
+    public static void main(String[] args) throws IOException {
+        String logFile = (args.length > 0) ? args[0] : LOG_FILE;
+        int shown = (args.length > 1) ? Integer.parseInt(args[1]) : 0;
+        long start = System.nanoTime();
+        List<GameEngine> games = replay(logFile);
+        long elapsed = System.nanoTime() - start;
+        int wins = 0;
+        for (GameEngine game : games) {
+            if (game.getStatus() == GameEngine.Status.WON) wins++;
+        }
+        System.out.printf("Replayed %d games (%d won) in %.1f ms; every outcome matches the log.%n", games.size(), wins,
+                elapsed / 1e6);
+        for (int i = Math.max(0, games.size() - shown); i < games.size(); i++) {
+            System.out.printf("%nGame %d%n", i + 1);
+            printGame(games.get(i));
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** The numbers and extra hints of one variant of the Element-L game: what each wrong guess and hint costs, how many
+ * fetches each difficulty level starts with, and which HintTypes can be gotten besides the modulus 3 hint. STANDARD
+ * is the game as ElementLGame plays it; other variants are read from a rules file and passed to GameEngine through
+ * its Config, so a simulation (Tournament, or BatchRunner's rules command) can try one without recompiling.
+ * <p>A rules file is compiled once, when it is loaded, into tables GameEngine and HintAdvisor index directly: a cost
+ * per action kind, and for the extra hints their precomputed partitions, their costs, and their index by type id.
+ * A turn of a variant therefore does the same work as a turn of the standard game.
+ * <p>Rules files have one rule per line; blank lines and lines starting with '#' are skipped, and anything not set
+ * keeps its standard value:
+ * <ul>
+ * <li>cost KIND FETCHES: the cost of a wrong guess of a kind (element, row, column, family, or metallic-state), or of
+ *     the modulus 3 hint (modulus-3);</li>
+ * <li>level NAME FETCHES: a difficulty level, chosen by its name or first letter. The first level line replaces the
+ *     standard levels;</li>
+ * <li>bonus FETCHES: the extra fetches given when lanthanides or actinides can be element L;</li>
+ * <li>hint FETCHES SPEC: an extra hint and its cost, with SPEC as in HintType (e.g. "hint 1 block",
+ *     "hint 2 range 1-36 37-86").</li>
+ * </ul>
+ * Only games played by the standard rules can be written to a GameLog or SessionJournal, whose records do not hold
+ * the rules. GameSolver, and so Strategy.OPTIMAL, also only knows the standard rules. */
+final class GameRules {
+    /** Most extra hints a variant can offer. */
+    static final int MAX_HINTS = 64;
+    /** Cost of a wrong element guess, of any other wrong guess, and of the modulus 3 hint, by the standard rules. Read
+     * through STANDARD.cost(). */
+    private static final int WRONG_ELEMENT_COST = 2;
+    private static final int WRONG_GUESS_COST = 1;
+    private static final int MODULUS_3_COST = 1;
+
+    /** A difficulty level.
+     * @param name the level's name, in upper case (e.g. "HYDROGEN")
+     * @param fetches the base number of fetches of a game at the level */
+    record Level(String name, int fetches) {}
+
+    /** The rules ElementLGame plays by. */
+    static final GameRules STANDARD;
+
+    static {
+        int[] costs = new int[ActionKind.values().length];
+        Arrays.fill(costs, WRONG_GUESS_COST);
+        costs[ActionKind.ELEMENT.ordinal()] = WRONG_ELEMENT_COST;
+        costs[ActionKind.MODULUS_3.ordinal()] = MODULUS_3_COST;
+        costs[ActionKind.HINT.ordinal()] = 0;
+        Level[] levels = {new Level("HYDROGEN", ElementLGame.HYDROGEN_LEVEL),
+                new Level("IRON", ElementLGame.IRON_LEVEL), new Level("GOLD", ElementLGame.GOLD_LEVEL),
+                new Level("URANIUM", ElementLGame.URANIUM_LEVEL)};
+        STANDARD = new GameRules("standard", costs, GameEngine.Config.LANTHANIDES_ACTINIDES_BONUS, levels,
+                new HintType[0], new int[0]);
+    }
+
+    private final String name;
+    /** The cost of a wrong guess of each kind, or of the modulus 3 hint, indexed by kind ordinal. */
+    private final int[] costs;
+    private final int lanthanidesActinidesBonus;
+    private final Level[] levels;
+    /** The extra hints and their costs, in the order of the rules file. */
+    private final HintType[] hints;
+    private final int[] hintCosts;
+    /** The index in hints of every hint type, by type id, or -1 for a type the rules do not offer. */
+    private final int[] hintIndex;
+
+    private GameRules(String name, int[] costs, int lanthanidesActinidesBonus, Level[] levels, HintType[] hints,
+                      int[] hintCosts) {
+        this.name = name;
+        this.costs = costs;
+        this.lanthanidesActinidesBonus = lanthanidesActinidesBonus;
+        this.levels = levels;
+        this.hints = hints;
+        this.hintCosts = hintCosts;
+        int maxId = -1;
+        for (HintType hint : hints) maxId = Math.max(maxId, hint.getId());
+        this.hintIndex = new int[maxId + 1];
+        Arrays.fill(hintIndex, -1);
+        for (int i = 0; i < hints.length; i++) hintIndex[hints[i].getId()] = i;
+    }
+
+    /** Reads a rules file.
+     * @param file the file's path
+     * @return the rules
+     * @throws IOException thrown if the file cannot be read
+     * @throws IllegalArgumentException thrown if a line is not a rule (the message gives the line) */
+    static GameRules load(String file) throws IOException, IllegalArgumentException {
+        try (InputStream in = new FileInputStream(file)) {
+            return parse(in, file);
+        }
+    }
+
+    /** Reads rules.
+     * @param in the rules, as in a rules file; not closed
+     * @param name the rules' name, for getName() and error messages
+     * @return the rules
+     * @throws IOException thrown if the rules cannot be read
+     * @throws IllegalArgumentException thrown if a line is not a rule (the message gives the line) */
+    static GameRules parse(InputStream in, String name) throws IOException, IllegalArgumentException {
+        int[] costs = STANDARD.costs.clone();
+        int bonus = STANDARD.lanthanidesActinidesBonus;
+        List<Level> levels = new ArrayList<>();
+        List<HintType> hints = new ArrayList<>();
+        List<Integer> hintCosts = new ArrayList<>();
+        LineTokenizer rules = new LineTokenizer(in);
+        while (rules.next()) {
+            if (rules.tokenCount() == 0 || rules.token(0).startsWith("#")) continue;
+            try {
+                if (rules.tokenIs(0, "cost")) {
+                    ActionKind kind = parseKind(rules.token(1));
+                    costs[kind.ordinal()] = fetches(rules, 2);
+                } else if (rules.tokenIs(0, "level")) {
+                    String level = rules.token(1).toUpperCase();
+                    for (Level other : levels) {
+                        if (other.name().equals(level)) throw new IllegalArgumentException("Duplicate level: " + level);
+                    }
+                    int fetches = fetches(rules, 2);
+                    if (fetches < 1) throw new IllegalArgumentException("A level needs at least 1 fetch");
+                    levels.add(new Level(level, fetches));
+                } else if (rules.tokenIs(0, "bonus")) {
+                    bonus = fetches(rules, 1);
+                } else if (rules.tokenIs(0, "hint")) {
+                    int cost = fetches(rules, 1);
+                    HintType hint = HintType.define(rules.rest(2));
+                    if (hints.contains(hint)) throw new IllegalArgumentException("Duplicate hint: " + hint.getSpec());
+                    if (hints.size() == MAX_HINTS) {
+                        throw new IllegalArgumentException("More than " + MAX_HINTS + " hints");
+                    }
+                    hints.add(hint);
+                    hintCosts.add(cost);
+                } else {
+                    throw new IllegalArgumentException("Unknown rule: " + rules.token(0));
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException(name + ":" + rules.getLineNumber() + ": " + ex.getMessage(), ex);
+            }
+        }
+        return new GameRules(name, costs, bonus, levels.isEmpty() ? STANDARD.levels : levels.toArray(new Level[0]),
+                hints.toArray(new HintType[0]), hintCosts.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** @return the token at an index as a number of fetches */
+    private static int fetches(LineTokenizer rules, int index) throws IllegalArgumentException {
+        long fetches = rules.longToken(index);
+        if (fetches < 0 || fetches > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Not a number of fetches: " + rules.token(index));
+        }
+        return (int) fetches;
+    }
+
+    /** @param name element, row, column, family, metallic-state, or modulus-3 */
+    private static ActionKind parseKind(String name) throws IllegalArgumentException {
+        for (ActionKind kind : ActionKind.values()) {
+            if (kind != ActionKind.HINT && kind.name().replace('_', '-').equalsIgnoreCase(name)) return kind;
+        }
+        throw new IllegalArgumentException("Unknown cost: " + name
+                + " (element, row, column, family, metallic-state, or modulus-3)");
+    }
+
+    /** @return the rules file's path, or "standard" */
+    String getName() {
+        return name;
+    }
+
+    /** @param kind any kind but HINT (see hintCost())
+     * @return the fetches a wrong guess of the kind costs, or for MODULUS_3, the fetches the hint costs */
+    int cost(ActionKind kind) {
+        return costs[kind.ordinal()];
+    }
+
+    int getLanthanidesActinidesBonus() {
+        return lanthanidesActinidesBonus;
+    }
+
+    /** @return every difficulty level, in the order of the rules */
+    List<Level> levels() {
+        return List.of(levels);
+    }
+
+    /** @param text a level's name or first letter, ignoring case
+     * @return the level's base number of fetches, or 0 if no level has the name (the first level with the letter
+     * wins) */
+    int parseLevel(String text) {
+        for (Level level : levels) {
+            if (level.name().equalsIgnoreCase(text)
+                    || text.length() == 1 && Character.toUpperCase(text.charAt(0)) == level.name().charAt(0)) {
+                return level.fetches();
+            }
+        }
+        return 0;
+    }
+
+    /** @return the number of extra hints */
+    int hintCount() {
+        return hints.length;
+    }
+
+    /** @param index an extra hint's index, from 0 to hintCount() - 1 */
+    HintType hint(int index) {
+        return hints[index];
+    }
+
+    /** @param index an extra hint's index, from 0 to hintCount() - 1
+     * @return the fetches the hint costs */
+    int hintCost(int index) {
+        return hintCosts[index];
+    }
+
+    /** @param typeId a HintType's id
+     * @return the index of the type among the extra hints, or -1 if the rules do not offer it */
+    int hintIndex(int typeId) {
+        return (typeId >= 0 && typeId < hintIndex.length) ? hintIndex[typeId] : -1;
+    }
+
+    /** @return true if games by these rules play out exactly as by STANDARD (levels aside, which a game's Config
+     * records as its difficulty), so they can be logged and replayed */
+    boolean isStandard() {
+        return Arrays.equals(costs, STANDARD.costs) && lanthanidesActinidesBonus == STANDARD.lanthanidesActinidesBonus
+                && hints.length == 0;
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Local TCP server hosting one ElementLGame session per connection, with the same line-based prompts and commands as
+ * the console game (try it with "nc localhost 5151").
+ * Every session has its own Scanner, PrintStream, and GameEngine, so sessions share nothing mutable except the game
+ * log, the session journal, and the player statistics, which are synchronized. The element data (ElementRegistry,
+ * ElementNameIndex, HintAdvisor, CandidateTracker) is built once before the first connection is accepted and only read
+ * afterwards, so sessions read it without locks.
+ * <p>Each connection runs on its own virtual thread when the JVM has them (Java 21+), looked up reflectively so the
+ * server still builds on older JDKs; otherwise it falls back to a cached pool of platform threads.
+ * <p>The server counts sessions and measures each session's accept-to-first-prompt latency; "java GameServer bench N"
+ * opens N concurrent sessions against an in-process server and reports the latency and heap used per session. */
+final class GameServer implements Closeable {
+    /** Default port, on the loopback address. */
+    static final int DEFAULT_PORT = 5151;
+
+    private final ServerSocket serverSocket;
+    /** Runs each session: on a new virtual thread, or on the fallback pool. */
+    private final Executor executor;
+    /** The fallback pool of platform threads, or null when sessions run on virtual threads. */
+    private final ExecutorService pool;
+    /** True if executor runs each session on a virtual thread. */
+    private final boolean virtualThreads;
+    private final GameLog.Writer log;
+    private final SessionJournal journal;
+    private final PlayerStats stats;
+    private final Thread acceptor;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder totalSessions = new LongAdder();
+    private final LongAdder firstPromptNanos = new LongAdder();
+    private final LongAdder firstPrompts = new LongAdder();
+    private final AtomicLong maxFirstPromptNanos = new AtomicLong();
+
+    /** Starts accepting connections on the loopback address.
+     * @param port the port, or 0 for any free port (see getPort())
+     * @param log where finished games are recorded, or null to not record them. Not closed by the server.
+     * @param journal where games in progress are journaled, or null to not journal them. Unfinished games it
+     *                recovered are offered to the next players who connect. Not closed by the server.
+     * @param stats where named players' games are counted, or null to not count them. Not closed by the server.
+     * @throws IOException thrown if the port cannot be bound */
+    GameServer(int port, GameLog.Writer log, SessionJournal journal, PlayerStats stats) throws IOException {
+        // load every shared table now, so no session pays for (or races on) class initialization
+        ElementRegistry.table();
+        ElementNameIndex.resolve("hydrogen");
+        HintAdvisor.rank(ElementList.ALL_ELEMENTS_SET, EnumSet.noneOf(ActionKind.class));
+        this.log = log;
+        this.journal = journal;
+        this.stats = stats;
+        ThreadFactory virtualFactory = virtualThreadFactory();
+        this.virtualThreads = virtualFactory != null;
+        this.pool = virtualThreads ? null : Executors.newCachedThreadPool();
+        this.executor = virtualThreads ? task -> virtualFactory.newThread(task).start() : pool;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.acceptor = new Thread(this::acceptLoop, "GameServer acceptor");
+        acceptor.start();
+    }
+
+    /** @return a factory of virtual threads (Thread.ofVirtual().factory()), or null if the JVM has none */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            // through the public Thread.Builder interface: the builder's own class is not accessible
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                long acceptedAt = System.nanoTime();
+                executor.execute(() -> runSession(socket, acceptedAt));
+            } catch (IOException ex) {
+                // the server socket was closed
+            }
+        }
+    }
+
+    /** Plays games with one connection until the player stops or disconnects. */
+    private void runSession(Socket socket, long acceptedAt) {
+        activeSessions.incrementAndGet();
+        totalSessions.increment();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            Scanner scanner = new Scanner(new BufferedInputStream(socket.getInputStream()), StandardCharsets.UTF_8);
+            PrintStream out = new PrintStream(new FirstFlushTimer(socket.getOutputStream(), acceptedAt), true,
+                    StandardCharsets.UTF_8);
+            Main.runElementLGame(scanner, out, log, journal, stats);
+            out.println("Goodbye!");
+        } catch (IOException | NoSuchElementException | IllegalStateException ex) {
+            // the player disconnected (Scanner throws NoSuchElementException at the end of input)
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /** Buffers a session's output and records the time from accepting the connection to the first flush, which is
+     * when the first prompt reaches the player. */
+    private final class FirstFlushTimer extends BufferedOutputStream {
+        private final long acceptedAt;
+        private boolean flushed;
+
+        FirstFlushTimer(OutputStream out, long acceptedAt) {
+            super(out);
+            this.acceptedAt = acceptedAt;
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            super.flush();
+            if (!flushed) {
+                flushed = true;
+                long nanos = System.nanoTime() - acceptedAt;
+                firstPromptNanos.add(nanos);
+                firstPrompts.increment();
+                maxFirstPromptNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+    }
+
+    /** @return the port the server listens on */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return true if sessions run on virtual threads, false if on platform threads */
+    boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** @return sessions currently connected */
+    int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /** @return sessions accepted since the server started */
+    long getTotalSessions() {
+        return totalSessions.sum();
+    }
+
+    /** @return mean time from accepting a connection to its first prompt, in microseconds */
+    double getMeanFirstPromptMicros() {
+        long count = firstPrompts.sum();
+        return (count == 0) ? 0 : firstPromptNanos.sum() / 1e3 / count;
+    }
+
+    /** @return longest time from accepting a connection to its first prompt, in microseconds */
+    double getMaxFirstPromptMicros() {
+        return maxFirstPromptNanos.get() / 1e3;
+    }
+
+    /** Stops accepting connections. Sessions already connected keep playing until they end. */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        if (pool != null) pool.shutdown();
+    }
+
+    /** @return bytes of heap in use after a garbage collection */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Opens sessions concurrently against an in-process server, waits for every first prompt, and reports the
+     * latency and the heap each idle session holds.
+     * @param sessions the number of concurrent sessions */
+    private static void bench(int sessions) throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0, null, null, null)) {
+            long before = usedHeap();
+            Socket[] clients = new Socket[sessions];
+            byte[] firstLine = new byte[64];
+            for (int i = 0; i < sessions; i++) {
+                clients[i] = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                // wait for the welcome message, so every session is parked on its first prompt
+                if (clients[i].getInputStream().read(firstLine) < 0) throw new IOException("Session " + i + " closed");
+            }
+            while (server.getActiveSessions() < sessions) Thread.sleep(10);
+            long after = usedHeap();
+            System.out.printf("%d sessions on %s threads%n", sessions,
+                    server.usesVirtualThreads() ? "virtual" : "platform");
+            System.out.printf("Accept to first prompt: mean %.0f us, max %.0f us%n", server.getMeanFirstPromptMicros(),
+                    server.getMaxFirstPromptMicros());
+            System.out.printf("Heap per idle session: about %.1f KB (client sockets included)%n",
+                    (after - before) / 1024.0 / sessions);
+            for (Socket client : clients) client.close();
+        }
+    }
+
+    /** Arguments: [port (default DEFAULT_PORT)] to serve games, or "bench" [sessions (default 1000)] to measure. */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equalsIgnoreCase("bench")) {
+            bench((args.length > 1) ? Integer.parseInt(args[1]) : 1000);
+            return;
+        }
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameLog.Writer log = new GameLog.Writer(GameLog.LOG_FILE);
+        SessionJournal journal = new SessionJournal(SessionJournal.JOURNAL_FILE, SessionJournal.SNAPSHOT_FILE);
+        PlayerStats stats = new PlayerStats(PlayerStats.STATS_DIRECTORY);
+        GameServer server = new GameServer(port, log, journal, stats);
+        System.out.printf("Serving Element-L games on localhost:%d (%s threads); %d unfinished games recovered%n",
+                server.getPort(), server.usesVirtualThreads() ? "virtual" : "platform", journal.getUnclaimedCount());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                log.close();
+                journal.close();
+                stats.close();
+            } catch (IOException ignored) {}
+        }));
+        while (true) {
+            Thread.sleep(60_000);
+            System.out.printf("%d active sessions, %d total; first prompt mean %.0f us, max %.0f us%n",
+                    server.getActiveSessions(), server.getTotalSessions(), server.getMeanFirstPromptMicros(),
+                    server.getMaxFirstPromptMicros());
+        }
+    }
+}
@@ -0,0 +1,404 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/** Exact minimax solver for the Element-L game: for a set of candidates and a number of fetches, it finds how many of
+ * the candidates a perfect player wins (element L is equally likely to be any candidate), and the play that does it.
+ * <p>The rules are ElementLGame's: a correct guess is free, a wrong element guess costs 2 fetches, any other wrong
+ * guess and the modulus 3 hint cost 1, and the player loses as soon as the fetches reach 0. Which row, column, family,
+ * and metallic state are known never needs to be tracked separately: once one is known, every candidate shares it,
+ * so guessing it again cannot split the candidates. A state is therefore just (candidate bitset, fetches).
+ * <p>The search is kept small by:
+ * <ul>
+ * <li>a concurrent transposition table keyed by the state, shared by every thread;</li>
+ * <li>symmetry: actions that split the candidates the same way (e.g. a family and a column with the same members
+ *     among the candidates) are searched once;</li>
+ * <li>dominance: actions that cannot split the candidates are skipped, and an element guess is skipped when a free-if-
+ *     correct group guess isolates the same element;</li>
+ * <li>bounds: an action is abandoned once its outcomes cannot beat the best action so far, and the search stops as
+ *     soon as an action reaches the upper bound for the state;</li>
+ * <li>fork-join parallelism over the first move's actions.</li>
+ * </ul> */
+final class GameSolver {
+    /** Fetches a wrong element guess, a wrong group guess, and the modulus 3 hint cost, by the standard rules. */
+    private static final int WRONG_ELEMENT_COST = GameRules.STANDARD.cost(ActionKind.ELEMENT);
+    private static final int WRONG_GUESS_COST = GameRules.STANDARD.cost(ActionKind.ROW);
+    private static final int MODULUS_3_COST = GameRules.STANDARD.cost(ActionKind.MODULUS_3);
+    /** Most free (correct) group guesses on any line of play: one each for row, column, family, and metallic state. */
+    private static final int GROUP_KINDS = 4;
+    /** Most fetches any game starts with. */
+    private static final int MAX_FETCHES = ElementLGame.HYDROGEN_LEVEL + 2;
+    /** PLAY_BOUND[f][c][m]: most wins possible with f fetches, c group kinds left to learn, and the modulus 3 hint
+     * still useful (m = 1) or not (m = 0), however many candidates there are. */
+    private static final int[][][] PLAY_BOUND = new int[MAX_FETCHES + 1][GROUP_KINDS + 1][2];
+    /** Group guesses, each the set of elements for which the guess is correct, by kind. */
+    private static final ElementSet[][] GROUPS_BY_KIND = new ElementSet[GROUP_KINDS][];
+    /** The kind and value (as in HintAdvisor.Advice) of each group guess, matching GROUPS_BY_KIND. */
+    private static final ActionKind[] KIND_ORDER = {ActionKind.ROW, ActionKind.COLUMN,
+            ActionKind.FAMILY, ActionKind.METALLIC_STATE};
+
+    static {
+        GROUPS_BY_KIND[0] = new ElementSet[7];
+        for (int period = 1; period <= 7; period++) GROUPS_BY_KIND[0][period - 1] = CandidateTracker.periodSet(period);
+        GROUPS_BY_KIND[1] = new ElementSet[Column.values().length];
+        for (Column column : Column.values()) GROUPS_BY_KIND[1][column.ordinal()] = CandidateTracker.columnSet(column);
+        GROUPS_BY_KIND[2] = new ElementSet[Family.values().length];
+        for (Family family : Family.values()) GROUPS_BY_KIND[2][family.ordinal()] = CandidateTracker.familySet(family);
+        GROUPS_BY_KIND[3] = new ElementSet[MetallicState.values().length];
+        for (MetallicState state : MetallicState.values()) {
+            GROUPS_BY_KIND[3][state.ordinal()] = CandidateTracker.metallicStateSet(state);
+        }
+        for (int f = 1; f <= MAX_FETCHES; f++) {
+            for (int c = 0; c <= GROUP_KINDS; c++) {
+                for (int m = 0; m <= 1; m++) {
+                    // guess an element: win now, or carry on with fewer fetches
+                    int best = 1 + ((f > WRONG_ELEMENT_COST) ? PLAY_BOUND[f - WRONG_ELEMENT_COST][c][m] : 0);
+                    // guess a group: free if correct
+                    if (c > 0) {
+                        best = Math.max(best, PLAY_BOUND[f][c - 1][m]
+                                + ((f > WRONG_GUESS_COST) ? PLAY_BOUND[f - WRONG_GUESS_COST][c][m] : 0));
+                    }
+                    // the modulus 3 hint: 3 outcomes, each paid for
+                    if (m == 1 && f > MODULUS_3_COST) best = Math.max(best, 3 * PLAY_BOUND[f - MODULUS_3_COST][c][0]);
+                    PLAY_BOUND[f][c][m] = best;
+                }
+            }
+        }
+    }
+
+    /** A state of the game: the candidates (as the two longs of an ElementSet) and the fetches left. */
+    private record State(long low, long high, int fetches) {}
+
+    /** The best action for a state, and how many candidates it wins. */
+    private record Result(int wins, ActionKind kind, int value) {}
+
+    /** Every state solved so far. */
+    private final ConcurrentHashMap<State, Result> table = new ConcurrentHashMap<>();
+
+    /** @param candidates the elements element L can be
+     * @param fetches the fetches left
+     * @return how many of the candidates perfect play wins */
+    int solve(ElementSet candidates, int fetches) {
+        if (candidates.size() <= 1 || fetches <= 1) return Math.min(candidates.size(), (fetches > 0) ? 1 : 0);
+        State state = new State(candidates.getLowBits(), candidates.getHighBits(), fetches);
+        Result cached = table.get(state);
+        if (cached != null) return cached.wins();
+        Result result = search(candidates, fetches);
+        table.put(state, result);
+        return result.wins();
+    }
+
+    /** Solves the first move with every action's subtree in its own fork-join task.
+     * @return how many of the candidates perfect play wins */
+    int solveParallel(ElementSet candidates, int fetches) {
+        if (candidates.size() <= 1 || fetches <= 1) return solve(candidates, fetches);
+        List<int[]> actions = actions(candidates, fetches);
+        List<RecursiveTask<Integer>> tasks = new ArrayList<>();
+        for (int[] action : actions) {
+            tasks.add(new RecursiveTask<>() {
+                @Override
+                protected Integer compute() {
+                    return value(candidates, fetches, action, -1);
+                }
+            });
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        Result best = new Result(0, null, 0);
+        for (int i = 0; i < actions.size(); i++) {
+            int wins = tasks.get(i).join();
+            if (wins > best.wins()) best = new Result(wins, ActionKind.values()[actions.get(i)[0]], actions.get(i)[1]);
+        }
+        table.put(new State(candidates.getLowBits(), candidates.getHighBits(), fetches), best);
+        return best.wins();
+    }
+
+    /** @return the best result among every useful action */
+    private Result search(ElementSet candidates, int fetches) {
+        int bound = upperBound(candidates, fetches);
+        Result best = new Result(0, null, 0);
+        for (int[] action : actions(candidates, fetches)) {
+            int wins = value(candidates, fetches, action, best.wins());
+            if (wins > best.wins()) {
+                best = new Result(wins, ActionKind.values()[action[0]], action[1]);
+                if (wins >= bound) break;
+            }
+        }
+        return best;
+    }
+
+    /** @param action kind ordinal and value of the action, as returned by actions()
+     * @param toBeat the wins the action must beat to matter; once it cannot, the search of the action stops early
+     * @return how many candidates the action wins with perfect play afterwards (or a lower number, if it cannot
+     * beat toBeat) */
+    private int value(ElementSet candidates, int fetches, int[] action, int toBeat) {
+        ActionKind kind = ActionKind.values()[action[0]];
+        if (kind == ActionKind.ELEMENT) {
+            ElementSet rest = candidates.minus(ElementSet.of(Element.of(action[1])));
+            int left = fetches - WRONG_ELEMENT_COST;
+            if (1 + Math.min(rest.size(), (left > 0) ? upperBound(rest, left) : 0) <= toBeat) return 0;
+            return 1 + ((left > 0) ? solve(rest, left) : 0);
+        }
+        if (kind == ActionKind.MODULUS_3) {
+            ElementSet[] parts = new ElementSet[3];
+            int optimistic = 0;
+            for (int remainder = 0; remainder < 3; remainder++) {
+                parts[remainder] = candidates.intersect(CandidateTracker.modulus3Set(remainder));
+                optimistic += upperBound(parts[remainder], fetches - MODULUS_3_COST);
+            }
+            int wins = 0;
+            for (int remainder = 0; remainder < 3; remainder++) {
+                if (optimistic <= toBeat) return 0;
+                int partWins = solve(parts[remainder], fetches - MODULUS_3_COST);
+                optimistic += partWins - upperBound(parts[remainder], fetches - MODULUS_3_COST);
+                wins += partWins;
+            }
+            return wins;
+        }
+        ElementSet group = group(kind, action[1]);
+        ElementSet correct = candidates.intersect(group);
+        ElementSet wrong = candidates.minus(group);
+        int left = fetches - WRONG_GUESS_COST;
+        int wrongBound = (left > 0) ? upperBound(wrong, left) : 0;
+        if (upperBound(correct, fetches) + wrongBound <= toBeat) return 0;
+        int wins = solve(correct, fetches);
+        if (wins + wrongBound <= toBeat) return 0;
+        return wins + ((left > 0) ? solve(wrong, left) : 0);
+    }
+
+    /** @param kind ROW, COLUMN, FAMILY, or METALLIC_STATE
+     * @param value the period, or the ordinal of the column, family, or metallic state
+     * @return the elements for which the guess is correct */
+    private static ElementSet group(ActionKind kind, int value) {
+        return (kind == ActionKind.ROW) ? CandidateTracker.periodSet(value)
+                : GROUPS_BY_KIND[kind.ordinal() - 1][value];
+    }
+
+    /** @return the most candidates any play could win: no more than the candidates, nor than PLAY_BOUND allows */
+    private static int upperBound(ElementSet candidates, int fetches) {
+        if (fetches <= 0 || candidates.isEmpty()) return 0;
+        int kindsLeft = 0;
+        for (ElementSet[] groups : GROUPS_BY_KIND) {
+            if (splits(candidates, groups)) kindsLeft++;
+        }
+        int modulusUseful = 0;
+        for (int remainder = 0; remainder < 3; remainder++) {
+            int size = candidates.intersectionSize(CandidateTracker.modulus3Set(remainder));
+            if (size > 0 && size < candidates.size()) modulusUseful = 1;
+        }
+        return Math.min(candidates.size(), PLAY_BOUND[Math.min(fetches, MAX_FETCHES)][kindsLeft][modulusUseful]);
+    }
+
+    /** @return true if some group guess of the kind would split the candidates */
+    private static boolean splits(ElementSet candidates, ElementSet[] groups) {
+        for (ElementSet group : groups) {
+            int size = candidates.intersectionSize(group);
+            if (size > 0 && size < candidates.size()) return true;
+        }
+        return false;
+    }
+
+    /** @return every useful action as {kind ordinal, value}, with duplicates and dominated actions removed, in order
+     * of HintAdvisor's score so good actions are searched first */
+    private static List<int[]> actions(ElementSet candidates, int fetches) {
+        int n = candidates.size();
+        List<int[]> actions = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        HashSet<ElementSet> seenSplits = new HashSet<>();
+        ElementSet isolated = ElementSet.EMPTY;
+        for (int k = 0; k < GROUP_KINDS; k++) {
+            for (int value = 0; value < GROUPS_BY_KIND[k].length; value++) {
+                ElementSet correct = candidates.intersect(GROUPS_BY_KIND[k][value]);
+                int size = correct.size();
+                if (size == 0 || size == n || !seenSplits.add(correct)) continue;
+                if (size == 1) isolated = isolated.union(correct);
+                // rows are numbered from 1
+                actions.add(new int[]{KIND_ORDER[k].ordinal(), (k == 0) ? value + 1 : value});
+                scores.add(score(n, size, 1));
+            }
+        }
+        for (int z = candidates.next(0); z != 0; z = candidates.next(z)) {
+            if (isolated.contains(z)) continue;
+            actions.add(new int[]{ActionKind.ELEMENT.ordinal(), z});
+            scores.add(score(n, 1, 2));
+        }
+        if (fetches > 1) {
+            int parts = 0;
+            double remaining = 0;
+            for (int remainder = 0; remainder < 3; remainder++) {
+                int size = candidates.intersectionSize(CandidateTracker.modulus3Set(remainder));
+                if (size > 0) parts++;
+                remaining += (size > 0) ? size * Math.log(size) : 0;
+            }
+            if (parts > 1) {
+                actions.add(new int[]{ActionKind.MODULUS_3.ordinal(), 0});
+                scores.add((Math.log(n) - remaining / n) / Math.log(2));
+            }
+        }
+        Integer[] order = new Integer[actions.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        List<int[]> sorted = new ArrayList<>(order.length);
+        for (int i : order) sorted.add(actions.get(i));
+        return sorted;
+    }
+
+    /** @return expected bits gained per expected fetch for a guess that is correct for inGroup of n candidates */
+    private static double score(int n, int inGroup, int wrongCost) {
+        int out = n - inGroup;
+        double after = (inGroup * Math.log(inGroup) + ((out > 0) ? out * Math.log(out) : 0)) / n;
+        return (Math.log(n) - after) / Math.log(2) / ((double) wrongCost * out / n);
+    }
+
+    /** @return the best first action for the state, solving it if it has not been solved, or null if the state is
+     * already decided (one candidate, or no fetches to act with) */
+    HintAdvisor.Advice bestAction(ElementSet candidates, int fetches) {
+        if (candidates.isEmpty() || fetches <= 0) return null;
+        if (candidates.size() == 1 || fetches == 1) {
+            return new HintAdvisor.Advice(ActionKind.ELEMENT, candidates.next(0), 0, 0, 0);
+        }
+        solve(candidates, fetches);
+        Result result = table.get(new State(candidates.getLowBits(), candidates.getHighBits(), fetches));
+        return new HintAdvisor.Advice(result.kind(), result.value(), 0, 0, result.wins());
+    }
+
+    /** Plays the optimal policy against one element L.
+     * @return the fetches spent before guessing element L correctly, or -1 if the policy loses against it */
+    int fetchesToWin(ElementSet candidates, int fetches, int elementL) {
+        int spent = 0;
+        while (fetches > 0) {
+            HintAdvisor.Advice action = bestAction(candidates, fetches);
+            if (action == null) return -1;
+            int cost;
+            switch (action.kind()) {
+                case ELEMENT -> {
+                    if (action.value() == elementL) return spent;
+                    candidates = candidates.minus(ElementSet.of(Element.of(action.value())));
+                    cost = WRONG_ELEMENT_COST;
+                }
+                case MODULUS_3 -> {
+                    candidates = candidates.intersect(CandidateTracker.modulus3Set(elementL % 3));
+                    cost = MODULUS_3_COST;
+                }
+                default -> {
+                    ElementSet group = group(action.kind(), action.value());
+                    boolean correct = group.contains(elementL);
+                    candidates = correct ? candidates.intersect(group) : candidates.minus(group);
+                    cost = correct ? 0 : WRONG_GUESS_COST;
+                }
+            }
+            fetches -= cost;
+            spent += cost;
+        }
+        return -1;
+    }
+
+    /** Prints the optimal policy as a decision tree.
+     * @param out where the tree is printed
+     * @param maxDepth the deepest level of the tree printed */
+    void printPolicy(PrintStream out, ElementSet candidates, int fetches, int maxDepth) {
+        printPolicy(out, candidates, fetches, maxDepth, "");
+    }
+
+    private void printPolicy(PrintStream out, ElementSet candidates, int fetches, int depth, String indent) {
+        HintAdvisor.Advice action = bestAction(candidates, fetches);
+        if (action == null) {
+            out.printf("%slost (%d candidates)%n", indent, candidates.size());
+            return;
+        }
+        int wins = (candidates.size() == 1 || fetches == 1) ? 1 : (int) action.score();
+        out.printf("%s%s [%d candidates, %d fetches, wins %d]%n", indent, action.label(), candidates.size(), fetches,
+                wins);
+        if (depth <= 1 || action.kind() == ActionKind.ELEMENT && candidates.size() == 1) return;
+        String next = indent + "  ";
+        switch (action.kind()) {
+            case ELEMENT -> {
+                out.printf("%sif wrong:%n", next);
+                ElementSet rest = candidates.minus(ElementSet.of(Element.of(action.value())));
+                if (fetches > WRONG_ELEMENT_COST && !rest.isEmpty()) {
+                    printPolicy(out, rest, fetches - WRONG_ELEMENT_COST, depth - 1, next + "  ");
+                }
+            }
+            case MODULUS_3 -> {
+                for (int remainder = 0; remainder < 3; remainder++) {
+                    ElementSet part = candidates.intersect(CandidateTracker.modulus3Set(remainder));
+                    if (part.isEmpty()) continue;
+                    out.printf("%sif %% 3 = %d:%n", next, remainder);
+                    if (fetches > MODULUS_3_COST) {
+                        printPolicy(out, part, fetches - MODULUS_3_COST, depth - 1, next + "  ");
+                    }
+                }
+            }
+            default -> {
+                ElementSet group = group(action.kind(), action.value());
+                out.printf("%sif correct:%n", next);
+                printPolicy(out, candidates.intersect(group), fetches, depth - 1, next + "  ");
+                out.printf("%sif wrong:%n", next);
+                if (fetches > WRONG_GUESS_COST) {
+                    printPolicy(out, candidates.minus(group), fetches - WRONG_GUESS_COST, depth - 1, next + "  ");
+                }
+            }
+        }
+    }
+
+    /** Solves every difficulty, with and without lanthanides and actinides, and prints each one's best win rate and
+     * the elements whose optimal play needs the most fetches.
+     * Arguments: none for the summary; "policy", a difficulty letter (h/i/g/u), "y" or "n" for lanthanides and
+     * actinides, and optionally a depth, to print that game's optimal policy. */
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equalsIgnoreCase("policy")) {
+            int fetches = switch (args[1].toLowerCase()) {
+                case "h" -> ElementLGame.HYDROGEN_LEVEL;
+                case "i" -> ElementLGame.IRON_LEVEL;
+                case "g" -> ElementLGame.GOLD_LEVEL;
+                default -> ElementLGame.URANIUM_LEVEL;
+            };
+            boolean withLanthanidesActinides = args[2].equalsIgnoreCase("y");
+            ElementSet playable = withLanthanidesActinides ? ElementList.ALL_ELEMENTS_SET
+                    : ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET;
+            GameSolver solver = new GameSolver();
+            int start = fetches + (withLanthanidesActinides ? 2 : 0);
+            solver.solveParallel(playable, start);
+            solver.printPolicy(System.out, playable, start, (args.length > 3) ? Integer.parseInt(args[3]) : 3);
+            return;
+        }
+        String[] levels = {"HYDROGEN", "IRON", "GOLD", "URANIUM"};
+        int[] levelFetches = {ElementLGame.HYDROGEN_LEVEL, ElementLGame.IRON_LEVEL, ElementLGame.GOLD_LEVEL,
+                ElementLGame.URANIUM_LEVEL};
+        System.out.printf("%-9s%-26s%-9s%-10s%-12s%s%n", "Level", "Elements", "Fetches", "Wins", "Win rate",
+                "Most fetches spent to win");
+        for (boolean withLanthanidesActinides : new boolean[]{false, true}) {
+            ElementSet playable = withLanthanidesActinides ? ElementList.ALL_ELEMENTS_SET
+                    : ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET;
+            for (int i = 0; i < levels.length; i++) {
+                int fetches = levelFetches[i] + (withLanthanidesActinides ? 2 : 0);
+                GameSolver solver = new GameSolver();
+                int wins = solver.solveParallel(playable, fetches);
+                int worst = -1;
+                StringBuilder worstElements = new StringBuilder();
+                for (int z = playable.next(0); z != 0; z = playable.next(z)) {
+                    int spent = solver.fetchesToWin(playable, fetches, z);
+                    if (spent > worst) {
+                        worst = spent;
+                        worstElements.setLength(0);
+                    }
+                    if (spent == worst) worstElements.append(' ').append(Element.of(z).getAbbreviation());
+                }
+                System.out.printf("%-9s%-26s%-9d%-10s%-12s%d (%s)%n", levels[i],
+                        withLanthanidesActinides ? "all 118" : "no lanthanides/actinides", fetches,
+                        wins + "/" + playable.size(), String.format("%.1f%%", 100.0 * wins / playable.size()),
+                        worst, worstElements.toString().trim());
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/** Ranks every action a player can take by the information it is expected to give per fetch it is expected to cost.
+ * Every element is assumed equally likely to be element L, so the uncertainty left is log2 of the number of
+ * candidates. An action's expected gain is that uncertainty minus the expected uncertainty after seeing its outcome,
+ * and its expected cost follows the game's rules (see GameRules): by the standard rules a wrong element guess costs
+ * 2 fetches, any other wrong guess costs 1, a correct guess costs nothing, and the modulus 3 hint always costs 1.
+ * Every action's outcome groups are precomputed ElementSets (for extra hints, their HintType's classes), so scoring
+ * all ~170 actions against the candidates is a few hundred popcounts. */
+final class HintAdvisor {
+    /** One scored action.
+     * @param kind the kind of action
+     * @param value what is guessed: the atomic number, the period, or the ordinal of the column, family, or metallic
+     *              state (0 for the modulus 3 hint, and the HintType's id for an extra hint)
+     * @param expectedGain expected bits of information gained
+     * @param expectedCost expected fetches spent
+     * @param score expected gain per expected fetch; positive infinity for a guess that is certain to win */
+    record Advice(ActionKind kind, int value, double expectedGain, double expectedCost, double score) {
+        /** @return a description of the action for players (e.g. "guess row 4") */
+        String label() {
+            return HintAdvisor.label(kind, value);
+        }
+    }
+
+    // every binary action (everything but the modulus 3 hint), with the elements for which its guess is correct
+    private static final ActionKind[] KINDS;
+    private static final int[] VALUES;
+    private static final ElementSet[] GROUPS;
+    /** log2 of every possible candidate count, indexed by count (log2 of 0 is taken as 0). */
+    private static final double[] LOG2 = new double[Element.TOTAL_ELEMENT_COUNT + 1];
+
+    static {
+        int count = Element.TOTAL_ELEMENT_COUNT + 7 + Column.values().length + Family.values().length
+                + MetallicState.values().length;
+        KINDS = new ActionKind[count];
+        VALUES = new int[count];
+        GROUPS = new ElementSet[count];
+        int i = 0;
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++, i++) {
+            KINDS[i] = ActionKind.ELEMENT;
+            VALUES[i] = z;
+            GROUPS[i] = ElementSet.of(Element.of(z));
+        }
+        for (int period = 1; period <= 7; period++, i++) {
+            KINDS[i] = ActionKind.ROW;
+            VALUES[i] = period;
+            GROUPS[i] = CandidateTracker.periodSet(period);
+        }
+        for (Column column : Column.values()) {
+            KINDS[i] = ActionKind.COLUMN;
+            VALUES[i] = column.ordinal();
+            GROUPS[i++] = CandidateTracker.columnSet(column);
+        }
+        for (Family family : Family.values()) {
+            KINDS[i] = ActionKind.FAMILY;
+            VALUES[i] = family.ordinal();
+            GROUPS[i++] = CandidateTracker.familySet(family);
+        }
+        for (MetallicState state : MetallicState.values()) {
+            KINDS[i] = ActionKind.METALLIC_STATE;
+            VALUES[i] = state.ordinal();
+            GROUPS[i++] = CandidateTracker.metallicStateSet(state);
+        }
+        for (int n = 2; n < LOG2.length; n++) LOG2[n] = Math.log(n) / Math.log(2);
+    }
+
+    private HintAdvisor() {}
+
+    /** Scores every action that could tell the player something new in a game.
+     * @param game a game in progress
+     * @return the useful actions, best first (see the other rank()) */
+    static List<Advice> rank(GameEngine game) {
+        return rank(game.getCandidates(), game.getUnavailableKinds(), game.getConfig().rules(),
+                game.getRevealedHints());
+    }
+
+    /** Scores every action that could tell the player something new, by the standard rules.
+     * @param candidates the elements element L can still be
+     * @param unavailable kinds of action the player cannot take any more (e.g. ROW once the row is known)
+     * @return the useful actions, best first (see the other rank()) */
+    static List<Advice> rank(ElementSet candidates, EnumSet<ActionKind> unavailable) {
+        return rank(candidates, unavailable, GameRules.STANDARD, 0);
+    }
+
+    /** Scores every action that could tell the player something new.
+     * @param candidates the elements element L can still be
+     * @param unavailable kinds of action the player cannot take any more (e.g. ROW once the row is known)
+     * @param rules the costs of the actions, and the extra hints
+     * @param revealedHints extra hints already gotten, as bits of their index in the rules
+     * @return the useful actions, best first. Actions whose outcome is already certain are left out, except a guess of
+     * the only remaining candidate. */
+    static List<Advice> rank(ElementSet candidates, EnumSet<ActionKind> unavailable, GameRules rules,
+                             long revealedHints) {
+        List<Advice> advice = new ArrayList<>();
+        int n = candidates.size();
+        if (n == 0) return advice;
+        double uncertainty = LOG2[n];
+        for (int i = 0; i < GROUPS.length; i++) {
+            if (unavailable.contains(KINDS[i])) continue;
+            int inGroup = candidates.intersectionSize(GROUPS[i]);
+            if (KINDS[i] == ActionKind.ELEMENT && inGroup == n) {
+                advice.add(new Advice(ActionKind.ELEMENT, VALUES[i], 0, 0, Double.POSITIVE_INFINITY));
+                continue;
+            }
+            if (inGroup == 0 || inGroup == n) continue;
+            int outOfGroup = n - inGroup;
+            double gain = uncertainty - (inGroup * LOG2[inGroup] + outOfGroup * LOG2[outOfGroup]) / n;
+            double cost = (double) rules.cost(KINDS[i]) * outOfGroup / n;
+            advice.add(new Advice(KINDS[i], VALUES[i], gain, cost, gain / cost));
+        }
+        if (!unavailable.contains(ActionKind.MODULUS_3)) {
+            double remaining = 0;
+            for (int remainder = 0; remainder < 3; remainder++) {
+                int size = candidates.intersectionSize(CandidateTracker.modulus3Set(remainder));
+                remaining += size * LOG2[size];
+            }
+            addHint(advice, ActionKind.MODULUS_3, 0, uncertainty - remaining / n, rules.cost(ActionKind.MODULUS_3));
+        }
+        for (int hint = 0; hint < rules.hintCount(); hint++) {
+            if ((revealedHints & 1L << hint) != 0) continue;
+            HintType type = rules.hint(hint);
+            double remaining = 0;
+            for (int c = 0; c < type.classCount(); c++) {
+                int size = candidates.intersectionSize(type.classSet(c));
+                remaining += size * LOG2[size];
+            }
+            addHint(advice, ActionKind.HINT, type.getId(), uncertainty - remaining / n, rules.hintCost(hint));
+        }
+        advice.sort((a, b) -> (a.score() != b.score()) ? Double.compare(b.score(), a.score())
+                : Double.compare(b.expectedGain(), a.expectedGain()));
+        return advice;
+    }
+
+    /** Adds a hint that would tell something new; a free one scores as if it cost one fetch, so that it ranks below
+     * a certain win. */
+    private static void addHint(List<Advice> advice, ActionKind kind, int value, double gain, int cost) {
+        if (gain > 0) advice.add(new Advice(kind, value, gain, cost, gain / Math.max(cost, 1)));
+    }
+
+    /** @return a description of the action for players */
+    static String label(ActionKind kind, int value) {
+        return switch (kind) {
+            case ELEMENT -> "guess " + Element.of(value).toString();
+            case ROW -> "guess row " + value;
+            case COLUMN -> "guess column " + Column.fromOrdinal(value).getLabel();
+            case FAMILY -> "guess family " + Family.fromOrdinal(value).getLabel();
+            case METALLIC_STATE -> "guess metallic state " + MetallicState.fromOrdinal(value).getLabel();
+            case MODULUS_3 -> "get the modulus 3 hint";
+            case HINT -> "get the " + HintType.of(value).getSpec() + " hint";
+        };
+    }
+}
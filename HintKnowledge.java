@@ -0,0 +1,104 @@
+import java.util.LinkedHashSet;
+
+/** What a player has learned about element L, kept as typed Hint records in a hash set instead of as sentences: a
+ * hint is added or looked up with one hash, and its sentence is only rendered when it is shown.
+ * <p>It also tells, before a guess is made, whether what the player already knows settles it (see implication()):
+ * a guess whose group holds none of the remaining candidates is certainly wrong, and one whose group holds all of them
+ * is certainly right. The groups are CandidateTracker's precomputed ElementSets, so each check is a few bitwise
+ * operations, however many hints came before. ElementLGame uses this to warn before a fetch is spent on a guess that
+ * cannot be right. */
+final class HintKnowledge {
+    /** What the player's knowledge already says about a guess. */
+    enum Implication {
+        /** The guess could go either way. */
+        OPEN,
+        /** The guess is certainly correct. */
+        IMPLIED_TRUE,
+        /** The guess is certainly wrong. */
+        IMPLIED_FALSE
+    }
+
+    /** One fact about element L.
+     * @param kind what the fact is about
+     * @param value as in GameEngine.Action (for MODULUS_3, the remainder; for HINT, the HintType's id times
+     *              HintType.MAX_CLASSES plus the index of element L's class)
+     * @param holds true if element L is in the group, false if it is not (always true for MODULUS_3 and HINT) */
+    record Hint(ActionKind kind, int value, boolean holds) {
+        /** @return the fact as a sentence (e.g. "Element L is not in row 4") */
+        String describe() {
+            String not = holds ? "" : "not ";
+            return switch (kind) {
+                case ELEMENT -> "Element L is " + not + Element.of(value).toString().toUpperCase();
+                case ROW -> "Element L is " + not + "in row " + value;
+                case COLUMN -> "Element L is " + not + "in column " + Column.fromOrdinal(value).getLabel();
+                // "a" or "an" depending on whether the family starts with a vowel or not
+                case FAMILY -> "Element L is " + not + Family.fromOrdinal(value).getArticle() + " "
+                        + Family.fromOrdinal(value).getLabel();
+                case METALLIC_STATE -> "Element L is " + not + "a " + MetallicState.fromOrdinal(value).getLabel();
+                case MODULUS_3 -> "Atomic Number % 3 = " + value;
+                case HINT -> HintType.of(value / HintType.MAX_CLASSES).describe(value % HintType.MAX_CLASSES);
+            };
+        }
+
+        /** @param outcome the outcome of an action
+         * @return the fact the outcome gave, or null if it gave none (a correct element guess, or something already
+         * known) */
+        static Hint of(GameEngine.Outcome outcome) {
+            GameEngine.Action action = outcome.action();
+            if (outcome.result() == GameEngine.Result.ALREADY_KNOWN
+                    || action.kind() == ActionKind.ELEMENT && outcome.isCorrect()) return null;
+            if (action.kind() == ActionKind.MODULUS_3) return new Hint(action.kind(), outcome.remainder(), true);
+            if (action.kind() == ActionKind.HINT) {
+                return new Hint(action.kind(), action.value() * HintType.MAX_CLASSES + outcome.remainder(), true);
+            }
+            return new Hint(action.kind(), action.value(), outcome.isCorrect());
+        }
+    }
+
+    /** Every hint, in the order it was first learned. */
+    private final LinkedHashSet<Hint> hints = new LinkedHashSet<>();
+
+    /** Learns the fact an outcome gave.
+     * @return the fact, or null if the outcome gave none */
+    Hint add(GameEngine.Outcome outcome) {
+        Hint hint = Hint.of(outcome);
+        if (hint != null) hints.add(hint);
+        return hint;
+    }
+
+    /** @return true if the fact has been learned */
+    boolean contains(Hint hint) {
+        return hints.contains(hint);
+    }
+
+    boolean isEmpty() {
+        return hints.isEmpty();
+    }
+
+    /** @return every hint, in the order it was first learned */
+    Iterable<Hint> hints() {
+        return hints;
+    }
+
+    /** @param candidates the elements element L can still be
+     * @param kind the kind of guess, or MODULUS_3 (IMPLIED_TRUE if the hint cannot tell anything new)
+     * @param value the guess's value, as in GameEngine.Action (ignored for MODULUS_3)
+     * @return whether the candidates already settle the guess
+     * @throws IllegalArgumentException thrown for HINT */
+    static Implication implication(ElementSet candidates, ActionKind kind, int value)
+            throws IllegalArgumentException {
+        if (kind == ActionKind.MODULUS_3) {
+            for (int remainder = 0; remainder < 3; remainder++) {
+                if (candidates.minus(CandidateTracker.modulus3Set(remainder)).isEmpty()) {
+                    return Implication.IMPLIED_TRUE;
+                }
+            }
+            return Implication.OPEN;
+        }
+        ElementSet group = CandidateTracker.groupSet(kind, value);
+        int inGroup = candidates.intersectionSize(group);
+        if (inGroup == 0) return Implication.IMPLIED_FALSE;
+        if (inGroup == candidates.size()) return Implication.IMPLIED_TRUE;
+        return Implication.OPEN;
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/** A hint a rule set can offer beyond the built-in ones (see GameRules): getting it tells the player which class of
+ * a partition of the elements element L is in, as the modulus 3 hint tells its remainder. The partition is computed
+ * once, when the type is defined: a class index for every element, and an ElementSet and a sentence for every class,
+ * so revealing the hint, narrowing the candidates, and scoring it in HintAdvisor are all lookups.
+ * <p>Types are defined from a spec and given ids in the order they are defined, like atomic numbers for elements, so
+ * that GameEngine.Action can name one with an int and HintType.of() turns it back into the type. Defining the same spec
+ * again returns the same type. The specs:
+ * <ul>
+ * <li>block: the s, p, d, or f block, by the subshell of the highest occupied orbital;</li>
+ * <li>parity: whether the atomic number is even or odd;</li>
+ * <li>orbital: the subshell of the highest occupied orbital (e.g. 4p);</li>
+ * <li>range FROM-TO...: which of the ranges the atomic number is in (e.g. "range 1-36 37-86"); elements in none of
+ *     them form one more class;</li>
+ * <li>modulus N: the atomic number % N, for N from 2 to MAX_CLASSES.</li>
+ * </ul> */
+final class HintType {
+    /** Most classes a partition can have. */
+    static final int MAX_CLASSES = 64;
+
+    /** Every type, by id. Replaced, never changed, when a type is defined, so it can be read without locking. */
+    private static volatile HintType[] types = new HintType[0];
+    private static final Map<String, HintType> BY_SPEC = new HashMap<>();
+
+    private final int id;
+    private final String spec;
+    /** The class of every element, indexed by atomic number. */
+    private final byte[] classOf;
+    /** The elements and the sentence of every class, indexed by class. */
+    private final ElementSet[] classes;
+    private final String[] sentences;
+
+    private HintType(int id, String spec, byte[] classOf, String[] sentences) {
+        this.id = id;
+        this.spec = spec;
+        this.classOf = classOf;
+        this.sentences = sentences;
+        this.classes = new ElementSet[sentences.length];
+        Arrays.fill(classes, ElementSet.EMPTY);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) classes[classOf[z]] = classes[classOf[z]].with(z);
+    }
+
+    /** @param spec one of the specs in the class documentation, with its words separated by spaces
+     * @return the type, defined the first time its spec is seen
+     * @throws IllegalArgumentException thrown if the spec is malformed */
+    static synchronized HintType define(String spec) throws IllegalArgumentException {
+        String[] words = spec.trim().toLowerCase().split("\\s+");
+        String canonical = String.join(" ", words);
+        HintType type = BY_SPEC.get(canonical);
+        if (type != null) return type;
+        if (!words[0].equals("range") && !words[0].equals("modulus") && words.length > 1) {
+            throw new IllegalArgumentException("The " + words[0] + " hint takes no arguments");
+        }
+        byte[] classOf = new byte[Element.TOTAL_ELEMENT_COUNT + 1];
+        String[] sentences = switch (words[0]) {
+            case "block" -> partition(classOf, new String[]{"s", "p", "d", "f"},
+                    z -> Element.of(z).getHighestOccupiedOrbital().substring(1, 2),
+                    label -> "Element L is in the " + label + " block");
+            case "parity" -> partition(classOf, new String[]{"even", "odd"}, z -> (z % 2 == 0) ? "even" : "odd",
+                    label -> "Element L's atomic number is " + label);
+            case "orbital" -> partition(classOf, ElectronConfiguration.SUBSHELLS,
+                    z -> Element.of(z).getHighestOccupiedOrbital().substring(0, 2),
+                    label -> "Element L's highest occupied orbital is " + label);
+            case "range" -> ranges(classOf, words);
+            case "modulus" -> {
+                int modulus = (words.length == 2) ? parseInt(words[1]) : 0;
+                if (modulus < 2 || modulus > MAX_CLASSES) {
+                    throw new IllegalArgumentException("Expected modulus N, with N from 2 to " + MAX_CLASSES);
+                }
+                String[] remainders = new String[modulus];
+                for (int r = 0; r < modulus; r++) remainders[r] = String.valueOf(r);
+                yield partition(classOf, remainders, z -> String.valueOf(z % modulus),
+                        label -> "Atomic Number % " + modulus + " = " + label);
+            }
+            default -> throw new IllegalArgumentException("Unknown hint: " + words[0]
+                    + " (block, parity, orbital, range, or modulus)");
+        };
+        HintType[] grown = Arrays.copyOf(types, types.length + 1);
+        type = new HintType(types.length, canonical, classOf, sentences);
+        grown[type.id] = type;
+        types = grown;
+        BY_SPEC.put(canonical, type);
+        return type;
+    }
+
+    /** Puts every element in the class of its label.
+     * @param classOf filled with every element's class
+     * @param labels every class's label, in class order
+     * @param labelOf the label of an element's class, by atomic number
+     * @param sentence the sentence for a class, from its label
+     * @return the sentence of every class */
+    private static String[] partition(byte[] classOf, String[] labels, IntFunction<String> labelOf,
+                                      UnaryOperator<String> sentence) {
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            classOf[z] = (byte) Arrays.asList(labels).indexOf(labelOf.apply(z));
+            if (classOf[z] < 0) throw new IllegalStateException(Element.of(z) + " is in none of " + labels.length
+                    + " classes");
+        }
+        String[] sentences = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) sentences[i] = sentence.apply(labels[i]);
+        return sentences;
+    }
+
+    /** @param words "range" and then every range, as FROM-TO */
+    private static String[] ranges(byte[] classOf, String[] words) throws IllegalArgumentException {
+        if (words.length < 2 || words.length > MAX_CLASSES) {
+            throw new IllegalArgumentException("Expected range FROM-TO..., with 1 to " + (MAX_CLASSES - 1) + " ranges");
+        }
+        int other = words.length - 1;
+        Arrays.fill(classOf, (byte) other);
+        String[] sentences = new String[words.length];
+        for (int i = 1; i < words.length; i++) {
+            int dash = words[i].indexOf('-');
+            int from = (dash > 0) ? parseInt(words[i].substring(0, dash)) : 0;
+            int to = (dash > 0) ? parseInt(words[i].substring(dash + 1)) : 0;
+            if (from < 1 || to < from || to > Element.TOTAL_ELEMENT_COUNT) {
+                throw new IllegalArgumentException("Not a range of atomic numbers: " + words[i]);
+            }
+            for (int z = from; z <= to; z++) {
+                if (classOf[z] != other) throw new IllegalArgumentException("Ranges overlap at " + z);
+                classOf[z] = (byte) (i - 1);
+            }
+            sentences[i - 1] = "Element L's atomic number is from " + from + " to " + to;
+        }
+        sentences[other] = "Element L's atomic number is in none of the ranges";
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            if (classOf[z] == other) return sentences;
+        }
+        // every element is in a range, so there is no class for the rest
+        return Arrays.copyOf(sentences, other);
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /** @param id a type's id
+     * @return the type
+     * @throws IllegalArgumentException thrown if no type has the id */
+    static HintType of(int id) throws IllegalArgumentException {
+        HintType[] defined = types;
+        if (id < 0 || id >= defined.length) throw new IllegalArgumentException("No hint type has id " + id);
+        return defined[id];
+    }
+
+    int getId() {
+        return id;
+    }
+
+    /** @return the spec the type was defined from, in lower case with single spaces (e.g. "range 1-36 37-86") */
+    String getSpec() {
+        return spec;
+    }
+
+    int classCount() {
+        return classes.length;
+    }
+
+    /** @param atomicNumber an element's atomic number
+     * @return the class the element is in */
+    int classOf(int atomicNumber) {
+        return classOf[atomicNumber];
+    }
+
+    /** @return every element in the class */
+    ElementSet classSet(int index) {
+        return classes[index];
+    }
+
+    /** @return what getting the hint tells when element L is in the class (e.g. "Element L is in the d block") */
+    String describe(int index) {
+        return sentences[index];
+    }
+}
@@ -0,0 +1,336 @@
+import java.io.*;
+import java.util.Arrays;
+
+/** Optional table of isotopes: mass number, isotopic mass, natural abundance, and half-life of each nuclide.
+ * The isotope file is read with a streaming parser that works on raw bytes (no String.split, no per-line Strings),
+ * so it stays fast as the file grows to the size of the full chart of nuclides. Isotopes are stored in primitive
+ * arrays grouped by atomic number, lightest mass number first, with an offset array marking where each element's
+ * isotopes start. If the isotope file is missing, the table is empty and callers fall back to the atomic mass. */
+final class IsotopeTable {
+    /** File of isotopes, one per line: atomic number, mass number, isotopic mass (u), natural abundance (%), and
+     * half-life in seconds (left blank for stable isotopes). Lines starting with # are comments. */
+    static final String ISOTOPE_FILE = "src/isotopes.txt";
+
+    /** The isotope table, loaded the first time it is needed. */
+    private static IsotopeTable loaded;
+
+    /** isotopes of element Z are at indexes firstIsotope[Z] (inclusive) to firstIsotope[Z+1] (exclusive) */
+    private final int[] firstIsotope;
+    private final short[] massNumber;
+    private final double[] isotopicMass;
+    private final double[] abundance;
+    /** Half-life in seconds, or positive infinity for stable isotopes. */
+    private final double[] halfLife;
+
+    private IsotopeTable(int[] firstIsotope, short[] massNumber, double[] isotopicMass, double[] abundance,
+                         double[] halfLife) {
+        this.firstIsotope = firstIsotope;
+        this.massNumber = massNumber;
+        this.isotopicMass = isotopicMass;
+        this.abundance = abundance;
+        this.halfLife = halfLife;
+    }
+
+    /** @return the isotope table from ISOTOPE_FILE, read the first time this is called. Empty if the file is missing.
+     * @throws IllegalStateException thrown if the file exists but cannot be read or is malformed */
+    static synchronized IsotopeTable get() throws IllegalStateException {
+        if (loaded == null) {
+            File file = new File(ISOTOPE_FILE);
+            if (!file.exists()) {
+                loaded = new IsotopeTable(new int[Element.TOTAL_ELEMENT_COUNT + 2], new short[0], new double[0],
+                        new double[0], new double[0]);
+            } else {
+                try (InputStream in = new FileInputStream(file)) {
+                    loaded = read(in, ISOTOPE_FILE);
+                } catch (IOException ex) {
+                    throw new IllegalStateException("Could not read " + ISOTOPE_FILE + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** Parses an isotope file.
+     * @param in the contents of an isotope file. Not closed by this method.
+     * @param name the file's name, for error messages
+     * @return the table of every isotope in the file
+     * @throws IOException thrown if the stream cannot be read
+     * @throws IllegalStateException thrown if a line is malformed */
+    static IsotopeTable read(InputStream in, String name) throws IOException, IllegalStateException {
+        Parser parser = new Parser(in, name);
+        int capacity = 1024;
+        int count = 0;
+        int[] atomicNumbers = new int[capacity];
+        short[] massNumbers = new short[capacity];
+        double[] masses = new double[capacity];
+        double[] abundances = new double[capacity];
+        double[] halfLives = new double[capacity];
+        while (parser.nextRecord()) {
+            if (count == capacity) {
+                capacity *= 2;
+                atomicNumbers = Arrays.copyOf(atomicNumbers, capacity);
+                massNumbers = Arrays.copyOf(massNumbers, capacity);
+                masses = Arrays.copyOf(masses, capacity);
+                abundances = Arrays.copyOf(abundances, capacity);
+                halfLives = Arrays.copyOf(halfLives, capacity);
+            }
+            int atomicNumber = parser.wholeNumber("atomic number", 1, Element.TOTAL_ELEMENT_COUNT);
+            atomicNumbers[count] = atomicNumber;
+            massNumbers[count] = (short) parser.wholeNumber("mass number", atomicNumber, Short.MAX_VALUE);
+            masses[count] = parser.number();
+            double abundance = parser.number();
+            if (!(abundance >= 0 && abundance <= 100)) throw parser.error("invalid abundance " + abundance);
+            abundances[count] = abundance;
+            halfLives[count] = parser.optionalNumber(Double.POSITIVE_INFINITY);
+            parser.endRecord();
+            count++;
+        }
+
+        // counting sort by atomic number, so each element's isotopes are contiguous
+        int[] firstIsotope = new int[Element.TOTAL_ELEMENT_COUNT + 2];
+        for (int i = 0; i < count; i++) firstIsotope[atomicNumbers[i] + 1]++;
+        for (int z = 1; z < firstIsotope.length; z++) firstIsotope[z] += firstIsotope[z - 1];
+        int[] next = Arrays.copyOf(firstIsotope, firstIsotope.length);
+        short[] sortedMassNumbers = new short[count];
+        double[] sortedMasses = new double[count];
+        double[] sortedAbundances = new double[count];
+        double[] sortedHalfLives = new double[count];
+        for (int i = 0; i < count; i++) {
+            int slot = next[atomicNumbers[i]]++;
+            sortedMassNumbers[slot] = massNumbers[i];
+            sortedMasses[slot] = masses[i];
+            sortedAbundances[slot] = abundances[i];
+            sortedHalfLives[slot] = halfLives[i];
+        }
+        IsotopeTable table = new IsotopeTable(firstIsotope, sortedMassNumbers, sortedMasses, sortedAbundances,
+                sortedHalfLives);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) table.sortByMassNumber(z);
+        return table;
+    }
+
+    /** Insertion sorts one element's isotopes by mass number. Elements only have a few dozen isotopes at most. */
+    private void sortByMassNumber(int atomicNumber) {
+        for (int i = firstIsotope[atomicNumber] + 1; i < firstIsotope[atomicNumber + 1]; i++) {
+            for (int j = i; j > firstIsotope[atomicNumber] && massNumber[j - 1] > massNumber[j]; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        short m = massNumber[i]; massNumber[i] = massNumber[j]; massNumber[j] = m;
+        double d = isotopicMass[i]; isotopicMass[i] = isotopicMass[j]; isotopicMass[j] = d;
+        d = abundance[i]; abundance[i] = abundance[j]; abundance[j] = d;
+        d = halfLife[i]; halfLife[i] = halfLife[j]; halfLife[j] = d;
+    }
+
+    /** @return the number of isotopes in the table */
+    int size() {
+        return massNumber.length;
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return the number of isotopes of the element in the table */
+    int count(int atomicNumber) {
+        return firstIsotope[atomicNumber + 1] - firstIsotope[atomicNumber];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @param i which of the element's isotopes, from 0 (lightest) to count(atomicNumber) - 1
+     * @return the mass number (protons + neutrons) of the isotope */
+    int getMassNumber(int atomicNumber, int i) {
+        return massNumber[firstIsotope[atomicNumber] + i];
+    }
+
+    /** @return the mass of the isotope in atomic mass units (see getMassNumber()) */
+    double getIsotopicMass(int atomicNumber, int i) {
+        return isotopicMass[firstIsotope[atomicNumber] + i];
+    }
+
+    /** @return the natural abundance of the isotope, as a percentage (see getMassNumber()) */
+    double getAbundance(int atomicNumber, int i) {
+        return abundance[firstIsotope[atomicNumber] + i];
+    }
+
+    /** @return the half-life of the isotope in seconds, or positive infinity if it is stable (see getMassNumber()) */
+    double getHalfLife(int atomicNumber, int i) {
+        return halfLife[firstIsotope[atomicNumber] + i];
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return the mass number of the element's most abundant natural isotope, or -1 if none occurs naturally */
+    int getMostAbundantMassNumber(int atomicNumber) {
+        int best = -1;
+        double bestAbundance = 0;
+        for (int i = firstIsotope[atomicNumber]; i < firstIsotope[atomicNumber + 1]; i++) {
+            if (abundance[i] > bestAbundance) {
+                bestAbundance = abundance[i];
+                best = massNumber[i];
+            }
+        }
+        return best;
+    }
+
+    /** @param atomicNumber atomic number of the element, 1-118
+     * @return the average of the isotopic masses weighted by natural abundance, or NaN if none occurs naturally */
+    double getAbundanceWeightedMass(int atomicNumber) {
+        double weightedMass = 0;
+        double totalAbundance = 0;
+        for (int i = firstIsotope[atomicNumber]; i < firstIsotope[atomicNumber + 1]; i++) {
+            weightedMass += isotopicMass[i] * abundance[i];
+            totalAbundance += abundance[i];
+        }
+        return (totalAbundance > 0) ? weightedMass / totalAbundance : Double.NaN;
+    }
+
+    /** Reads comma separated numbers straight from a byte buffer, one record per line. */
+    private static final class Parser {
+        private final InputStream in;
+        private final String name;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int limit;
+        /** The number of the line at position, starting at 1. */
+        private int line = 1;
+
+        Parser(InputStream in, String name) {
+            this.in = in;
+            this.name = name;
+        }
+
+        /** @return the next byte, or -1 at the end of the stream */
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        /** Skips blank lines and comments.
+         * @return true if there is another record to read */
+        boolean nextRecord() throws IOException {
+            while (true) {
+                int b = peek();
+                if (b == -1) return false;
+                if (b == '\n') {
+                    position++;
+                    line++;
+                } else if (b == '\r' || b == ' ' || b == '\t') {
+                    position++;
+                } else if (b == '#') {
+                    while ((b = peek()) != -1 && b != '\n') position++;
+                } else {
+                    return true;
+                }
+            }
+        }
+
+        /** Reads one field and the comma after it, if any.
+         * @return the field's value
+         * @throws IllegalStateException thrown if the field is empty or is not a number */
+        double number() throws IOException, IllegalStateException {
+            double value = optionalNumber(Double.NaN);
+            if (Double.isNaN(value)) throw error("missing number");
+            return value;
+        }
+
+        /** Reads one field that must be a whole number in a range, and the comma after it, if any.
+         * @param what what the field is, for the error message
+         * @return the field's value
+         * @throws IllegalStateException thrown if the field is empty, is not a whole number, or is out of the range */
+        int wholeNumber(String what, int min, int max) throws IOException, IllegalStateException {
+            double value = number();
+            if (value != Math.rint(value) || value < min || value > max) throw error("invalid " + what + " " + value);
+            return (int) value;
+        }
+
+        /** Reads one field, which may be empty, and the comma after it, if any.
+         * @param ifEmpty the value of an empty field
+         * @return the field's value
+         * @throws IllegalStateException thrown if the field is not a number */
+        double optionalNumber(double ifEmpty) throws IOException, IllegalStateException {
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            int exponent = 0;
+            boolean negative = false;
+            boolean fraction = false;
+            boolean any = false;
+            int b = peek();
+            if (b == '-' || b == '+') {
+                negative = (b == '-');
+                position++;
+            }
+            while ((b = peek()) != -1) {
+                if (b >= '0' && b <= '9') {
+                    any = true;
+                    // digits beyond what a long holds only change the scale
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) digits++;
+                        if (fraction) scale--;
+                    } else if (!fraction) {
+                        scale++;
+                    }
+                } else if (b == '.' && !fraction) {
+                    fraction = true;
+                } else if (b == 'e' || b == 'E') {
+                    position++;
+                    exponent = (int) optionalExponent();
+                    break;
+                } else {
+                    break;
+                }
+                position++;
+            }
+            b = peek();
+            if (b == ',') {
+                position++;
+            } else if (b != '\n' && b != '\r' && b != -1) {
+                throw error("unexpected character '" + (char) b + "'");
+            }
+            if (!any) return ifEmpty;
+            int power = scale + exponent;
+            double value = (power >= 0) ? mantissa * tenTo(power) : mantissa / tenTo(-power);
+            return negative ? -value : value;
+        }
+
+        /** @return the integer exponent after an 'e' */
+        private long optionalExponent() throws IOException {
+            boolean negative = false;
+            int b = peek();
+            if (b == '-' || b == '+') {
+                negative = (b == '-');
+                position++;
+            }
+            long value = 0;
+            while ((b = peek()) >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                position++;
+            }
+            return negative ? -value : value;
+        }
+
+        /** Checks that the record has no more fields. */
+        void endRecord() throws IOException, IllegalStateException {
+            int b = peek();
+            if (b != '\n' && b != '\r' && b != -1) throw error("too many fields");
+        }
+
+        IllegalStateException error(String message) {
+            return new IllegalStateException(String.format("%s line %d: %s", name, line, message));
+        }
+
+        /** @return 10 to the power, exactly for powers up to 22 */
+        private static double tenTo(int power) {
+            double result = 1;
+            for (int i = 0; i < power; i++) result *= 10;
+            return result;
+        }
+    }
+}
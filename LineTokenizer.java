@@ -0,0 +1,150 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/** Reads a script one line at a time and splits each line into whitespace-separated tokens, for batch mode.
+ * Unlike Scanner, which matches every line and token with regular expressions, it scans bytes from its own buffer
+ * once: each line is found by looking for '\n', its tokens are recorded as offsets into the line, and a String is
+ * only made for a token when it is asked for. Lines are UTF-8, and may end in "\r\n".
+ * <p>Usage: while (tokenizer.next()) { use tokenCount(), token(i), and rest(i) }. Not safe to share between
+ * threads. */
+final class LineTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** Most tokens recorded per line; any more are part of the last token's rest(). */
+    private static final int MAX_TOKENS = 64;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    /** The current line, without its line ending. Grows to fit the longest line. */
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int lineNumber;
+    /** Start and end offsets of each token in line. */
+    private final int[] starts = new int[MAX_TOKENS];
+    private final int[] ends = new int[MAX_TOKENS];
+    private int tokenCount;
+
+    /** @param in the script; closed by close() */
+    LineTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /** Reads the next line and splits it into tokens.
+     * @return false at the end of the script
+     * @throws IOException thrown if the script cannot be read */
+    boolean next() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (lineLength == 0) return false;
+                    break;
+                }
+            }
+            int end = position;
+            while (end < limit && buffer[end] != '\n') end++;
+            append(position, end);
+            position = end;
+            if (end < limit) {
+                position++;
+                break;
+            }
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') lineLength--;
+        lineNumber++;
+        split();
+        return true;
+    }
+
+    private void append(int from, int to) {
+        int length = to - from;
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void split() {
+        tokenCount = 0;
+        int i = 0;
+        while (tokenCount < MAX_TOKENS) {
+            while (i < lineLength && isSpace(line[i])) i++;
+            if (i == lineLength) return;
+            starts[tokenCount] = i;
+            while (i < lineLength && !isSpace(line[i])) i++;
+            ends[tokenCount++] = i;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    /** @return the number of the current line, starting at 1 */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** @return the number of tokens on the current line (0 for a blank line) */
+    int tokenCount() {
+        return tokenCount;
+    }
+
+    /** @return the current line's token at an index
+     * @throws IndexOutOfBoundsException thrown if the line has no such token */
+    String token(int index) throws IndexOutOfBoundsException {
+        if (index >= tokenCount) throw new IndexOutOfBoundsException("Line " + lineNumber + " has no token " + index);
+        return new String(line, starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+
+    /** @return true if the token at an index is the keyword, ignoring ASCII case (without making a String) */
+    boolean tokenIs(int index, String keyword) {
+        if (index >= tokenCount || ends[index] - starts[index] != keyword.length()) return false;
+        for (int i = 0; i < keyword.length(); i++) {
+            int c = line[starts[index] + i];
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            if (c != Character.toLowerCase(keyword.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /** @return the token at an index as a long
+     * @throws IllegalArgumentException thrown if the token is not a decimal integer that fits in a long */
+    long longToken(int index) throws IllegalArgumentException {
+        if (index >= tokenCount) throw new IllegalArgumentException("Missing number");
+        int i = starts[index];
+        boolean negative = line[i] == '-';
+        if (negative || line[i] == '+') i++;
+        if (i == ends[index]) throw new IllegalArgumentException("Not a number: " + token(index));
+        long value = 0;
+        for (; i < ends[index]; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw new IllegalArgumentException("Not a number: " + token(index));
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) throw new IllegalArgumentException("Not a number: " + token(index));
+        return negative ? value : -value;
+    }
+
+    /** @return the rest of the current line from the token at an index, with its inner spacing kept, or an empty
+     * String if the line has no such token */
+    String rest(int index) {
+        if (index >= tokenCount) return "";
+        return new String(line, starts[index], lineLength - starts[index], StandardCharsets.UTF_8).strip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
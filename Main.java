@@ -1,13 +1,82 @@
-import java.util.ArrayList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
 
 /** @author Rohit De*/
 class Main {
     /** The one Scanner meant for use in this program (to avoid any Scanner errors). */
     public static Scanner mainScanner = new Scanner(System.in);
 
+    /** Settings given with command line flags, used instead of asking the player; a null setting is asked for. */
+    record GameOptions(Integer difficulty, ElementSet playableElements, Long seed) {
+        /** No flags: every setting is asked for. */
+        static final GameOptions ASK = new GameOptions(null, null, null);
+
+        /** @return true if any setting was given, so the game starts without the main menu */
+        boolean any() {
+            return difficulty != null || playableElements != null || seed != null;
+        }
+    }
+
+    /** Arguments (all optional):
+     * <ul>
+     * <li>--difficulty/-d h|i|g|u, --elements/-e y|n|SPEC, --seed/-s N: start the game right away with these
+     *     settings, asking only for the ones not given. The seed picks the first game's element L, and each later
+     *     game's from it, so a session can be replayed.</li>
+     * <li>--batch/-b FILE|-: run a script of commands from a file or stdin without any prompts (see BatchRunner).</li>
+     * </ul> */
     public static void main(String[] args) {
+        GameOptions options;
+        String batchFile = null;
+        try {
+            Integer difficulty = null;
+            ElementSet playableElements = null;
+            Long seed = null;
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                // null if the flag is last; checked once the flag is known, so an unknown flag is reported as one
+                String value = (i + 1 < args.length) ? args[++i] : null;
+                switch (flag) {
+                    case "--difficulty", "-d" -> {
+                        difficulty = ElementLGame.parseDifficulty(flagValue(flag, value));
+                        if (difficulty == 0) throw new IllegalArgumentException("Unknown difficulty: " + value);
+                    }
+                    case "--elements", "-e" -> {
+                        playableElements = ElementLGame.parsePlayableElements(flagValue(flag, value));
+                    }
+                    case "--seed", "-s" -> seed = Long.parseLong(flagValue(flag, value));
+                    case "--batch", "-b" -> batchFile = flagValue(flag, value);
+                    default -> throw new IllegalArgumentException("Unknown flag: " + flag);
+                }
+            }
+            options = new GameOptions(difficulty, playableElements, seed);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Usage: java Main [--difficulty h|i|g|u] [--elements y|n|SPEC] [--seed N] " +
+                    "| [--batch FILE|-]");
+            System.exit(2);
+            return;
+        }
+        if (batchFile != null) {
+            try {
+                System.exit((BatchRunner.run(batchFile) == 0) ? 0 : 1);
+            } catch (IOException ex) {
+                System.err.println("The script could not be read: " + ex.getMessage());
+                System.exit(2);
+            }
+        }
+        if (options.any()) {
+            runElementLGame(mainScanner, options);
+            mainScanner.close();
+            return;
+        }
         // determines action
         actionLoop: while (true) {
           System.out.println("""
@@ -30,59 +99,256 @@ class Main {
         mainScanner.close();
     }
 
+    /** @param value the argument after the flag, or null if the flag was the last argument
+     * @return the value
+     * @throws IllegalArgumentException thrown if there is no value */
+    private static String flagValue(String flag, String value) throws IllegalArgumentException {
+        if (value == null) throw new IllegalArgumentException(flag + " needs a value");
+        return value;
+    }
+
     /** Runs the program that lets the user play the ElementL game.
      * @param scanner the one Scanner used by the program (to avoid Scanner errors) */
     public static void runElementLGame(Scanner scanner) {
-        ElementLGame.displayOpeningMessage(scanner);
-        int difficulty = ElementLGame.getDifficulty(scanner);
-        boolean playingWithLanthanidesActinides = ElementLGame.playWithLanthanidesActinides(scanner);
+        runElementLGame(scanner, GameOptions.ASK);
+    }
+
+    /** Like runElementLGame(scanner), with settings from command line flags.
+     * @param options the settings that are not asked for */
+    static void runElementLGame(Scanner scanner, GameOptions options) {
+        // every game is recorded so it can be replayed later ("java GameLog"), and journaled so it survives a crash;
+        // the game goes on if any file is unusable
+        GameLog.Writer log = null;
+        SessionJournal journal = null;
+        PlayerStats stats = null;
+        try {
+            log = new GameLog.Writer(GameLog.LOG_FILE);
+        } catch (IOException ex) {
+            System.out.println("Games will not be recorded: " + ex.getMessage());
+        }
+        try {
+            journal = new SessionJournal(SessionJournal.JOURNAL_FILE, SessionJournal.SNAPSHOT_FILE);
+        } catch (IOException ex) {
+            System.out.println("Games will not survive a crash: " + ex.getMessage());
+        }
+        try {
+            stats = new PlayerStats(PlayerStats.STATS_DIRECTORY);
+        } catch (IOException ex) {
+            System.out.println("Player statistics will not be kept: " + ex.getMessage());
+        }
+        runElementLGame(scanner, System.out, log, journal, stats, options);
+        try {
+            if (log != null) log.close();
+            if (journal != null) journal.close();
+            if (stats != null) stats.close();
+        } catch (IOException ignored) {}
+    }
+
+    /** Runs ElementL games until the player stops, then prints their record. Used by the console and by every
+     * GameServer session. If the journal recovered an unfinished game, the player is first offered to resume it.
+     * @param scanner where the player's input is read from
+     * @param out where every prompt and message is printed
+     * @param log where finished games are recorded, or null to not record them. Not closed by this method.
+     * @param journal where games in progress are journaled, or null to not journal them. Not closed by this method.
+     * @param stats where named players' games are counted, or null to not count them. Not closed by this method. */
+    static void runElementLGame(Scanner scanner, PrintStream out, GameLog.Writer log, SessionJournal journal,
+                                PlayerStats stats) {
+        runElementLGame(scanner, out, log, journal, stats, GameOptions.ASK);
+    }
+
+    /** Like runElementLGame(scanner, out, log, journal, stats), with settings from command line flags. A recovered
+     * game is still offered first; if it is resumed, the session keeps its settings instead.
+     * @param options the settings that are not asked for */
+    private static void runElementLGame(Scanner scanner, PrintStream out, GameLog.Writer log, SessionJournal journal,
+                                        PlayerStats stats, GameOptions options) {
+        String player = (stats == null) ? "" : playerNamePrompt(scanner, out);
+        SessionJournal.Session unfinished = (journal == null) ? null : journal.claimUnfinished();
+        if (unfinished != null && !resumePrompt(scanner, out, journal, unfinished)) {
+            unfinished.game().resign();
+            recordGame(out, log, unfinished.game());
+            journal.end(unfinished.id());
+            unfinished = null;
+        }
+        int difficulty;
+        ElementSet playableElements;
+        if (unfinished != null) {
+            difficulty = unfinished.game().getConfig().difficulty();
+            playableElements = unfinished.game().getConfig().playableElements();
+        } else {
+            if (options.difficulty() == null || options.playableElements() == null) {
+                ElementLGame.displayOpeningMessage(scanner, out);
+            }
+            difficulty = (options.difficulty() != null) ? options.difficulty()
+                    : ElementLGame.getDifficulty(scanner, out);
+            playableElements = (options.playableElements() != null) ? options.playableElements()
+                    : ElementLGame.choosePlayableElements(scanner, out);
+        }
+        SplittableRandom seeds = (options.seed() == null) ? null : new SplittableRandom(options.seed());
         boolean playingAgain = true;
         ElementLGame game = null;
-        ArrayList<Boolean> winStatuses = new ArrayList<>();
+        int wins = 0;
+        int losses = 0;
         while (playingAgain) {
-            game = new ElementLGame(scanner, playingWithLanthanidesActinides, difficulty);
-            winStatuses.add(game.getVictoryStatus());
+            GameEngine engine;
+            long sessionId = 0;
+            if (unfinished != null) {
+                engine = unfinished.game();
+                sessionId = unfinished.id();
+                unfinished = null;
+            } else {
+                engine = new GameEngine(new GameEngine.Config(playableElements, difficulty),
+                        (seeds == null) ? ThreadLocalRandom.current().nextLong() : seeds.nextLong());
+                if (journal != null) sessionId = journal.start(engine);
+            }
+            try {
+                game = new ElementLGame(scanner, out, engine, journal, sessionId);
+            } catch (RuntimeException ex) {
+                // the player left mid-game (the Scanner ran out of input): another player can resume it
+                if (journal != null) journal.release(sessionId);
+                throw ex;
+            }
+            if (game.getVictoryStatus()) wins++;
+            else losses++;
+            recordGame(out, log, engine);
+            recordStats(out, stats, player, engine);
             playingAgain = game.isPlayAgain();
         }
-        int wins = 0;
-        int losses = 0;
-        if (winStatuses.size() > 0) {
-            for (Boolean isWin: winStatuses) {
-                if (isWin) wins++;
-                else losses++;
+        out.printf("Difficulty Level: %s%nPlayer Record: %d-%d%n", game.getDifficultyLevel(), wins, losses);
+        if (!player.isEmpty()) {
+            PlayerStats.Player record = stats.get(player);
+            if (record != null) PlayerStats.printPlayer(out, record);
+            List<Map.Entry<String, Integer>> leaderboard = stats.leaderboard(difficulty);
+            if (!leaderboard.isEmpty()) out.printf("Most wins at %s:%n", game.getDifficultyLevel());
+            int rank = 1;
+            for (Map.Entry<String, Integer> entry : leaderboard) {
+                out.printf("%2d. %-20s %d%n", rank++, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /** Asks for the name the player's statistics are kept under.
+     * @return the name, of at most PlayerStats.MAX_NAME_LENGTH chars, or an empty String to play as a guest, whose
+     * games are not counted */
+    private static String playerNamePrompt(Scanner scanner, PrintStream out) {
+        while (true) {
+            out.println("Type in your player name to keep your statistics, or press enter to play as a guest.");
+            String name = scanner.nextLine().trim();
+            if (name.length() <= PlayerStats.MAX_NAME_LENGTH) return name;
+            out.printf("Player names can be at most %d characters long.%n", PlayerStats.MAX_NAME_LENGTH);
+        }
+    }
+
+    /** Asks whether the player wants to resume a game recovered from the journal. If the player leaves without
+     * answering, the game is released for another player to resume.
+     * @return true to resume it, false to abandon it */
+    private static boolean resumePrompt(Scanner scanner, PrintStream out, SessionJournal journal,
+                                        SessionJournal.Session unfinished) {
+        GameEngine game = unfinished.game();
+        try {
+            while (true) {
+                out.printf("An unfinished game was recovered (%d fetches left, %d actions taken). " +
+                        "Would you like to resume it? Type [y]es or [n]o%n", game.getFetches(),
+                        game.getHistory().size());
+                String response = scanner.nextLine();
+                if (response.equalsIgnoreCase("y") || response.equalsIgnoreCase("yes")) return true;
+                else if (response.equalsIgnoreCase("n") || response.equalsIgnoreCase("no")) return false;
             }
-            System.out.printf("Difficulty Level: %s%nPlayer Record: %d-%d%n", game.getDifficultyLevel(), wins, losses);
+        } catch (RuntimeException ex) {
+            journal.release(unfinished.id());
+            throw ex;
+        }
+    }
+
+    /** Appends a finished game to the log, if there is one. */
+    private static void recordGame(PrintStream out, GameLog.Writer log, GameEngine game) {
+        if (log == null) return;
+        try {
+            log.append(game);
+            log.flush();
+        } catch (IOException ex) {
+            out.println("The game could not be recorded: " + ex.getMessage());
         }
+    }
 
+    /** Counts a finished game in the player's statistics, unless they play as a guest. */
+    private static void recordStats(PrintStream out, PlayerStats stats, String player, GameEngine game) {
+        if (player.isEmpty()) return;
+        try {
+            stats.record(player, game);
+        } catch (IOException ex) {
+            out.println("The game could not be counted in your statistics: " + ex.getMessage());
+        }
     }
 
     /** Runs the program allowing the user to get information about periodic table elements.
+     * Several commands can be typed on one line ("AM P N EC"), and an element can be chosen and asked about on the same
+     * line ("fe: mass period"); each line's answers are printed at once.
      * @param scanner the one Scanner used by the program (to avoid Scanner errors) */
     public static void runElementInformationGetter(Scanner scanner) {
-        outer: while (true) {
-            System.out.println("\nType in an element's name, abbreviation, or atomic number. " +
-                    "Otherwise, enter \"[q]uit\" to quit.");
-            String input = scanner.nextLine();
-            if (input.equalsIgnoreCase("q") || input.equalsIgnoreCase("quit")) break;
-            Element el;
-            try {
-                try {
-                    int x = Integer.parseInt(input);
-                    el = new Element(x);
-                } catch (NumberFormatException ex) {
-                    el = new Element(input);
-                }
-                System.out.printf("%s (%s):%nAtomic Number: %d%n", el.toString(), el.getAbbreviation(), el.getAtomicNumber());
-                inner: while (true) {
-                    displayPrompt(el);
-                    String response = scanner.nextLine().trim();
-                    int x = displayInfo(response, el);
-                    if (x == 1) break inner;
-                    else if (x == -1) break outer;
-                }
-            } catch (IllegalArgumentException ex) {
-                System.out.println("An invalid input was provided: please try again.\n");
+        // every answer to a line is collected here and written to System.out in one call
+        ByteArrayOutputStream answers = new ByteArrayOutputStream(4096);
+        PrintStream out = new PrintStream(answers, false);
+        Element el = null;
+        while (true) {
+            if (el == null) {
+                System.out.println("\nType in an element's name, abbreviation, or atomic number, or search with a " +
+                        "query (e.g. \"query period=4 and mass>50 order by mass\"). Otherwise, enter \"[q]uit\" to quit.");
+            } else {
+                displayPrompt(el);
+            }
+            String input = scanner.nextLine().trim();
+            if (el == null && (input.equalsIgnoreCase("q") || input.equalsIgnoreCase("quit"))) break;
+            if (el == null && input.toLowerCase().startsWith("query")) {
+                runQuery(input.substring("query".length()));
+                continue;
+            }
+            String commands = input;
+            int colon = input.indexOf(':');
+            if (el == null || colon >= 0) {
+                Element chosen = resolveElement((colon >= 0) ? input.substring(0, colon).trim() : input);
+                if (chosen == null) continue;
+                el = chosen;
+                System.out.printf("%s (%s):%nAtomic Number: %d%n", el.toString(), el.getAbbreviation(),
+                        el.getAtomicNumber());
+                commands = (colon >= 0) ? input.substring(colon + 1) : "";
+                if (commands.isBlank()) continue;
+            }
+            int x = displayInfo(commands, el, out);
+            out.flush();
+            System.out.write(answers.toByteArray(), 0, answers.size());
+            System.out.flush();
+            answers.reset();
+            if (x == 1) el = null;
+            else if (x == -1) break;
+        }
+    }
+
+    /** @param input an element's name, abbreviation, unique name prefix, or atomic number
+     * @return the element, or null (after telling the user why) if there is none */
+    private static Element resolveElement(String input) {
+        try {
+            return Element.of(Integer.parseInt(input));
+        } catch (NumberFormatException ex) {
+            // accepts unique prefixes of names too, and suggests close matches for typos
+            Element el = ElementNameIndex.resolve(input);
+            if (el == null) {
+                System.out.println("An invalid input was provided: please try again."
+                        + ElementNameIndex.didYouMean(input) + "\n");
             }
+            return el;
+        } catch (IllegalArgumentException ex) {
+            System.out.println("An invalid input was provided: please try again.\n");
+            return null;
+        }
+    }
+
+    /** Compiles and runs a query over every element, printing the matching elements as a table.
+     * @param query the query, without the leading "query" (see ElementQuery) */
+    public static void runQuery(String query) {
+        try {
+            ElementQuery.compile(query).printTable(System.out);
+        } catch (IllegalArgumentException ex) {
+            System.out.println("Invalid query: " + ex.getMessage());
         }
     }
 
@@ -93,64 +359,167 @@ class Main {
                 el.getAtomicNumber());
         System.out.println("Atomic Mass[AM]\t[P]rotons\t[N]eutrons\t[E]lectrons\t[Pe]riod/Row" +
                 "\tColumn/[G]roup\tElectron Configuration[EC]\nShort Electron Configuration[SEC]" +
-                "\tHighest Occupied Orbital[HOO]\t[F]amily\t[D]ifferent Element\t[A]ll Information\t[Q]uit");
+                "\tHighest Occupied Orbital[HOO]\tGround State Configuration[GS]\tIon Configurations[ION, ION+2, ...]" +
+                "\n[Iso]topes\t[F]amily\t[D]ifferent Element\t[A]ll Information\t[Q]uit" +
+                "\n(Type several at once, e.g. \"AM P N\", or \"fe: mass period\" for another element.)");
+    }
+
+    /** An information command: displays something about an element, or moves on. */
+    @FunctionalInterface
+    interface InfoCommand {
+        /** @param el the element information is being found for
+         * @param argument the command's argument (the charge of ION), or an empty String
+         * @param out where the information is printed
+         * @return 1 to go to different element, 0 to do nothing more, -1 to quit program entirely */
+        int run(Element el, String argument, PrintStream out);
+    }
+
+    /** Every information command by its words, built once. */
+    static final CommandRegistry<InfoCommand> INFO_COMMANDS = new CommandRegistry<InfoCommand>()
+            .add(info((el, out) -> out.println("Atomic Mass: " + el.getAtomicMass())), "AM", "mass")
+            .add(info((el, out) -> out.printf("Proton Count: %d%n", el.getProtons())), "P", "protons")
+            .add(info((el, out) -> out.printf("Neutron Count: %d%n", el.getNeutrons())), "N", "neutrons")
+            .add(info((el, out) -> out.printf("Electron Count: %d%n", el.getElectrons())), "E", "electrons")
+            .add(info((el, out) -> out.printf("Period: %d%n", el.getPeriod())), "PE", "row", "period")
+            .add(info((el, out) -> {
+                if (el.getPeriodicColumn().isLanthanideActinide()) {
+                    out.printf("Column/Group: %s%n", el.getColumn());
+                } else {
+                    out.printf("Column/Group: %s (%d)%n", el.getColumn(), (int) el.getColumnEnumeration());
+                }
+            }), "G", "column", "group")
+            .add(info((el, out) -> out.printf("Electron Configuration: %s%n", el.getElectronConfig())),
+                    "EC", "configuration")
+            .add(info((el, out) -> out.printf("Short Electron Configuration: %s%n", el.getShortElectronConfig())),
+                    "SEC")
+            .add(info((el, out) -> out.printf("Highest Occupied Orbital: %s%n", el.getHighestOccupiedOrbital())),
+                    "HOO")
+            .add(info((el, out) -> out.printf("Ground State Electron Configuration: %s%s%n",
+                    AufbauEngine.groundState(el.getAtomicNumber()).toShortString(),
+                    AufbauEngine.isException(el.getAtomicNumber()) ? " (exception to the Aufbau principle)" : "")),
+                    "GS", "ground")
+            .addWithArgument((el, charge, out) -> {
+                displayIonInfo(charge, el, out);
+                return 0;
+            }, "ION")
+            .add(info(Main::displayIsotopeInfo), "ISO", "isotopes")
+            .add(info((el, out) -> out.printf("Family: %s%n", el.getElementFamily())), "F", "family")
+            .add((el, argument, out) -> 1, "D", "different")
+            .add(info(Main::displayAllInfo), "A", "all")
+            .add((el, argument, out) -> -1, "Q", "quit");
+
+    /** @return a command that displays information and carries on */
+    private static InfoCommand info(BiConsumer<Element, PrintStream> display) {
+        return (el, argument, out) -> {
+            display.accept(el, out);
+            return 0;
+        };
     }
 
     /** Displays information for single element based on user input.
-     * @param prompt Input provided by user.
+     * @param prompt Input provided by user: one or more commands, separated by spaces or commas.
      * @param el The element information is being found for.
      * @return 1 to go to different element, 0 to do nothing more, -1 to quit program entirely */
     public static int displayInfo(String prompt, Element el) {
-        if (prompt.equalsIgnoreCase("AM") || prompt.equalsIgnoreCase("mass")) {
-            System.out.println("Atomic Mass: " + el.getAtomicMass());
-        } else if (prompt.equalsIgnoreCase("P") || prompt.equalsIgnoreCase("Protons")) {
-            System.out.printf("Proton Count: %d%n", el.getProtons());
-        } else if (prompt.equalsIgnoreCase("N") || prompt.equalsIgnoreCase("neutrons")) {
-            System.out.printf("Neutron Count: %d%n", el.getNeutrons());
-        } else if (prompt.equalsIgnoreCase("E") || prompt.equalsIgnoreCase("electrons")) {
-            System.out.printf("Electron Count: %d%n", el.getElectrons());
-        } else if (prompt.equalsIgnoreCase("PE") || prompt.equalsIgnoreCase("row") ||
-                prompt.equalsIgnoreCase("period")) {
-            System.out.printf("Period: %d%n", el.getPeriod());
-        } else if (prompt.equalsIgnoreCase("G") || prompt.equalsIgnoreCase("column") ||
-                prompt.equalsIgnoreCase("group")) {
-            if (el.getColumn().contains("LA")) {
-                System.out.printf("Column/Group: %s%n", el.getColumn());
-            } else {
-                System.out.printf("Column/Group: %s (%d)%n", el.getColumn(), (int) el.getColumnEnumeration());
+        return displayInfo(prompt, el, System.out);
+    }
+
+    /** Like displayInfo(prompt, el), printing to out. Commands run in order; [D]ifferent and [Q]uit end the line.
+     * @param out where the information is printed */
+    static int displayInfo(String prompt, Element el, PrintStream out) {
+        for (CommandRegistry.Invocation<InfoCommand> command : INFO_COMMANDS.parse(prompt)) {
+            if (!command.isRecognized()) {
+                out.printf("Command \"%s\" not recognized; please try again.%n", command.word());
+                continue;
             }
-        } else if (prompt.equalsIgnoreCase("configuration") ||
-                prompt.equalsIgnoreCase("ec")) {
-            System.out.printf("Electron Configuration: %s%n", el.getElectronConfig());
-        } else if (prompt.equalsIgnoreCase("sec")) {
-            System.out.printf("Short Electron Configuration: %s%n", el.getShortElectronConfig());
-        } else if (prompt.equalsIgnoreCase("hoo")) {
-            System.out.printf("Highest Occupied Orbital: %s%n", el.getHighestOccupiedOrbital());
-        } else if (prompt.equalsIgnoreCase("family") || prompt.equalsIgnoreCase("f")) {
-            System.out.printf("Family: %s%n", el.getElementFamily());
-        } else if (prompt.equalsIgnoreCase("D") || prompt.equalsIgnoreCase("different")) {
-            return 1;
-        } else if (prompt.equalsIgnoreCase("A") || prompt.equalsIgnoreCase("ALL")) {
-            displayAllInfo(el);
-        }
-        else if (prompt.equalsIgnoreCase("q") || prompt.equalsIgnoreCase("quit")) {
-            return -1;
-        } else {
-            System.out.println("Command not recognized; only one-word commands are accepted. Please try again.");
+            int x = command.handler().run(el, command.argument(), out);
+            if (x != 0) return x;
         }
-        //System.out.println();
         return 0;
     }
 
     /** Displays all the information for a certain element by calling displayInfo(). Called from static displayInfo()
      * @param el the element whose information is being displayed */
     public static void displayAllInfo(Element el) {
-        String[] inputs = {"AM", "P", "N", "E", "PE", "G", "EC", "SEC", "HOO", "F"};
-        for (String input : inputs) {
-            displayInfo(input, el);
+        displayAllInfo(el, System.out);
+    }
+
+    /** Like displayAllInfo(el), printing to out. */
+    static void displayAllInfo(Element el, PrintStream out) {
+        displayInfo("AM P N E PE G EC SEC HOO GS ISO F", el, out);
+    }
+
+    /** Displays the known isotopes of an element and their abundance weighted mass. Called from static displayInfo()
+     * @param el the element whose isotopes are being displayed */
+    public static void displayIsotopeInfo(Element el) {
+        displayIsotopeInfo(el, System.out);
+    }
+
+    /** Like displayIsotopeInfo(el), printing to out. */
+    static void displayIsotopeInfo(Element el, PrintStream out) {
+        IsotopeTable isotopes = IsotopeTable.get();
+        int atomicNumber = el.getAtomicNumber();
+        if (isotopes.count(atomicNumber) == 0) {
+            out.println("Isotopes: none on file");
+            return;
         }
+        out.println("Isotopes:");
+        for (int i = 0; i < isotopes.count(atomicNumber); i++) {
+            double halfLife = isotopes.getHalfLife(atomicNumber, i);
+            out.printf("\t%s-%d: %.6f u, %s abundance, %s%n", el.toString(), isotopes.getMassNumber(atomicNumber, i),
+                    isotopes.getIsotopicMass(atomicNumber, i), isotopes.getAbundance(atomicNumber, i) + "%",
+                    Double.isInfinite(halfLife) ? "stable" : String.format("half-life %.4g s", halfLife));
+        }
+        double weightedMass = isotopes.getAbundanceWeightedMass(atomicNumber);
+        if (!Double.isNaN(weightedMass)) out.printf("Abundance Weighted Mass: %.6f%n", weightedMass);
+    }
+
+    /** Displays the electron configuration of an ion of an element. Called from static displayInfo()
+     * @param charge the charge written after the "ION" command (e.g. "+2", "2+", "-1", "3"), or an empty String to
+     *               display every charge from -3 to +3
+     * @param el the element whose ion is being displayed */
+    public static void displayIonInfo(String charge, Element el) {
+        displayIonInfo(charge, el, System.out);
     }
 
+    /** Like displayIonInfo(charge, el), printing to out. */
+    static void displayIonInfo(String charge, Element el, PrintStream out) {
+        if (charge.isEmpty()) {
+            for (int i = -3; i <= 3; i++) {
+                if (i == 0 || i > el.getAtomicNumber()) continue;
+                String symbol = AufbauEngine.ionSymbol(el.getAbbreviation(), i);
+                try {
+                    ElectronConfiguration configuration = AufbauEngine.ion(el.getAtomicNumber(), i);
+                    out.printf("%s: %s%n", symbol,
+                            (configuration.getElectrons() == 0) ? "(no electrons)" : configuration.toShortString());
+                } catch (IllegalArgumentException ex) {
+                    // the heaviest elements' anions need more electrons than the subshells hold
+                    out.printf("%s: not available%n", symbol);
+                }
+            }
+            return;
+        }
+        try {
+            int sign = 1;
+            String digits = charge;
+            if (charge.startsWith("+") || charge.startsWith("-")) {
+                sign = charge.startsWith("-") ? -1 : 1;
+                digits = charge.substring(1);
+            } else if (charge.endsWith("+") || charge.endsWith("-")) {
+                sign = charge.endsWith("-") ? -1 : 1;
+                digits = charge.substring(0, charge.length() - 1);
+            }
+            // a sign alone means a charge of 1
+            int ionCharge = sign * (digits.isEmpty() ? 1 : Integer.parseInt(digits));
+            ElectronConfiguration configuration = AufbauEngine.ion(el.getAtomicNumber(), ionCharge);
+            out.printf("%s Electron Configuration: %s%n", AufbauEngine.ionSymbol(el.getAbbreviation(), ionCharge),
+                    (configuration.getElectrons() == 0) ? "(no electrons)" : configuration.toShortString());
+        } catch (NumberFormatException ex) {
+            out.println("Charge not recognized; try ION+2 or ION-1.");
+        } catch (IllegalArgumentException ex) {
+            out.println(ex.getMessage());
+        }
+    }
 
     /** Searches for an object in an array. Objects must be exact match for equals() to work.
      * @param array the array being searched
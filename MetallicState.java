@@ -0,0 +1,63 @@
+import java.util.HashMap;
+
+/** The three metallic states an element can have. Each state knows its ElementTable flag, so checking an element's
+ * state is a single bit test. */
+enum MetallicState {
+    METAL("METAL", ElementTable.METAL),
+    NONMETAL("NONMETAL", ElementTable.NONMETAL),
+    METALLOID("METALLOID", ElementTable.METALLOID);
+
+    /** Every state, indexed by ordinal. Cached because values() copies its array on every call. */
+    private static final MetallicState[] VALUES = values();
+    /** Every state keyed by the uppercase tokens a user may type for it. */
+    private static final HashMap<String, MetallicState> BY_TOKEN = new HashMap<>();
+
+    static {
+        for (MetallicState state : VALUES) {
+            BY_TOKEN.put(state.label, state);
+            // the integer shown for the state in menus
+            BY_TOKEN.put(Integer.toString(state.ordinal() + 1), state);
+        }
+    }
+
+    private final String label;
+    private final long flag;
+
+    MetallicState(String label, long flag) {
+        this.label = label;
+        this.flag = flag;
+    }
+
+    /** @return the state as it is displayed to players (e.g. "METALLOID") */
+    String getLabel() {
+        return label;
+    }
+
+    /** @return the ElementTable flag of every element with this state */
+    long getFlag() {
+        return flag;
+    }
+
+    /** @param ordinal the state's ordinal
+     * @return the state with the ordinal
+     * @throws IllegalArgumentException thrown if no metallic state has the ordinal */
+    static MetallicState fromOrdinal(int ordinal) throws IllegalArgumentException {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IllegalArgumentException("No metallic state has ordinal " + ordinal);
+        }
+        return VALUES[ordinal];
+    }
+
+    /** @param token a state's label or its menu number (1-3), in any case
+     * @return the state, or null if the token names none */
+    static MetallicState parse(String token) {
+        if (token == null) return null;
+        return BY_TOKEN.get(token.trim().toUpperCase());
+    }
+
+    /** @return the label */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
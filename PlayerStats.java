@@ -0,0 +1,646 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/** Durable per-player statistics: wins and losses by difficulty and element set, fetches used, win streaks, and how
+ * often each element was played and lost, with leaderboards of the most wins.
+ * <p>Every finished game is appended to a log ("stats-GENERATION.log") and applied to the player's counters in memory.
+ * Players changed since the last compaction are kept in memory; everyone else is read on demand from a compacted file
+ * ("stats.db") of player records sorted by name, found by binary search over its offset index. When the log grows
+ * past COMPACTION_RECORDS, a background thread starts a new log and merges the old one's players into a new compacted
+ * file, which is moved into place atomically. The compacted file's generation says which logs it already includes, so
+ * a crash at any point neither loses nor double counts a game.
+ * <p>Leaderboards are bounded top-K sets, stored in the compacted file and updated on every win. Win counts never go
+ * down, so a player outside a full board can only get on it by passing its lowest score, which keeps the boards exact
+ * without ever scanning every player.
+ * <p>
+ * Log records are a varint length, a body, and the body's CRC32; a body is the player name (varint length and UTF-8),
+ * difficulty, element set category, element L, whether the game was won, and fetches used, as varints.
+ * Compacted file: magic, version, generation, player count, index offset, leaderboard offset; then player records;
+ * then the index (each record's offset, 4 bytes); then each leaderboard's size and entries. */
+final class PlayerStats implements Closeable {
+    /** Default directory of the log and compacted file. */
+    static final String STATS_DIRECTORY = "src";
+    /** "ELPS" */
+    static final int MAGIC = 0x454C5053;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 36;
+    /** Log records after which the log is compacted. */
+    static final int COMPACTION_RECORDS = 50_000;
+    /** Longest player name, in chars; it keeps every record small enough to buffer whole. */
+    static final int MAX_NAME_LENGTH = 40;
+    /** Players on each leaderboard. */
+    static final int LEADERBOARD_SIZE = 10;
+    /** Difficulty levels, in leaderboard and counter order. */
+    static final int[] LEVELS = {ElementLGame.HYDROGEN_LEVEL, ElementLGame.IRON_LEVEL, ElementLGame.GOLD_LEVEL,
+            ElementLGame.URANIUM_LEVEL};
+    /** Element set categories: without lanthanides and actinides, every element, or a custom set. */
+    static final String[] SET_CATEGORIES = {"standard", "all elements", "custom"};
+    /** Leaderboard of total wins; leaderboard 1 + i is of wins at LEVELS[i]. */
+    static final int OVERALL = 0;
+
+    /** One player's counters. */
+    static final class Player {
+        private final String name;
+        /** Wins and losses by slot: level index * SET_CATEGORIES.length + set category. */
+        private final int[] wins = new int[LEVELS.length * SET_CATEGORIES.length];
+        private final int[] losses = new int[wins.length];
+        private long fetchesUsed;
+        private int currentStreak;
+        private int bestStreak;
+        /** Games and losses with each element as element L, indexed by atomic number. */
+        private final int[] elementGames = new int[Element.TOTAL_ELEMENT_COUNT + 1];
+        private final int[] elementLosses = new int[Element.TOTAL_ELEMENT_COUNT + 1];
+        /** Bumped on every change, so compaction can tell which players changed while it ran. */
+        private long version;
+
+        Player(String name) {
+            this.name = name;
+        }
+
+        /** Applies one finished game to the counters. */
+        private void add(int slot, int elementL, boolean won, int fetches) {
+            if (won) {
+                wins[slot]++;
+                bestStreak = Math.max(bestStreak, ++currentStreak);
+            } else {
+                losses[slot]++;
+                elementLosses[elementL]++;
+                currentStreak = 0;
+            }
+            elementGames[elementL]++;
+            fetchesUsed += fetches;
+            version++;
+        }
+
+        private Player copy() {
+            Player copy = new Player(name);
+            System.arraycopy(wins, 0, copy.wins, 0, wins.length);
+            System.arraycopy(losses, 0, copy.losses, 0, losses.length);
+            System.arraycopy(elementGames, 0, copy.elementGames, 0, elementGames.length);
+            System.arraycopy(elementLosses, 0, copy.elementLosses, 0, elementLosses.length);
+            copy.fetchesUsed = fetchesUsed;
+            copy.currentStreak = currentStreak;
+            copy.bestStreak = bestStreak;
+            copy.version = version;
+            return copy;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /** @param level a difficulty level (e.g. ElementLGame.HYDROGEN_LEVEL), or 0 for every level
+         * @return wins at the level, with any element set */
+        int getWins(int level) {
+            return sumByLevel(wins, level);
+        }
+
+        /** @param level a difficulty level, or 0 for every level
+         * @return losses at the level, with any element set */
+        int getLosses(int level) {
+            return sumByLevel(losses, level);
+        }
+
+        /** @return wins at a level with an element set category (an index of SET_CATEGORIES) */
+        int getWins(int level, int setCategory) {
+            return wins[levelIndex(level) * SET_CATEGORIES.length + setCategory];
+        }
+
+        /** @return losses at a level with an element set category (an index of SET_CATEGORIES) */
+        int getLosses(int level, int setCategory) {
+            return losses[levelIndex(level) * SET_CATEGORIES.length + setCategory];
+        }
+
+        private static int sumByLevel(int[] counts, int level) {
+            int sum = 0;
+            for (int slot = 0; slot < counts.length; slot++) {
+                if (level == 0 || slot / SET_CATEGORIES.length == levelIndex(level)) sum += counts[slot];
+            }
+            return sum;
+        }
+
+        int getGames() {
+            return getWins(0) + getLosses(0);
+        }
+
+        /** @return mean fetches used per game, or 0 before any game */
+        double getMeanFetchesUsed() {
+            return (getGames() == 0) ? 0 : (double) fetchesUsed / getGames();
+        }
+
+        /** @return wins in a row, up to the last game */
+        int getCurrentStreak() {
+            return currentStreak;
+        }
+
+        int getBestStreak() {
+            return bestStreak;
+        }
+
+        /** @return games with the element (by atomic number) as element L */
+        int getElementGames(int atomicNumber) {
+            return elementGames[atomicNumber];
+        }
+
+        /** @return games lost with the element (by atomic number) as element L */
+        int getElementLosses(int atomicNumber) {
+            return elementLosses[atomicNumber];
+        }
+    }
+
+    /** A leaderboard: the LEADERBOARD_SIZE highest scores, highest first (ties by name). */
+    private static final class TopK {
+        private record Entry(String name, int score) {}
+
+        private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+                .thenComparing(Entry::name);
+        private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+        private final HashMap<String, Entry> byName = new HashMap<>();
+
+        /** Puts a player's new score on the board, if it is high enough. Scores must never go down. */
+        void offer(String name, int score) {
+            Entry old = byName.get(name);
+            if (old != null) {
+                entries.remove(old);
+            } else if (entries.size() == LEADERBOARD_SIZE) {
+                if (ORDER.compare(new Entry(name, score), entries.last()) > 0) return;
+                byName.remove(entries.pollLast().name());
+            }
+            Entry entry = new Entry(name, score);
+            entries.add(entry);
+            byName.put(name, entry);
+        }
+
+        List<Entry> list() {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    private final Path directory;
+    /** Players changed since the last compaction, by name. */
+    private final HashMap<String, Player> changed = new HashMap<>();
+    /** Leaderboards: OVERALL, then one per level. */
+    private final TopK[] leaderboards = new TopK[LEVELS.length + 1];
+    /** The compacted file, mapped, or null if there is none yet. */
+    private ByteBuffer compacted;
+    private long compactedGeneration;
+    private int compactedPlayers;
+    private FileChannel log;
+    private long logGeneration;
+    private int logRecords;
+    private Thread compactor;
+    private final CRC32 crc = new CRC32();
+
+    /** Opens the store, loading the compacted file and replaying every log written after it.
+     * @param directory where the log and compacted file are kept
+     * @throws IOException thrown if the files cannot be read or written */
+    PlayerStats(String directory) throws IOException {
+        this.directory = Path.of(directory);
+        for (int i = 0; i < leaderboards.length; i++) leaderboards[i] = new TopK();
+        Path compactedPath = this.directory.resolve("stats.db");
+        if (Files.exists(compactedPath)) {
+            mapCompacted(compactedPath);
+            readLeaderboards();
+        }
+        List<Long> generations = logGenerations();
+        long intactLength = 0;
+        for (long generation : generations) {
+            if (generation <= compactedGeneration) Files.deleteIfExists(logPath(generation));
+            else intactLength = replayLog(generation);
+        }
+        logGeneration = Math.max(compactedGeneration + 1,
+                generations.isEmpty() ? 0 : generations.get(generations.size() - 1));
+        if (Files.exists(logPath(logGeneration))) {
+            // cut off a record torn by a crash, or the games appended after it could never be read back
+            try (FileChannel torn = FileChannel.open(logPath(logGeneration), StandardOpenOption.WRITE)) {
+                torn.truncate(intactLength);
+            }
+        }
+        log = FileChannel.open(logPath(logGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve("stats-" + generation + ".log");
+    }
+
+    /** @return the generations of every log in the directory, oldest first */
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith("stats-") || !name.endsWith(".log")) continue;
+                try {
+                    generations.add(Long.parseLong(name.substring("stats-".length(), name.length() - ".log".length())));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private void mapCompacted(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(path + " is not a player stats file of version " + VERSION);
+            }
+            compacted = buffer;
+            compactedGeneration = buffer.getLong(8);
+            compactedPlayers = buffer.getInt(16);
+        }
+    }
+
+    private void readLeaderboards() {
+        ByteBuffer data = compacted.duplicate().position((int) compacted.getLong(28));
+        for (TopK board : leaderboards) {
+            long size = GameLog.getVarint(data);
+            for (long i = 0; i < size; i++) {
+                String name = readName(data);
+                board.offer(name, (int) GameLog.getVarint(data));
+            }
+        }
+    }
+
+    /** Applies every intact record of a log; a torn record at the end (from a crash) is ignored.
+     * @return the length of the intact records at the start of the log */
+    private long replayLog(long generation) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(logPath(generation)));
+        int intact = 0;
+        try {
+            while (data.hasRemaining()) {
+                int length = (int) GameLog.getVarint(data);
+                if (length > data.remaining() - 4) return intact;
+                crc.reset();
+                crc.update(data.array(), data.position(), length);
+                if ((int) crc.getValue() != data.getInt(data.position() + length)) return intact;
+                ByteBuffer body = data.slice(data.position(), length);
+                data.position(data.position() + length + 4);
+                String name = readName(body);
+                int slot = (int) GameLog.getVarint(body);
+                int elementL = (int) GameLog.getVarint(body);
+                boolean won = GameLog.getVarint(body) != 0;
+                apply(name, slot, elementL, won, (int) GameLog.getVarint(body));
+                logRecords++;
+                intact = data.position();
+            }
+        } catch (BufferUnderflowException | IllegalStateException ex) {
+            // torn record
+        }
+        return intact;
+    }
+
+    /** @return the counter slot of a game's level and element set */
+    private static int slot(GameEngine.Config config) {
+        ElementSet playable = config.playableElements();
+        int category = playable.equals(ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET) ? 0
+                : playable.equals(ElementList.ALL_ELEMENTS_SET) ? 1 : 2;
+        return levelIndex(config.difficulty()) * SET_CATEGORIES.length + category;
+    }
+
+    /** @return the index of a level in LEVELS (levels that are not one of them count as the nearest harder one) */
+    private static int levelIndex(int level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (level >= LEVELS[i]) return i;
+        }
+        return LEVELS.length - 1;
+    }
+
+    /** Records a finished game.
+     * @param name the player's name, of 1 to MAX_NAME_LENGTH chars
+     * @param game the finished game
+     * @throws IOException thrown if the log cannot be written
+     * @throws IllegalArgumentException thrown if the name is empty or too long
+     * @throws IllegalStateException thrown if the game is not over */
+    synchronized void record(String name, GameEngine game)
+            throws IOException, IllegalArgumentException, IllegalStateException {
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("A player name has 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+        if (!game.isOver()) throw new IllegalStateException("Game is not over");
+        int slot = slot(game.getConfig());
+        int elementL = game.getElementL().getAtomicNumber();
+        boolean won = game.getStatus() == GameEngine.Status.WON;
+        int fetches = game.getConfig().startingFetches() - Math.max(game.getFetches(), 0);
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(nameBytes.length + 30);
+        GameLog.putVarint(body, nameBytes.length);
+        body.put(nameBytes);
+        GameLog.putVarint(body, slot);
+        GameLog.putVarint(body, elementL);
+        GameLog.putVarint(body, won ? 1 : 0);
+        GameLog.putVarint(body, fetches);
+        ByteBuffer record = ByteBuffer.allocate(body.position() + 9);
+        GameLog.putVarint(record, body.position());
+        record.put(body.array(), 0, body.position());
+        crc.reset();
+        crc.update(body.array(), 0, body.position());
+        record.putInt((int) crc.getValue()).flip();
+        while (record.hasRemaining()) log.write(record);
+        apply(name, slot, elementL, won, fetches);
+        if (++logRecords >= COMPACTION_RECORDS && compactor == null) startCompaction();
+    }
+
+    /** Applies a game to a player's counters and the leaderboards. */
+    private void apply(String name, int slot, int elementL, boolean won, int fetches) {
+        Player player = changed.get(name);
+        if (player == null) {
+            Player stored = readCompacted(name);
+            player = (stored != null) ? stored : new Player(name);
+            changed.put(name, player);
+        }
+        player.add(slot, elementL, won, fetches);
+        if (won) {
+            leaderboards[OVERALL].offer(name, player.getWins(0));
+            int level = slot / SET_CATEGORIES.length;
+            leaderboards[1 + level].offer(name, player.getWins(LEVELS[level]));
+        }
+    }
+
+    /** @param name a player's name
+     * @return a copy of the player's counters, or null if they have never finished a game */
+    synchronized Player get(String name) {
+        Player player = changed.get(name);
+        if (player != null) return player.copy();
+        return readCompacted(name);
+    }
+
+    /** @param level a difficulty level (e.g. ElementLGame.HYDROGEN_LEVEL), or 0 for total wins
+     * @return the names and win counts of the players with the most wins, most first */
+    synchronized List<Map.Entry<String, Integer>> leaderboard(int level) {
+        List<Map.Entry<String, Integer>> list = new ArrayList<>();
+        for (TopK.Entry entry : leaderboards[(level == 0) ? OVERALL : 1 + levelIndex(level)].list()) {
+            list.add(Map.entry(entry.name(), entry.score()));
+        }
+        return list;
+    }
+
+    /** @return the player's record in the compacted file, found by binary search over the index, or null */
+    private Player readCompacted(String name) {
+        if (compacted == null) return null;
+        int index = compacted.getInt(20);
+        int low = 0;
+        int high = compactedPlayers - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            ByteBuffer record = compacted.duplicate().position(compacted.getInt(index + 4 * middle));
+            int comparison = readName(record).compareTo(name);
+            if (comparison == 0) return readPlayer(name, record);
+            if (comparison < 0) low = middle + 1;
+            else high = middle - 1;
+        }
+        return null;
+    }
+
+    private static String readName(ByteBuffer data) {
+        byte[] bytes = new byte[(int) GameLog.getVarint(data)];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** @return the player's counters, from a record positioned just after the name */
+    private static Player readPlayer(String name, ByteBuffer record) {
+        Player player = new Player(name);
+        for (int slot = 0; slot < player.wins.length; slot++) {
+            player.wins[slot] = (int) GameLog.getVarint(record);
+            player.losses[slot] = (int) GameLog.getVarint(record);
+        }
+        player.fetchesUsed = GameLog.getVarint(record);
+        player.currentStreak = (int) GameLog.getVarint(record);
+        player.bestStreak = (int) GameLog.getVarint(record);
+        // only elements the player has seen are stored
+        long elements = GameLog.getVarint(record);
+        for (long i = 0; i < elements; i++) {
+            int z = (int) GameLog.getVarint(record);
+            player.elementGames[z] = (int) GameLog.getVarint(record);
+            player.elementLosses[z] = (int) GameLog.getVarint(record);
+        }
+        return player;
+    }
+
+    private static void writePlayer(ByteBuffer out, Player player) {
+        byte[] name = player.name.getBytes(StandardCharsets.UTF_8);
+        GameLog.putVarint(out, name.length);
+        out.put(name);
+        for (int slot = 0; slot < player.wins.length; slot++) {
+            GameLog.putVarint(out, player.wins[slot]);
+            GameLog.putVarint(out, player.losses[slot]);
+        }
+        GameLog.putVarint(out, player.fetchesUsed);
+        GameLog.putVarint(out, player.currentStreak);
+        GameLog.putVarint(out, player.bestStreak);
+        int elements = 0;
+        for (int count : player.elementGames) {
+            if (count > 0) elements++;
+        }
+        GameLog.putVarint(out, elements);
+        for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+            if (player.elementGames[z] == 0) continue;
+            GameLog.putVarint(out, z);
+            GameLog.putVarint(out, player.elementGames[z]);
+            GameLog.putVarint(out, player.elementLosses[z]);
+        }
+    }
+
+    /** @return the most bytes writePlayer() can write for the player */
+    private static int maxRecordBytes(Player player) {
+        return 5 + player.name.getBytes(StandardCharsets.UTF_8).length + 2 * 5 * player.wins.length + 10 + 3 * 5
+                + 5 + 15 * Element.TOTAL_ELEMENT_COUNT;
+    }
+
+    /** Starts a new log and merges the old ones into a new compacted file on a background thread. */
+    private void startCompaction() throws IOException {
+        log.force(true);
+        log.close();
+        long mergedGeneration = logGeneration++;
+        log = FileChannel.open(logPath(logGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        logRecords = 0;
+        List<Player> frozen = new ArrayList<>(changed.size());
+        for (Player player : changed.values()) frozen.add(player.copy());
+        ByteBuffer base = compacted;
+        int basePlayers = compactedPlayers;
+        compactor = new Thread(() -> compact(frozen, base, basePlayers, mergedGeneration), "PlayerStats compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    /** Writes a new compacted file of every player, and then forgets the changed players it includes. */
+    private void compact(List<Player> frozen, ByteBuffer base, int basePlayers, long generation) {
+        try {
+            frozen.sort(Comparator.comparing(Player::getName));
+            List<Player> merged = new ArrayList<>(basePlayers + frozen.size());
+            int next = 0;
+            int index = (base == null) ? 0 : base.getInt(20);
+            for (int i = 0; i < basePlayers; i++) {
+                ByteBuffer record = base.duplicate().position(base.getInt(index + 4 * i));
+                String name = readName(record);
+                while (next < frozen.size() && frozen.get(next).name.compareTo(name) < 0) merged.add(frozen.get(next++));
+                if (next < frozen.size() && frozen.get(next).name.equals(name)) merged.add(frozen.get(next++));
+                else merged.add(readPlayer(name, record));
+            }
+            while (next < frozen.size()) merged.add(frozen.get(next++));
+            Path path = directory.resolve("stats.db");
+            Path temporary = directory.resolve("stats.db.tmp");
+            TopK[] boards = new TopK[leaderboards.length];
+            for (int i = 0; i < boards.length; i++) boards[i] = new TopK();
+            ByteBuffer out = ByteBuffer.allocate(1 << 16);
+            int[] offsets = new int[merged.size()];
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.position(HEADER_SIZE);
+                long position = 0;
+                for (int i = 0; i < merged.size(); i++) {
+                    Player player = merged.get(i);
+                    int size = maxRecordBytes(player);
+                    if (out.remaining() < size) {
+                        position += drain(out, channel);
+                        // only a player logged before names were limited can outgrow the buffer
+                        if (out.capacity() < size) out = ByteBuffer.allocate(size);
+                    }
+                    offsets[i] = (int) (position + out.position());
+                    writePlayer(out, player);
+                    boards[OVERALL].offer(player.name, player.getWins(0));
+                    for (int level = 0; level < LEVELS.length; level++) {
+                        boards[1 + level].offer(player.name, player.getWins(LEVELS[level]));
+                    }
+                }
+                int indexOffset = (int) (position + out.position());
+                for (int offset : offsets) {
+                    if (out.remaining() < 4) position += drain(out, channel);
+                    out.putInt(offset);
+                }
+                long boardOffset = position + out.position();
+                for (TopK board : boards) {
+                    if (out.remaining() < 5) position += drain(out, channel);
+                    List<TopK.Entry> entries = board.list();
+                    GameLog.putVarint(out, entries.size());
+                    for (TopK.Entry entry : entries) {
+                        byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+                        if (out.remaining() < name.length + 10) {
+                            position += drain(out, channel);
+                            if (out.capacity() < name.length + 10) out = ByteBuffer.allocate(name.length + 10);
+                        }
+                        GameLog.putVarint(out, name.length);
+                        out.put(name);
+                        GameLog.putVarint(out, entry.score());
+                    }
+                }
+                drain(out, channel);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(merged.size()).putInt(indexOffset)
+                        .putInt(0).putLong(boardOffset).flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                mapCompacted(path);
+                for (Player player : frozen) {
+                    // players changed again while compacting stay in memory, with every game counted
+                    if (changed.get(player.name).version == player.version) changed.remove(player.name);
+                }
+                for (long old = generation; Files.deleteIfExists(logPath(old)); old--) {}
+                compactor = null;
+            }
+        } catch (IOException | RuntimeException ex) {
+            synchronized (this) {
+                // the old logs are kept, so nothing is lost; compaction is tried again after more games
+                compactor = null;
+            }
+        }
+    }
+
+    /** Writes the buffer's contents to the channel and empties it.
+     * @return the bytes written */
+    private static int drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        int written = out.remaining();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+        return written;
+    }
+
+    /** Waits for a running compaction, then forces and closes the log. */
+    @Override
+    public void close() throws IOException {
+        Thread running;
+        synchronized (this) {
+            running = compactor;
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            log.force(true);
+            log.close();
+        }
+    }
+
+    /** Prints a player's statistics, or the leaderboards.
+     * Arguments: [player name] (default: print every leaderboard) */
+    public static void main(String[] args) throws IOException {
+        try (PlayerStats stats = new PlayerStats(STATS_DIRECTORY)) {
+            if (args.length > 0) {
+                Player player = stats.get(String.join(" ", args));
+                if (player == null) System.out.println("No games recorded for " + String.join(" ", args));
+                else printPlayer(System.out, player);
+                return;
+            }
+            String[] titles = {"Total wins", "HYDROGEN wins", "IRON wins", "GOLD wins", "URANIUM wins"};
+            for (int i = 0; i < titles.length; i++) {
+                System.out.println(titles[i] + ":");
+                int rank = 1;
+                for (Map.Entry<String, Integer> entry : stats.leaderboard((i == 0) ? 0 : LEVELS[i - 1])) {
+                    System.out.printf("%2d. %-20s %d%n", rank++, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /** Prints a player's record by level and element set, streaks, and the elements they lose to most. */
+    static void printPlayer(java.io.PrintStream out, Player player) {
+        String[] levelNames = {"HYDROGEN", "IRON", "GOLD", "URANIUM"};
+        out.printf("%s: %d-%d overall, %.1f fetches used per game, current streak %d, best streak %d%n", player.name,
+                player.getWins(0), player.getLosses(0), player.getMeanFetchesUsed(), player.currentStreak,
+                player.bestStreak);
+        for (int level = 0; level < LEVELS.length; level++) {
+            for (int category = 0; category < SET_CATEGORIES.length; category++) {
+                int wins = player.getWins(LEVELS[level], category);
+                int losses = player.getLosses(LEVELS[level], category);
+                if (wins + losses > 0) out.printf("  %s, %s: %d-%d%n", levelNames[level], SET_CATEGORIES[category],
+                        wins, losses);
+            }
+        }
+        Integer[] elements = new Integer[Element.TOTAL_ELEMENT_COUNT];
+        for (int z = 1; z <= elements.length; z++) elements[z - 1] = z;
+        Arrays.sort(elements, (a, b) -> player.elementLosses[b] - player.elementLosses[a]);
+        StringBuilder worst = new StringBuilder();
+        for (int i = 0; i < 5 && player.elementLosses[elements[i]] > 0; i++) {
+            if (worst.length() > 0) worst.append(", ");
+            worst.append(Element.of(elements[i]).getAbbreviation()).append(' ')
+                    .append(player.elementLosses[elements[i]]).append('/').append(player.elementGames[elements[i]]);
+        }
+        if (worst.length() > 0) out.println("  Most lost elements: " + worst);
+    }
+}
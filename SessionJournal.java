@@ -0,0 +1,407 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/** Crash-safe journal of games in progress, so unfinished games survive the JVM dying.
+ * Every session's start, each action, and its end are appended to a write-ahead journal. Records are buffered and
+ * written and forced to disk in batches, by a daemon thread every SYNC_INTERVAL_MS, so a crash loses at most the last
+ * few milliseconds of play. Every SNAPSHOT_INTERVAL records, the state of every unfinished session is written to a
+ * compact snapshot and the journal starts over, so the journal (and the time to recover) stays bounded however long
+ * the server runs.
+ * <p>A session's state is small: its config, seed, element L, and the action codes applied so far. Recovery loads
+ * the snapshot, replays the journal records written after it, rebuilds a GameEngine for every unfinished session by
+ * re-applying its actions, and then writes a fresh snapshot.
+ * <p>
+ * Journal layout: magic, version (4 bytes each), and the generation of the snapshot it follows (8 bytes); then
+ * records, each a varint length, a body, and the body's CRC32 (4 bytes). A body is varints: (session id &lt;&lt; 2 |
+ * type), then for START the zigzag seed, playable element bits, difficulty, and element L; for ACTION the action code
+ * (value &lt;&lt; 3 | kind ordinal, as in GameLog); for END nothing. Recovery stops at the first torn or corrupt record.
+ * <br>Snapshot layout: magic, version, generation, next session id, and session count, then each session's id, START
+ * fields, action count, and action codes as varints, and a CRC32 of everything before it. Snapshots are written to a
+ * temporary file and moved into place, so a crash never leaves half a snapshot.
+ * <p>Once opened, the journal never stops a game: if the journal or a snapshot cannot be written, the error is
+ * printed and journaling stops, and games go on unjournaled. What was written before the error is still recovered. */
+final class SessionJournal implements Closeable {
+    /** Default locations of the journal and snapshot, next to the element file. */
+    static final String JOURNAL_FILE = "src/sessions.journal";
+    static final String SNAPSHOT_FILE = "src/sessions.snapshot";
+    /** "ELSJ" and "ELSS" */
+    static final int JOURNAL_MAGIC = 0x454C534A;
+    static final int SNAPSHOT_MAGIC = 0x454C5353;
+    static final int VERSION = 1;
+    static final int JOURNAL_HEADER_SIZE = 16;
+    /** Longest time a record waits in the buffer before it is forced to disk. */
+    static final long SYNC_INTERVAL_MS = 20;
+    /** Journal records between snapshots. */
+    static final int SNAPSHOT_INTERVAL = 10_000;
+
+    private static final int START = 0;
+    private static final int ACTION = 1;
+    private static final int END = 2;
+    private static final int TYPE_BITS = 2;
+    /** Largest record body: a session id and the START fields, as varints. */
+    private static final int MAX_BODY_BYTES = 60;
+
+    /** An unfinished game, rebuilt by recovery.
+     * @param id the session's id in the journal
+     * @param game the game, with every journaled action applied */
+    record Session(long id, GameEngine game) {}
+
+    /** What the journal knows of one unfinished session. */
+    private static final class SessionState {
+        final GameEngine.Config config;
+        final long seed;
+        final int elementL;
+        int[] actions = new int[8];
+        int actionCount;
+
+        SessionState(GameEngine.Config config, long seed, int elementL) {
+            this.config = config;
+            this.seed = seed;
+            this.elementL = elementL;
+        }
+
+        void add(int action) {
+            if (actionCount == actions.length) actions = Arrays.copyOf(actions, actionCount * 2);
+            actions[actionCount++] = action;
+        }
+
+        /** @return a new game with every action applied */
+        GameEngine rebuild() {
+            GameEngine game = (seed == GameEngine.NO_SEED) ? new GameEngine(config, Element.of(elementL))
+                    : new GameEngine(config, seed);
+            ActionKind[] kinds = ActionKind.values();
+            for (int i = 0; i < actionCount && !game.isOver(); i++) {
+                game.apply(new GameEngine.Action(kinds[actions[i] & 7], actions[i] >>> 3));
+            }
+            return game;
+        }
+    }
+
+    private final Path journalPath;
+    private final Path snapshotPath;
+    /** Unfinished sessions, by id, in the order they started. */
+    private final Map<Long, SessionState> sessions = new LinkedHashMap<>();
+    /** Sessions recovered at startup, or released when their player left, that no player has resumed yet. */
+    private final List<Session> unclaimed = new ArrayList<>();
+    private FileChannel journal;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final CRC32 crc = new CRC32();
+    private long generation;
+    private long nextSessionId = 1;
+    private int recordsSinceSnapshot;
+    private boolean closed;
+    /** Set once the journal or a snapshot could not be written; nothing more is journaled. */
+    private boolean failed;
+    private final Thread syncer;
+
+    /** Opens the journal, recovering every unfinished session from the snapshot and the journal.
+     * @param journalFile path of the journal
+     * @param snapshotFile path of the snapshot
+     * @throws IOException thrown if the files cannot be read or written */
+    SessionJournal(String journalFile, String snapshotFile) throws IOException {
+        this.journalPath = Path.of(journalFile);
+        this.snapshotPath = Path.of(snapshotFile);
+        readSnapshot();
+        replayJournal();
+        for (Map.Entry<Long, SessionState> entry : sessions.entrySet()) {
+            GameEngine game = entry.getValue().rebuild();
+            if (!game.isOver()) unclaimed.add(new Session(entry.getKey(), game));
+        }
+        // sessions whose last action finished them, but whose END record was lost, are done
+        sessions.keySet().retainAll(unclaimed.stream().map(Session::id).toList());
+        snapshot();
+        syncer = new Thread(this::syncLoop, "SessionJournal sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /** Loads the sessions in the snapshot, if there is a valid one. */
+    private void readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) return;
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        if (data.remaining() < 4) return;
+        crc.reset();
+        crc.update(data.array(), 0, data.limit() - 4);
+        if ((int) crc.getValue() != data.getInt(data.limit() - 4)) return;
+        data.limit(data.limit() - 4);
+        if (data.getInt() != SNAPSHOT_MAGIC || data.getInt() != VERSION) return;
+        generation = data.getLong();
+        nextSessionId = GameLog.getVarint(data);
+        long count = GameLog.getVarint(data);
+        for (long i = 0; i < count; i++) {
+            long id = GameLog.getVarint(data);
+            SessionState state = readStart(data);
+            long actions = GameLog.getVarint(data);
+            for (long a = 0; a < actions; a++) state.add((int) GameLog.getVarint(data));
+            sessions.put(id, state);
+        }
+    }
+
+    /** Applies every intact journal record written since the snapshot. */
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) return;
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        if (data.remaining() < JOURNAL_HEADER_SIZE || data.getInt() != JOURNAL_MAGIC || data.getInt() != VERSION) return;
+        // a journal from before the snapshot was already folded into it
+        if (data.getLong() != generation) return;
+        try {
+            while (data.hasRemaining()) {
+                int length = (int) GameLog.getVarint(data);
+                if (length > data.remaining() - 4) return;
+                crc.reset();
+                crc.update(data.array(), data.position(), length);
+                if ((int) crc.getValue() != data.getInt(data.position() + length)) return;
+                ByteBuffer body = data.slice(data.position(), length);
+                data.position(data.position() + length + 4);
+                long header = GameLog.getVarint(body);
+                long id = header >>> TYPE_BITS;
+                switch ((int) (header & ((1 << TYPE_BITS) - 1))) {
+                    case START -> sessions.put(id, readStart(body));
+                    case ACTION -> {
+                        SessionState state = sessions.get(id);
+                        if (state != null) state.add((int) GameLog.getVarint(body));
+                    }
+                    case END -> sessions.remove(id);
+                }
+                nextSessionId = Math.max(nextSessionId, id + 1);
+            }
+        } catch (BufferUnderflowException | IllegalStateException ex) {
+            // a torn record at the end of the journal: everything before it is recovered
+        }
+    }
+
+    /** @return a session's state from its START fields */
+    private static SessionState readStart(ByteBuffer data) {
+        long zigzag = GameLog.getVarint(data);
+        ElementSet playable = ElementSet.fromBits(GameLog.getVarint(data), GameLog.getVarint(data));
+        GameEngine.Config config = new GameEngine.Config(playable, (int) GameLog.getVarint(data));
+        return new SessionState(config, (zigzag >>> 1) ^ -(zigzag & 1), (int) GameLog.getVarint(data));
+    }
+
+    /** Records a new game.
+     * @param game a game no action has been applied to
+     * @return the session's id, for record() and end()
+     * @throws IllegalArgumentException thrown if the game is not played by the standard rules, which the journal
+     * cannot record */
+    synchronized long start(GameEngine game) throws IllegalArgumentException {
+        if (!game.getConfig().rules().isStandard()) {
+            throw new IllegalArgumentException("Only games played by the standard rules can be journaled");
+        }
+        long id = nextSessionId++;
+        if (failed) return id;
+        SessionState state = new SessionState(game.getConfig(), game.getSeed(), game.getElementL().getAtomicNumber());
+        sessions.put(id, state);
+        ByteBuffer body = beginRecord(id, START);
+        GameLog.putVarint(body, (state.seed << 1) ^ (state.seed >> 63));
+        GameLog.putVarint(body, state.config.playableElements().getLowBits());
+        GameLog.putVarint(body, state.config.playableElements().getHighBits());
+        GameLog.putVarint(body, state.config.difficulty());
+        GameLog.putVarint(body, state.elementL);
+        endRecord(body);
+        return id;
+    }
+
+    /** Records an action applied to a session's game.
+     * @param id the session's id, from start()
+     * @param action the action */
+    synchronized void record(long id, GameEngine.Action action) {
+        SessionState state = sessions.get(id);
+        if (state == null || failed) return;
+        int code = action.value() << 3 | action.kind().ordinal();
+        state.add(code);
+        ByteBuffer body = beginRecord(id, ACTION);
+        GameLog.putVarint(body, code);
+        endRecord(body);
+    }
+
+    /** Records that a session's game is over (or abandoned), so it is not recovered.
+     * @param id the session's id, from start() or a recovered Session */
+    synchronized void end(long id) {
+        if (sessions.remove(id) == null || failed) return;
+        endRecord(beginRecord(id, END));
+    }
+
+    /** Makes a session claimable again when its player leaves before the game is over, as if it had been recovered,
+     * so the next player is offered it instead of it staying in every snapshot until a restart.
+     * @param id the session's id, from start() or a claimed Session; a session that has ended is left alone */
+    synchronized void release(long id) {
+        SessionState state = sessions.get(id);
+        if (state == null) return;
+        GameEngine game = state.rebuild();
+        if (game.isOver()) end(id);
+        else unclaimed.add(new Session(id, game));
+    }
+
+    /** Takes a recovered session for a player to resume, so no other player is offered it.
+     * @return the oldest recovered session no one has resumed, or null if there is none */
+    synchronized Session claimUnfinished() {
+        return unclaimed.isEmpty() ? null : unclaimed.remove(0);
+    }
+
+    /** @return the number of recovered sessions no one has resumed */
+    synchronized int getUnclaimedCount() {
+        return unclaimed.size();
+    }
+
+    /** @return the buffer's body area for a new record, with the record's header written; endRecord() frames it */
+    private ByteBuffer beginRecord(long id, int type) {
+        if (buffer.remaining() < MAX_BODY_BYTES + 9) {
+            try {
+                writeBuffer();
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+        // leave room for the length varint, which endRecord() fills in once the body's length is known
+        ByteBuffer body = buffer.slice(buffer.position() + 1, MAX_BODY_BYTES);
+        GameLog.putVarint(body, id << TYPE_BITS | type);
+        return body;
+    }
+
+    /** Frames the record started by beginRecord(), and takes a snapshot if enough records have piled up. */
+    private void endRecord(ByteBuffer body) {
+        int length = body.position();
+        int start = buffer.position();
+        // every body is under 128 bytes, so its length is a one-byte varint
+        buffer.put(start, (byte) length);
+        crc.reset();
+        crc.update(buffer.array(), start + 1, length);
+        buffer.putInt(start + 1 + length, (int) crc.getValue());
+        buffer.position(start + 1 + length + 4);
+        if (++recordsSinceSnapshot >= SNAPSHOT_INTERVAL) {
+            try {
+                snapshot();
+            } catch (IOException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    /** Writes and forces every buffered record to the journal.
+     * @throws IOException thrown if the journal cannot be written */
+    synchronized void sync() throws IOException {
+        writeBuffer();
+        journal.force(false);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) journal.write(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /** Stops journaling after the journal or a snapshot could not be written, so the games go on without it. */
+    private void fail(IOException ex) {
+        if (failed) return;
+        failed = true;
+        buffer.clear();
+        System.err.println("Games will no longer survive a crash: the session journal could not be written: "
+                + ex.getMessage());
+    }
+
+    /** Writes every unfinished session to a new snapshot and starts a new, empty journal after it. */
+    private void snapshot() throws IOException {
+        if (journal != null) writeBuffer();
+        int size = 32;
+        for (SessionState state : sessions.values()) size += MAX_BODY_BYTES + 5 + 5 * state.actionCount;
+        ByteBuffer data = ByteBuffer.allocate(size);
+        data.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(generation + 1);
+        GameLog.putVarint(data, nextSessionId);
+        GameLog.putVarint(data, sessions.size());
+        for (Map.Entry<Long, SessionState> entry : sessions.entrySet()) {
+            SessionState state = entry.getValue();
+            GameLog.putVarint(data, entry.getKey());
+            GameLog.putVarint(data, (state.seed << 1) ^ (state.seed >> 63));
+            GameLog.putVarint(data, state.config.playableElements().getLowBits());
+            GameLog.putVarint(data, state.config.playableElements().getHighBits());
+            GameLog.putVarint(data, state.config.difficulty());
+            GameLog.putVarint(data, state.elementL);
+            GameLog.putVarint(data, state.actionCount);
+            for (int i = 0; i < state.actionCount; i++) GameLog.putVarint(data, state.actions[i]);
+        }
+        crc.reset();
+        crc.update(data.array(), 0, data.position());
+        data.putInt((int) crc.getValue());
+        data.flip();
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) channel.write(data);
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // the snapshot is durable, so the old journal can go; if we crash before this, its generation is stale
+        generation++;
+        if (journal != null) journal.close();
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) journal.write(header);
+        journal.force(true);
+        recordsSinceSnapshot = 0;
+    }
+
+    private void syncLoop() {
+        while (true) {
+            try {
+                Thread.sleep(SYNC_INTERVAL_MS);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            synchronized (this) {
+                if (closed) return;
+                if (failed || buffer.position() == 0) continue;
+                try {
+                    sync();
+                } catch (IOException ex) {
+                    // reported, and the thread goes on sleeping until the journal is closed
+                    fail(ex);
+                }
+            }
+        }
+    }
+
+    /** Syncs every buffered record and closes the journal. Unfinished sessions stay in it, to be recovered. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        syncer.interrupt();
+        try {
+            if (!failed) sync();
+        } finally {
+            journal.close();
+        }
+    }
+
+    /** Recovers the journal and prints every unfinished session, without resuming any of them. Like every open, this
+     * folds the journal into a fresh snapshot and starts a new, empty journal; the sessions themselves are unchanged.
+     * Arguments: [journal file (default JOURNAL_FILE)] [snapshot file (default SNAPSHOT_FILE)] */
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        try (SessionJournal journal = new SessionJournal((args.length > 0) ? args[0] : JOURNAL_FILE,
+                (args.length > 1) ? args[1] : SNAPSHOT_FILE)) {
+            System.out.printf("Recovered %d unfinished sessions in %.1f ms%n", journal.getUnclaimedCount(),
+                    (System.nanoTime() - start) / 1e6);
+            for (Session session : journal.unclaimed) {
+                System.out.printf("Session %d: %d actions, %d fetches left, %d candidates%n", session.id(),
+                        session.game().getHistory().size(), session.game().getFetches(),
+                        session.game().getCandidates().size());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A bot that plays the Element-L game through a GameEngine, for Tournament and other tools.
+ * Strategies see the game only through the engine's public state (fetches, candidates, known kinds), must not look
+ * at element L, and must be safe to call from many threads at once: per-game state belongs in the engine, not the
+ * strategy. */
+@FunctionalInterface
+interface Strategy {
+    /** @param game a game in progress
+     * @return the next action to apply to the game */
+    GameEngine.Action chooseAction(GameEngine game);
+
+    /** Takes the action HintAdvisor ranks best: the most information per expected fetch. */
+    Strategy ADVISOR = game -> {
+        List<HintAdvisor.Advice> advice = HintAdvisor.rank(game);
+        return new GameEngine.Action(advice.get(0).kind(), advice.get(0).value());
+    };
+
+    /** Plays perfectly, following GameSolver's policy (solving a state the first time it is reached can take
+     * seconds; states are then shared by every game and thread). Only plays by the standard rules. */
+    Strategy OPTIMAL = new Strategy() {
+        private final GameSolver solver = new GameSolver();
+
+        @Override
+        public GameEngine.Action chooseAction(GameEngine game) {
+            if (!game.getConfig().rules().isStandard()) {
+                throw new IllegalStateException("The optimal strategy only plays by the standard rules");
+            }
+            HintAdvisor.Advice best = solver.bestAction(game.getCandidates(), game.getFetches());
+            return new GameEngine.Action(best.kind(), best.value());
+        }
+    };
+
+    /** A naive baseline: learns the row, then the family, of the lowest candidate left, then guesses the candidates
+     * in order of atomic number. */
+    Strategy LOWEST_FIRST = game -> {
+        Element lowest = Element.of(game.getCandidates().next(0));
+        if (game.getCandidates().size() > 1) {
+            if (!game.isKnown(ActionKind.ROW)) return GameEngine.Action.guessRow(lowest.getPeriod());
+            if (!game.isKnown(ActionKind.FAMILY)) return GameEngine.Action.guessFamily(lowest.getFamily());
+        }
+        return GameEngine.Action.guessElement(lowest);
+    };
+
+    /** @return every built-in strategy by name, in the order they are usually reported */
+    static Map<String, Strategy> builtIns() {
+        Map<String, Strategy> strategies = new LinkedHashMap<>();
+        strategies.put("advisor", ADVISOR);
+        strategies.put("lowest-first", LOWEST_FIRST);
+        strategies.put("optimal", OPTIMAL);
+        return strategies;
+    }
+}
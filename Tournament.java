@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/** Plays strategies against each other over many games and reports how each does.
+ * Games are played in shards of SHARD_SIZE games. Each shard gets its own SplittableRandom stream, split from one
+ * root seed in shard order, so results depend only on the seed and never on how many threads ran the shards. Every
+ * strategy plays the same element Ls (common random numbers), which makes differences between them show up sooner.
+ * Shards run in parallel on the common fork-join pool, SHARDS_PER_ROUND at a time; after each round the tournament
+ * stops early once every pair of strategies' win rate confidence intervals have separated. */
+final class Tournament {
+    /** Games per shard: large enough to keep threads busy, small enough to stop soon after the intervals separate. */
+    static final int SHARD_SIZE = 1 << 14;
+    /** Shards per round, between early stopping checks. Fixed rather than derived from the number of processors, so
+     * where the tournament stops does not depend on the machine either. */
+    static final int SHARDS_PER_ROUND = 32;
+    /** z-score of the confidence intervals used for early stopping (99%). */
+    static final double Z_SCORE = 2.576;
+    /** Actions after which a game is resigned, so a strategy that repeats a useless action cannot loop forever. */
+    static final int MAX_ACTIONS = 256;
+
+    private Tournament() {}
+
+    /** The results of one strategy. Reports are only merged and read after their shards finish, so they need no
+     * locking. */
+    static final class Report {
+        private final String strategy;
+        private long games;
+        private long wins;
+        private long fetchesUsed;
+        /** Games and losses with each element as element L, indexed by atomic number. */
+        private final long[] gamesByElement = new long[Element.TOTAL_ELEMENT_COUNT + 1];
+        private final long[] lossesByElement = new long[Element.TOTAL_ELEMENT_COUNT + 1];
+
+        Report(String strategy) {
+            this.strategy = strategy;
+        }
+
+        /** Records one finished game. */
+        void add(GameEngine game) {
+            int z = game.getElementL().getAtomicNumber();
+            games++;
+            gamesByElement[z]++;
+            fetchesUsed += game.getConfig().startingFetches() - Math.max(game.getFetches(), 0);
+            if (game.getStatus() == GameEngine.Status.WON) wins++;
+            else lossesByElement[z]++;
+        }
+
+        /** Adds another report's games to this one. */
+        void merge(Report other) {
+            games += other.games;
+            wins += other.wins;
+            fetchesUsed += other.fetchesUsed;
+            for (int z = 1; z <= Element.TOTAL_ELEMENT_COUNT; z++) {
+                gamesByElement[z] += other.gamesByElement[z];
+                lossesByElement[z] += other.lossesByElement[z];
+            }
+        }
+
+        String getStrategy() {
+            return strategy;
+        }
+
+        long getGames() {
+            return games;
+        }
+
+        double getWinRate() {
+            return (games == 0) ? 0 : (double) wins / games;
+        }
+
+        /** @return half the width of the win rate's confidence interval (normal approximation, Z_SCORE) */
+        double getMarginOfError() {
+            if (games == 0) return 1;
+            double p = getWinRate();
+            return Z_SCORE * Math.sqrt(p * (1 - p) / games);
+        }
+
+        double getMeanFetchesUsed() {
+            return (games == 0) ? 0 : (double) fetchesUsed / games;
+        }
+
+        /** @param z an atomic number
+         * @return the share of games with the element as element L that were lost (0 if there were none) */
+        double getLossRate(int z) {
+            return (gamesByElement[z] == 0) ? 0 : (double) lossesByElement[z] / gamesByElement[z];
+        }
+
+        /** @param count the most elements listed
+         * @return the elements lost most often, worst first, as "Symbol rate%" (only elements lost at least once) */
+        String getWorstElements(int count) {
+            Integer[] order = new Integer[Element.TOTAL_ELEMENT_COUNT];
+            for (int i = 0; i < order.length; i++) order[i] = i + 1;
+            Arrays.sort(order, (a, b) -> Double.compare(getLossRate(b), getLossRate(a)));
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < count && lossesByElement[order[i]] > 0; i++) {
+                if (builder.length() > 0) builder.append(", ");
+                builder.append(String.format("%s %.0f%%", Element.of(order[i]).getAbbreviation(),
+                        100 * getLossRate(order[i])));
+            }
+            return builder.toString();
+        }
+    }
+
+    /** Plays every strategy against the same element Ls until the win rates separate or maxGames games are played.
+     * @param strategies the strategies, by name
+     * @param config the settings of every game
+     * @param maxGames the most games each strategy plays
+     * @param seed the root seed of every game's element L
+     * @return a report for each strategy, in the order given */
+    static List<Report> run(Map<String, Strategy> strategies, GameEngine.Config config, long maxGames, long seed) {
+        List<String> names = new ArrayList<>(strategies.keySet());
+        List<Report> totals = new ArrayList<>();
+        for (String name : names) totals.add(new Report(name));
+        SplittableRandom root = new SplittableRandom(seed);
+        long played = 0;
+        while (played < maxGames) {
+            int shards = (int) Math.min(SHARDS_PER_ROUND, (maxGames - played + SHARD_SIZE - 1) / SHARD_SIZE);
+            SplittableRandom[] streams = new SplittableRandom[shards];
+            int[] sizes = new int[shards];
+            for (int i = 0; i < shards; i++) {
+                streams[i] = root.split();
+                sizes[i] = (int) Math.min(SHARD_SIZE, maxGames - played);
+                played += sizes[i];
+            }
+            List<Report[]> results = IntStream.range(0, shards).parallel()
+                    .mapToObj(i -> playShard(names, strategies, config, streams[i], sizes[i])).toList();
+            for (Report[] shard : results) {
+                for (int s = 0; s < shard.length; s++) totals.get(s).merge(shard[s]);
+            }
+            if (separated(totals)) break;
+        }
+        return totals;
+    }
+
+    /** Plays one shard of games with every strategy.
+     * @return a report for each strategy, in the order of names */
+    private static Report[] playShard(List<String> names, Map<String, Strategy> strategies, GameEngine.Config config,
+                                      SplittableRandom stream, int games) {
+        Report[] reports = new Report[names.size()];
+        for (int s = 0; s < reports.length; s++) reports[s] = new Report(names.get(s));
+        for (int i = 0; i < games; i++) {
+            long gameSeed = stream.nextLong();
+            for (int s = 0; s < reports.length; s++) {
+                reports[s].add(play(strategies.get(names.get(s)), new GameEngine(config, gameSeed)));
+            }
+        }
+        return reports;
+    }
+
+    /** Plays a game to the end.
+     * @return the finished game */
+    static GameEngine play(Strategy strategy, GameEngine game) {
+        for (int actions = 0; !game.isOver(); actions++) {
+            if (actions == MAX_ACTIONS) game.resign();
+            else game.apply(strategy.chooseAction(game));
+        }
+        return game;
+    }
+
+    /** @return true if every pair of reports' win rate confidence intervals are disjoint (false for a single report,
+     * which plays every game it is given) */
+    private static boolean separated(List<Report> reports) {
+        if (reports.size() < 2) return false;
+        for (int i = 0; i < reports.size(); i++) {
+            for (int j = i + 1; j < reports.size(); j++) {
+                Report a = reports.get(i);
+                Report b = reports.get(j);
+                double gap = Math.abs(a.getWinRate() - b.getWinRate());
+                if (gap <= a.getMarginOfError() + b.getMarginOfError()) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Runs a tournament at every difficulty, with and without lanthanides and actinides, and prints the reports.
+     * Arguments: [games per strategy, in millions (default 1)] [seed (default 0)] [strategy names...
+     * (default: every built-in strategy but optimal, which takes minutes to solve)] [--rules FILE (default: the
+     * standard rules), whose levels are the difficulties played] */
+    public static void main(String[] args) throws IOException {
+        double millions = (args.length > 0) ? Double.parseDouble(args[0]) : 1;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : 0;
+        GameRules rules = GameRules.STANDARD;
+        Map<String, Strategy> strategies = new LinkedHashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--rules") && i + 1 < args.length) {
+                rules = GameRules.load(args[++i]);
+                continue;
+            }
+            Strategy strategy = Strategy.builtIns().get(args[i].toLowerCase());
+            if (strategy == null) throw new IllegalArgumentException("Unknown strategy: " + args[i]);
+            strategies.put(args[i].toLowerCase(), strategy);
+        }
+        if (strategies.isEmpty()) {
+            strategies.putAll(Strategy.builtIns());
+            strategies.remove("optimal");
+        }
+        if (!rules.isStandard() && strategies.containsKey("optimal")) {
+            throw new IllegalArgumentException("The optimal strategy only plays by the standard rules");
+        }
+        if (rules != GameRules.STANDARD) System.out.printf("Rules: %s%n", rules.getName());
+        System.out.printf("%-9s%-5s%-14s%-11s%-20s%-13s%s%n", "Level", "L/A", "Strategy", "Games", "Win rate",
+                "Mean fetches", "Most lost elements");
+        for (boolean withLanthanidesActinides : new boolean[]{false, true}) {
+            ElementSet playable = withLanthanidesActinides ? ElementList.ALL_ELEMENTS_SET
+                    : ElementList.NO_LANTHANIDES_OR_ACTINIDES_SET;
+            for (GameRules.Level level : rules.levels()) {
+                GameEngine.Config config = new GameEngine.Config(playable, level.fetches(), rules);
+                for (Report report : run(strategies, config, (long) (millions * 1_000_000), seed)) {
+                    System.out.printf("%-9s%-5s%-14s%-11d%-20s%-13.2f%s%n", level.name(),
+                            withLanthanidesActinides ? "yes" : "no", report.getStrategy(), report.getGames(),
+                            String.format("%.2f%% +/- %.2f", 100 * report.getWinRate(), 100 * report.getMarginOfError()),
+                            report.getMeanFetchesUsed(), report.getWorstElements(5));
+                }
+            }
+        }
+    }
+}